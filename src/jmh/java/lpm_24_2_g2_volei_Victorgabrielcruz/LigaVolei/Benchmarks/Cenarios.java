@@ -0,0 +1,43 @@
+package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Benchmarks;
+
+import java.util.SplittableRandom;
+
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Models.Equipe;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Models.PartidaDeVolei;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Models.StatusPartida;
+
+/**
+ * Montagem determinística de partidas em memória para os benchmarks.
+ */
+final class Cenarios {
+
+    private Cenarios() {
+    }
+
+    /**
+     * Cria e registra nas duas equipes uma partida jogada até o fim, com
+     * placares válidos sorteados.
+     */
+    static PartidaDeVolei partidaEncerrada(Equipe mandante, Equipe visitante, SplittableRandom aleatorio) {
+        PartidaDeVolei partida = new PartidaDeVolei(mandante, visitante);
+        mandante.registrarPartida(partida);
+        visitante.registrarPartida(partida);
+        jogar(partida, aleatorio);
+        return partida;
+    }
+
+    /**
+     * Registra sets sorteados até que uma das equipes vença 3.
+     */
+    static void jogar(PartidaDeVolei partida, SplittableRandom aleatorio) {
+        for (int set = 1; partida.status() != StatusPartida.ENCERRADA; set++) {
+            int pontosVencedor = set == 5 ? 15 : 25;
+            int pontosPerdedor = aleatorio.nextInt(pontosVencedor - 1);
+            if (aleatorio.nextBoolean()) {
+                partida.registrarPlacarSet(set, pontosVencedor, pontosPerdedor);
+            } else {
+                partida.registrarPlacarSet(set, pontosPerdedor, pontosVencedor);
+            }
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Benchmarks;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.DTO.EquipeDTO;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Models.Equipe;
+
+/**
+ * Relatório e DTO de uma equipe em função da quantidade de partidas jogadas.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EquipeBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    private int partidas;
+
+    private Equipe equipe;
+
+    @Setup
+    public void preparar() {
+        SplittableRandom aleatorio = new SplittableRandom(42);
+        equipe = new Equipe("Equipe");
+        Equipe[] adversarios = new Equipe[10];
+        for (int i = 0; i < adversarios.length; i++) {
+            adversarios[i] = new Equipe("Adversario " + i);
+        }
+        for (int i = 0; i < partidas; i++) {
+            Cenarios.partidaEncerrada(equipe, adversarios[i % adversarios.length], aleatorio);
+        }
+    }
+
+    @Benchmark
+    public String relatorio() {
+        return equipe.relatorio();
+    }
+
+    @Benchmark
+    public EquipeDTO dto() {
+        return equipe.getDTO();
+    }
+}
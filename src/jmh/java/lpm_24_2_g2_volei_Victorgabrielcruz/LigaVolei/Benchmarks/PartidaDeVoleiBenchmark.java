@@ -0,0 +1,72 @@
+package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Benchmarks;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.DTO.ResultadoPartidaDTO;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Models.Equipe;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Models.PartidaDeVolei;
+
+/**
+ * Registro de sets, vencedor e placar formatado de uma partida.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PartidaDeVoleiBenchmark {
+
+    private Equipe mandante;
+    private Equipe visitante;
+    private PartidaDeVolei encerrada;
+
+    @Setup
+    public void preparar() {
+        mandante = new Equipe("Mandante");
+        visitante = new Equipe("Visitante");
+        encerrada = Cenarios.partidaEncerrada(mandante, visitante, new SplittableRandom(42));
+    }
+
+    /**
+     * Partida completa em 5 sets: inclui a criação da partida, já que um set
+     * só pode ser registrado uma vez.
+     */
+    @Benchmark
+    public PartidaDeVolei registrarPlacarSet() {
+        PartidaDeVolei partida = new PartidaDeVolei(mandante, visitante);
+        partida.registrarPlacarSet(1, 25, 20);
+        partida.registrarPlacarSet(2, 23, 25);
+        partida.registrarPlacarSet(3, 27, 25);
+        partida.registrarPlacarSet(4, 18, 25);
+        partida.registrarPlacarSet(5, 15, 13);
+        return partida;
+    }
+
+    @Benchmark
+    public String vencedorDoJogo() {
+        return encerrada.vencedorDoJogo();
+    }
+
+    @Benchmark
+    public ResultadoPartidaDTO resultado() {
+        return encerrada.resultado();
+    }
+
+    @Benchmark
+    public String exibirPlacar() {
+        return encerrada.exibirPlacar();
+    }
+}
@@ -0,0 +1,76 @@
+package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Benchmarks;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Models.CriterioClassificacao;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Models.Equipe;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Models.RankingTemporada;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Models.Temporada;
+
+/**
+ * Tabela e líder de uma temporada em função da quantidade de equipes, com o
+ * critério padrão e com todos os critérios de desempate. Cada equipe joga
+ * {@code PARTIDAS_POR_EQUIPE} partidas contra as seguintes na lista.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TemporadaBenchmark {
+
+    private static final int PARTIDAS_POR_EQUIPE = 10;
+    private static final RankingTemporada TODOS_CRITERIOS =
+            new RankingTemporada(List.of(CriterioClassificacao.values()));
+
+    @Param({"10", "1000", "10000"})
+    private int equipes;
+
+    private Temporada temporada;
+
+    @Setup
+    public void preparar() {
+        SplittableRandom aleatorio = new SplittableRandom(42);
+        temporada = new Temporada(2024);
+        Equipe[] cadastradas = new Equipe[equipes];
+        for (int i = 0; i < equipes; i++) {
+            cadastradas[i] = new Equipe("Equipe " + i);
+            temporada.cadastrarEquipe(cadastradas[i]);
+        }
+        for (int i = 0; i < equipes; i++) {
+            for (int j = 1; j <= PARTIDAS_POR_EQUIPE / 2; j++) {
+                Cenarios.partidaEncerrada(cadastradas[i], cadastradas[(i + j) % equipes], aleatorio);
+            }
+        }
+    }
+
+    @Benchmark
+    public String tabela() {
+        return temporada.tabela();
+    }
+
+    @Benchmark
+    public Equipe liderTemporada() {
+        return temporada.liderTemporada();
+    }
+
+    @Benchmark
+    public String tabelaTodosCriterios() {
+        return temporada.tabela(TODOS_CRITERIOS);
+    }
+}
@@ -0,0 +1,77 @@
+package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Services;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Models.RankingTemporada;
+
+/**
+ * Simulação de Monte Carlo do restante de uma temporada de 16 equipes em
+ * turno completo, com metade das partidas já decididas. Fica no pacote dos
+ * serviços porque {@link SimulacaoTemporada} é interna a ele.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SimulacaoTemporadaBenchmark {
+
+    private static final int EQUIPES = 16;
+
+    @Param({"10000", "100000"})
+    private int simulacoes;
+
+    private SimulacaoTemporada simulacao;
+    private ForkJoinPool pool;
+
+    @Setup
+    public void preparar() {
+        SplittableRandom aleatorio = new SplittableRandom(9);
+        int partidas = EQUIPES * (EQUIPES - 1) / 2;
+        int pendentes = partidas - partidas / 2;
+        simulacao = new SimulacaoTemporada(EQUIPES, pendentes, RankingTemporada.PADRAO);
+        for (int i = 0; i < EQUIPES; i++) {
+            int jogadas = (EQUIPES - 1) / 2;
+            int vitorias = aleatorio.nextInt(jogadas + 1);
+            int setsVencidos = 3 * vitorias + aleatorio.nextInt(2 * (jogadas - vitorias) + 1);
+            int setsDisputados = setsVencidos + 3 * (jogadas - vitorias) + aleatorio.nextInt(2 * vitorias + 1);
+            simulacao.adicionarEquipe(i + 1, "Equipe " + i, EQUIPES - 1, vitorias, setsVencidos, setsDisputados,
+                    20 * setsVencidos + 22 * (setsDisputados - setsVencidos),
+                    20 * (setsDisputados - setsVencidos) + 22 * setsVencidos);
+        }
+        int adicionadas = 0;
+        for (int i = 0; i < EQUIPES && adicionadas < pendentes; i++) {
+            for (int j = i + 1; j < EQUIPES && adicionadas < pendentes; j++) {
+                simulacao.adicionarPartida(i + 1, j + 1, 0, 0);
+                adicionadas++;
+            }
+        }
+        pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    }
+
+    @TearDown
+    public void encerrar() {
+        pool.shutdownNow();
+    }
+
+    @Benchmark
+    public long[] simular() {
+        return simulacao.simular(pool, simulacoes, 4, 7);
+    }
+}
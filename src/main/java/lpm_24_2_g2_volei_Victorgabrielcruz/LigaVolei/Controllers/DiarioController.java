@@ -0,0 +1,76 @@
+package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Controllers;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.servlet.http.HttpServletResponse;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.DTO.VerificacaoDiarioDTO;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Metricas.OrcamentoConsultas;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Services.DiarioResultadosService;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Services.ImportacaoNdjsonService;
+
+/**
+ * Controlador para consultar o diário de resultados: leitura dos registros e
+ * conferência com o banco.
+ */
+@Controller
+@RequestMapping("/diario")
+public class DiarioController {
+
+    @Autowired
+    private DiarioResultadosService diarioService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Lista os registros do diário em NDJSON, um por linha, em ordem de
+     * sequência. Não consulta o banco.
+     *
+     * @param aPartirDe Sequência do último registro já lido (0 para ler desde
+     * o início).
+     * @param resposta Resposta onde os registros são escritos.
+     * @throws IOException Em caso de falha de escrita.
+     */
+    @GetMapping
+    @OrcamentoConsultas(0)
+    public void ler(@RequestParam(defaultValue = "0") long aPartirDe, HttpServletResponse resposta) throws IOException {
+        resposta.setContentType(ImportacaoNdjsonService.NDJSON);
+        OutputStream saida = resposta.getOutputStream();
+        try {
+            diarioService.ler(aPartirDe, entrada -> {
+                try {
+                    saida.write(objectMapper.writeValueAsBytes(entrada));
+                    saida.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        saida.flush();
+    }
+
+    /**
+     * Reconstrói os resultados a partir do diário e confere com o banco.
+     *
+     * @return Totais reconstruídos e divergências encontradas.
+     */
+    @GetMapping("/verificacao")
+    @OrcamentoConsultas(2)
+    public @ResponseBody
+    VerificacaoDiarioDTO verificar() {
+        return diarioService.verificar();
+    }
+}
@@ -1,21 +1,47 @@
 package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Controllers;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Controller;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.request.WebRequest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import jakarta.persistence.EntityManager;
-import jakarta.persistence.EntityManagerFactory;
-import jakarta.persistence.PersistenceUnit;
+import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.TypedQuery;
+import jakarta.servlet.http.HttpServletResponse;
 import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.DTO.EquipeDTO;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.DTO.EstatisticasCacheDTO;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.DTO.NovaEquipeDTO;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.DTO.PaginaPartidasDTO;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.DTO.PartidaResumoDTO;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.DTO.ResultadoLinhaDTO;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Events.AlteracaoResultado;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Events.AlteracaoResultado.EquipeRecalculada;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Events.EquipeAtualizadaEvent;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Events.ResultadosAlteradosEvent;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Metricas.OrcamentoConsultas;
 import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Models.Equipe;
 import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Models.PartidaDeVolei;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Services.CadastroEquipesService;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Services.EquipeCacheService;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Services.HistoricoPartidasService;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Services.ImportacaoNdjsonService;
 
 /**
  * Controlador para gerenciar operações relacionadas às equipes de vôlei.
@@ -24,8 +50,26 @@ import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Models.PartidaDeVolei;
 @Controller
 public class EquipeController {
 
-    @PersistenceUnit
-    private EntityManagerFactory factory;
+    @PersistenceContext
+    private EntityManager manager;
+
+    @Autowired
+    private ApplicationEventPublisher eventos;
+
+    @Autowired
+    private CadastroEquipesService cadastroEquipesService;
+
+    @Autowired
+    private ImportacaoNdjsonService importacaoService;
+
+    @Autowired
+    private HistoricoPartidasService historicoPartidasService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EquipeCacheService equipeCacheService;
 
     /**
      * Cria uma nova equipe e a persiste no banco de dados.
@@ -34,12 +78,11 @@ public class EquipeController {
      * @return A equipe criada.
      */
     @PostMapping("/equipes")
+    @OrcamentoConsultas(0)
+    @Transactional
     public @ResponseBody
     Equipe criarEquipe(@RequestBody Equipe equipe) {
-        EntityManager manager = factory.createEntityManager();
-        manager.getTransaction().begin();
         manager.persist(equipe);
-        manager.getTransaction().commit();
         return equipe;
     }
 
@@ -50,40 +93,61 @@ public class EquipeController {
      * @return A lista de equipes criadas.
      */
     @PostMapping("/VariasEquipes")
+    @OrcamentoConsultas(0)
     public @ResponseBody
     List<Equipe> criarEquipes(@RequestBody List<Equipe> equipes) {
-        EntityManager manager = factory.createEntityManager();
-        try {
-            manager.getTransaction().begin();
-            for (Equipe equipe : equipes) {
-                manager.persist(equipe);
+        return cadastroEquipesService.criarEquipes(equipes);
+    }
+
+    /**
+     * Cria equipes a partir de um corpo NDJSON ({"nome": "..."} por linha),
+     * gravando em lotes e devolvendo o resultado de cada linha à medida que os
+     * lotes são concluídos.
+     *
+     * @param corpo Corpo da requisição em NDJSON.
+     * @param resposta Resposta onde os resultados são escritos em NDJSON.
+     * @throws IOException Em caso de falha de leitura ou escrita.
+     */
+    @PostMapping(value = "/VariasEquipes", consumes = ImportacaoNdjsonService.NDJSON)
+    @OrcamentoConsultas(0)
+    public void importarEquipes(InputStream corpo, HttpServletResponse resposta) throws IOException {
+        resposta.setContentType(ImportacaoNdjsonService.NDJSON);
+        importacaoService.importar(corpo, resposta.getOutputStream(), NovaEquipeDTO.class, (lote, linhas) -> {
+            List<Equipe> equipes = new ArrayList<>(lote.size());
+            for (NovaEquipeDTO nova : lote) {
+                equipes.add(new Equipe(nova.nome() == null ? "" : nova.nome()));
             }
-            manager.getTransaction().commit();
-        } catch (Exception e) {
-            manager.getTransaction().rollback();
-            throw new RuntimeException("Erro ao salvar equipes: " + e.getMessage(), e);
-        } finally {
-            manager.close();
-        }
-        return equipes;
+            cadastroEquipesService.criarEquipes(equipes);
+
+            List<ResultadoLinhaDTO> resultados = new ArrayList<>(equipes.size());
+            for (int i = 0; i < equipes.size(); i++) {
+                resultados.add(new ResultadoLinhaDTO(linhas[i], true, equipes.get(i).getIdEquipe(), null));
+            }
+            return resultados;
+        });
     }
 
     /**
-     * Gera um relatório sobre uma equipe específica.
+     * Gera um relatório sobre uma equipe específica. O ETag é a versão da
+     * entrada do cache que contém o relatório; responde 304 quando o ETag
+     * enviado em If-None-Match corresponde a ela.
      *
      * @param id O ID da equipe.
+     * @param requisicao Requisição, usada para a verificação do ETag.
      * @return O relatório da equipe ou "Não encontrada" se não existir.
      */
     @GetMapping("/equipes/relatorio/{id}")
+    @OrcamentoConsultas(1)
     public @ResponseBody
-    String relatorioEquipe(@PathVariable int id) {
-        String retorno = "Não encontrada";
-        EntityManager manager = factory.createEntityManager();
-        Equipe equipe = manager.find(Equipe.class, id);
-        if (equipe != null) {
-            retorno = equipe.relatorio();
+    String relatorioEquipe(@PathVariable int id, WebRequest requisicao) {
+        EquipeCacheService.Relatorio relatorio = equipeCacheService.relatorio(id);
+        if (relatorio == null) {
+            return "Não encontrada";
         }
-        return retorno;
+        if (requisicao.checkNotModified("\"equipe-" + id + "-" + relatorio.versao() + "\"")) {
+            return null;
+        }
+        return relatorio.texto();
     }
 
     /**
@@ -93,15 +157,62 @@ public class EquipeController {
      * @return Lista das partidas da equipe.
      */
     @GetMapping("/equipes/partidas/{id}")
+    @OrcamentoConsultas(1)
+    @Transactional(readOnly = true)
     public @ResponseBody
     List<PartidaDeVolei> partidasDaEquipe(@PathVariable int id) {
-        EntityManager manager = factory.createEntityManager();
-        TypedQuery<PartidaDeVolei> seletor = manager.createQuery("SELECT partidas FROM Equipe e WHERE e.idEquipe = :idEquipe",
+        TypedQuery<PartidaDeVolei> seletor = manager.createQuery(
+                "SELECT DISTINCT p FROM Equipe e JOIN e.partidas p JOIN FETCH p.equipes WHERE e.idEquipe = :idEquipe",
                 PartidaDeVolei.class);
         seletor.setParameter("idEquipe", id);
         return seletor.getResultList();
     }
 
+    /**
+     * Retorna uma página do histórico de partidas de uma equipe, em ordem de
+     * ID, com resumos leves das partidas.
+     *
+     * @param id O ID da equipe.
+     * @param apos Cursor: ID da última partida recebida (0 para a primeira
+     * página).
+     * @param limite Tamanho da página (máximo 1000).
+     * @return Partidas da página e cursor da próxima (null ao final).
+     */
+    @GetMapping("/equipes/partidas/{id}/pagina")
+    @OrcamentoConsultas(1)
+    public @ResponseBody
+    PaginaPartidasDTO paginaPartidasDaEquipe(@PathVariable int id, @RequestParam(defaultValue = "0") int apos,
+            @RequestParam(defaultValue = "50") int limite) {
+        return historicoPartidasService.pagina(id, apos, limite);
+    }
+
+    /**
+     * Transmite todo o histórico de partidas de uma equipe em NDJSON, um
+     * resumo por linha, percorrendo as partidas por cursor sem montar a lista
+     * completa em memória. Cada página é lida em uma transação curta e escrita
+     * depois dela, para que um cliente lento não prenda uma conexão do pool.
+     *
+     * @param id O ID da equipe.
+     * @param resposta Resposta onde os resumos são escritos.
+     * @throws IOException Em caso de falha de escrita.
+     */
+    @GetMapping(value = "/equipes/partidas/{id}/stream", produces = ImportacaoNdjsonService.NDJSON)
+    @OrcamentoConsultas(2)
+    public void transmitirPartidasDaEquipe(@PathVariable int id, HttpServletResponse resposta) throws IOException {
+        resposta.setContentType(ImportacaoNdjsonService.NDJSON);
+        OutputStream saida = resposta.getOutputStream();
+        Integer cursor = 0;
+        do {
+            PaginaPartidasDTO pagina = historicoPartidasService.pagina(id, cursor, HistoricoPartidasService.LIMITE_MAXIMO);
+            for (PartidaResumoDTO partida : pagina.partidas()) {
+                saida.write(objectMapper.writeValueAsBytes(partida));
+                saida.write('\n');
+            }
+            saida.flush();
+            cursor = pagina.proximoCursor();
+        } while (cursor != null);
+    }
+
     /**
      * Busca uma equipe e retorna seus dados como DTO.
      *
@@ -109,15 +220,84 @@ public class EquipeController {
      * @return DTO contendo os dados da equipe ou null se não encontrada.
      */
     @GetMapping("/equipes/{id}")
+    @OrcamentoConsultas(1)
     public @ResponseBody
     EquipeDTO buscarEquipe(@PathVariable int id) {
-        EquipeDTO retorno = null;
-        EntityManager manager = factory.createEntityManager();
+        return equipeCacheService.dto(id);
+    }
+
+    /**
+     * Retorna os contadores de acertos, falhas, remoções e invalidações dos
+     * caches de DTOs e relatórios das equipes.
+     *
+     * @return Estatísticas de cada cache, por nome.
+     */
+    @GetMapping("/equipes/cache/estatisticas")
+    @OrcamentoConsultas(0)
+    public @ResponseBody
+    Map<String, EstatisticasCacheDTO> estatisticasCache() {
+        return equipeCacheService.estatisticas();
+    }
+
+    /**
+     * Recalcula as estatísticas acumuladas de uma equipe a partir do histórico
+     * de partidas, corrigindo eventuais divergências. As partidas da equipe
+     * são carregadas junto com suas equipes em uma única consulta. Uma
+     * correção é registrada no diário de resultados.
+     *
+     * @param id O ID da equipe.
+     * @return DTO com os dados recalculados ou null se não encontrada.
+     */
+    @PostMapping("/equipes/recalcular/{id}")
+    @OrcamentoConsultas(3)
+    @Transactional
+    public @ResponseBody
+    EquipeDTO recalcularEquipe(@PathVariable int id) {
         Equipe equipe = manager.find(Equipe.class, id);
-        if (equipe != null) {
-            retorno = equipe.getDTO();
+        if (equipe == null) {
+            return null;
+        }
+        manager.createQuery("SELECT DISTINCT p FROM PartidaDeVolei p JOIN FETCH p.equipes "
+                + "WHERE p IN (SELECT pe FROM Equipe e JOIN e.partidas pe WHERE e.idEquipe = :id)", PartidaDeVolei.class)
+                .setParameter("id", id)
+                .getResultList();
+        boolean corrigida = equipe.recalcularEstatisticas();
+        eventos.publishEvent(new EquipeAtualizadaEvent(equipe));
+        if (corrigida) {
+            eventos.publishEvent(new ResultadosAlteradosEvent(List.of(new EquipeRecalculada(id))));
+        }
+        return equipe.getDTO();
+    }
+
+    /**
+     * Recalcula as estatísticas acumuladas de todas as equipes a partir do
+     * histórico de partidas. Usado para carga inicial e conferência. Partidas
+     * e equipes são carregadas com duas consultas, em vez de uma por equipe e
+     * por partida. As equipes corrigidas são registradas no diário de
+     * resultados.
+     *
+     * @return Mensagem com o total de equipes verificadas e corrigidas.
+     */
+    @PostMapping("/equipes/recalcular")
+    @OrcamentoConsultas(2)
+    @Transactional
+    public @ResponseBody
+    String recalcularEquipes() {
+        int verificadas = 0;
+        List<AlteracaoResultado> corrigidas = new ArrayList<>();
+        manager.createQuery("SELECT DISTINCT p FROM PartidaDeVolei p JOIN FETCH p.equipes", PartidaDeVolei.class)
+                .getResultList();
+        List<Equipe> equipes = manager.createQuery("SELECT DISTINCT e FROM Equipe e LEFT JOIN FETCH e.partidas", Equipe.class)
+                .getResultList();
+        for (Equipe equipe : equipes) {
+            verificadas++;
+            if (equipe.recalcularEstatisticas()) {
+                corrigidas.add(new EquipeRecalculada(equipe.getIdEquipe()));
+            }
+            eventos.publishEvent(new EquipeAtualizadaEvent(equipe));
         }
-        return retorno;
+        eventos.publishEvent(new ResultadosAlteradosEvent(corrigidas));
+        return verificadas + " equipes verificadas, " + corrigidas.size() + " corrigidas.";
     }
 
 }
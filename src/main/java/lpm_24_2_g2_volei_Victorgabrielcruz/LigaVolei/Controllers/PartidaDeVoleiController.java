@@ -1,22 +1,52 @@
 package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Controllers;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Controller;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import jakarta.persistence.EntityManager;
-import jakarta.persistence.EntityManagerFactory;
-import jakarta.persistence.PersistenceUnit;
+import jakarta.persistence.PersistenceContext;
+import jakarta.servlet.http.HttpServletResponse;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.DTO.ConfrontoDTO;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.DTO.ConfrontoRejeitadoDTO;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.DTO.CriacaoPartidasDTO;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.DTO.PontoAoVivoDTO;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.DTO.RegistroSetDTO;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.DTO.ResultadoLinhaDTO;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.DTO.ResultadoPartidaDTO;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.DTO.ResultadoSetDTO;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Events.AlteracaoResultado.PartidaCriada;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Events.AlteracaoResultado.SetRegistrado;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Events.EquipeAtualizadaEvent;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Events.PlacarAtualizadoEvent;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Events.ResultadosAlteradosEvent;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Metricas.OrcamentoConsultas;
 import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Models.Equipe;
 import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Models.PartidaDeVolei;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Services.CadastroPartidasService;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Services.ConcorrenciaOtimistaService;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Services.EtagService;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Services.ImportacaoNdjsonService;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Services.PartidaAoVivoService;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Services.PlacarAoVivoService;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Services.RegistroSetsService;
 
 /**
  * Controlador para gerenciar partidas de vôlei. Permite criar, registrar sets,
@@ -25,75 +55,122 @@ import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Models.PartidaDeVolei;
 @Controller
 public class PartidaDeVoleiController {
 
-    @PersistenceUnit
-    private EntityManagerFactory factory;
+    @PersistenceContext
+    private EntityManager em;
+
+    @Autowired
+    private ApplicationEventPublisher eventos;
+
+    @Autowired
+    private CadastroPartidasService cadastroPartidasService;
+
+    @Autowired
+    private RegistroSetsService registroSetsService;
+
+    @Autowired
+    private ImportacaoNdjsonService importacaoService;
+
+    @Autowired
+    private EtagService etagService;
+
+    @Autowired
+    private ConcorrenciaOtimistaService concorrencia;
+
+    @Autowired
+    private PlacarAoVivoService placarAoVivoService;
+
+    @Autowired
+    private PartidaAoVivoService partidaAoVivoService;
 
     /**
-     * Cria uma nova partida entre duas equipes.
+     * Cria uma nova partida entre duas equipes. Repetida em caso de conflito
+     * de versão com outra escrita nas mesmas equipes.
      *
      * @param id1 ID da primeira equipe.
      * @param id2 ID da segunda equipe.
      * @return A partida criada.
      */
     @PostMapping("/partidas/{id1}/{id2}")
+    @OrcamentoConsultas(2)
     public @ResponseBody
     PartidaDeVolei criarPartida(@PathVariable int id1, @PathVariable int id2) {
-        EntityManager em = factory.createEntityManager();
-        Equipe time1 = em.find(Equipe.class, id1);
-        Equipe time2 = em.find(Equipe.class, id2);
-        PartidaDeVolei partida = null;
-        if (time1 != null && time2 != null) {
-            partida = new PartidaDeVolei(time1, time2);
-            time1.registrarPartida(partida);
-            time2.registrarPartida(partida);
-            em.getTransaction().begin();
-            em.persist(partida);
-            em.persist(time1);
-            em.persist(time2);
-            em.getTransaction().commit();
-        }
-        return partida;
-
+        return concorrencia.executar(status -> {
+            Equipe time1 = em.find(Equipe.class, id1);
+            Equipe time2 = em.find(Equipe.class, id2);
+            PartidaDeVolei partida = null;
+            if (time1 != null && time2 != null) {
+                partida = new PartidaDeVolei(time1, time2);
+                time1.registrarPartida(partida);
+                time2.registrarPartida(partida);
+                em.persist(partida);
+                eventos.publishEvent(new EquipeAtualizadaEvent(time1));
+                eventos.publishEvent(new EquipeAtualizadaEvent(time2));
+                eventos.publishEvent(new ResultadosAlteradosEvent(List.of(new PartidaCriada(partida.getId(), id1, id2))));
+            }
+            return partida;
+        });
     }
 
     /**
-     * Cria várias partidas com base em um JSON.
+     * Cria várias partidas com base em um JSON. As equipes são buscadas de uma
+     * só vez e as partidas gravadas em lotes; confrontos com equipes
+     * inexistentes são devolvidos como rejeitados.
      *
      * @param partidasJson JSON contendo as informações das partidas.
-     * @return Lista das partidas criadas.
+     * @return Partidas criadas e confrontos rejeitados.
      */
     @PostMapping("/partidas")
+    @OrcamentoConsultas(2)
     public @ResponseBody
-    List<PartidaDeVolei> criarPartidas(@RequestBody Map<String, List<Map<String, Integer>>> partidasJson) {
-        EntityManager em = factory.createEntityManager();
-        List<PartidaDeVolei> partidasCriadas = new ArrayList<>();
-
+    CriacaoPartidasDTO criarPartidas(@RequestBody Map<String, List<Map<String, Integer>>> partidasJson) {
         List<Map<String, Integer>> partidas = partidasJson.get("partidas");
-
-        em.getTransaction().begin();
+        List<ConfrontoDTO> confrontos = new ArrayList<>(partidas.size());
         for (Map<String, Integer> partidaInfo : partidas) {
-            int id1 = partidaInfo.get("id1");
-            int id2 = partidaInfo.get("id2");
+            confrontos.add(new ConfrontoDTO(partidaInfo.get("id1"), partidaInfo.get("id2")));
+        }
 
-            Equipe time1 = em.find(Equipe.class, id1);
-            Equipe time2 = em.find(Equipe.class, id2);
+        List<PartidaDeVolei> partidasCriadas = new ArrayList<>(confrontos.size());
+        List<ConfrontoRejeitadoDTO> rejeitadas = cadastroPartidasService.criarPartidas(confrontos, partidasCriadas::add);
+        return new CriacaoPartidasDTO(partidasCriadas, rejeitadas);
+    }
 
-            if (time1 != null && time2 != null) {
-                PartidaDeVolei partida = new PartidaDeVolei(time1, time2);
-                time1.registrarPartida(partida);
-                time2.registrarPartida(partida);
-                em.persist(partida);
-                em.persist(time1);
-                em.persist(time2);
-                partidasCriadas.add(partida);
+    /**
+     * Cria partidas a partir de um corpo NDJSON ({"id1": x, "id2": y} por
+     * linha), gravando em lotes e devolvendo o resultado de cada linha à
+     * medida que os lotes são concluídos.
+     *
+     * @param corpo Corpo da requisição em NDJSON.
+     * @param resposta Resposta onde os resultados são escritos em NDJSON.
+     * @throws IOException Em caso de falha de leitura ou escrita.
+     */
+    @PostMapping(value = "/partidas", consumes = ImportacaoNdjsonService.NDJSON)
+    @OrcamentoConsultas(2)
+    public void importarPartidas(InputStream corpo, HttpServletResponse resposta) throws IOException {
+        resposta.setContentType(ImportacaoNdjsonService.NDJSON);
+        importacaoService.importar(corpo, resposta.getOutputStream(), ConfrontoDTO.class, (lote, linhas) -> {
+            List<PartidaDeVolei> criadas = new ArrayList<>(lote.size());
+            Iterator<ConfrontoRejeitadoDTO> rejeitadas = cadastroPartidasService.criarPartidas(lote, criadas::add).iterator();
+            Iterator<PartidaDeVolei> partidas = criadas.iterator();
+            ConfrontoRejeitadoDTO rejeitada = rejeitadas.hasNext() ? rejeitadas.next() : null;
+
+            List<ResultadoLinhaDTO> resultados = new ArrayList<>(lote.size());
+            for (int i = 0; i < lote.size(); i++) {
+                if (rejeitada != null && rejeitada.indice() == i) {
+                    resultados.add(new ResultadoLinhaDTO(linhas[i], false, null, rejeitada.motivo()));
+                    rejeitada = rejeitadas.hasNext() ? rejeitadas.next() : null;
+                } else {
+                    resultados.add(new ResultadoLinhaDTO(linhas[i], true, partidas.next().getId(), null));
+                }
             }
-        }
-        em.getTransaction().commit();
-        return partidasCriadas;
+            return resultados;
+        });
     }
 
     /**
-     * Registra um set para uma partida específica.
+     * Registra um set para uma partida específica. Se outro registro alterar
+     * a partida ao mesmo tempo, a operação é repetida sobre o estado novo (e
+     * o set é recusado caso já tenha sido gravado); persistindo o conflito, a
+     * resposta é 409.
      *
      * @param id ID da partida.
      * @param set Número do set.
@@ -102,76 +179,141 @@ public class PartidaDeVoleiController {
      * @return A partida com o set registrado.
      */
     @PutMapping("/partidas/sets/{id}/{set}/{placar1}/{placar2}")
+    @OrcamentoConsultas(2)
     public @ResponseBody
     PartidaDeVolei cadastrarSet(@PathVariable int id, @PathVariable int set, @PathVariable int placar1, @PathVariable int placar2) {
-        EntityManager em = factory.createEntityManager();
-
-        PartidaDeVolei partida = em.find(PartidaDeVolei.class, id);
-        partida.registrarPlacarSet(set, placar1, placar2);
-        em.getTransaction().begin();
-        em.persist(partida);
-        em.getTransaction().commit();
-        return partida;
+        return concorrencia.executar(status -> {
+            PartidaDeVolei partida = em.createQuery(
+                    "SELECT p FROM PartidaDeVolei p JOIN FETCH p.equipes WHERE p.id = :id", PartidaDeVolei.class)
+                    .setParameter("id", id)
+                    .getSingleResult();
+            if (partida.registrarPlacarSet(set, placar1, placar2)) {
+                publicarAtualizacao(partida);
+                eventos.publishEvent(new PlacarAtualizadoEvent(partida.placarAoVivo()));
+                eventos.publishEvent(new ResultadosAlteradosEvent(List.of(new SetRegistrado(id, set, placar1, placar2))));
+            }
+            return partida;
+        });
     }
 
     /**
-     * Registra vários sets para partidas a partir de um JSON.
+     * Registra vários sets para partidas a partir de um JSON. As partidas são
+     * carregadas em lote e os sets de uma mesma partida aplicados em ordem.
      *
      * @param setsJson JSON contendo os sets.
-     * @return Lista das partidas atualizadas.
+     * @return Resultado (aceito ou rejeitado) de cada set, na ordem recebida.
      */
     @PutMapping("/partidas/sets")
+    @OrcamentoConsultas(1)
     public @ResponseBody
-    List<PartidaDeVolei> cadastrarSets(@RequestBody Map<String, List<Map<String, Integer>>> setsJson) {
-        EntityManager em = factory.createEntityManager();
-        List<PartidaDeVolei> partidasAtualizadas = new ArrayList<>();
-
+    List<ResultadoSetDTO> cadastrarSets(@RequestBody Map<String, List<Map<String, Integer>>> setsJson) {
         List<Map<String, Integer>> sets = setsJson.get("sets");
-
-        em.getTransaction().begin();
+        List<RegistroSetDTO> registros = new ArrayList<>(sets.size());
         for (Map<String, Integer> setInfo : sets) {
-            int id = setInfo.get("id");
-            int set = setInfo.get("set");
-            int placar1 = setInfo.get("placar1");
-            int placar2 = setInfo.get("placar2");
-
-            PartidaDeVolei partida = em.find(PartidaDeVolei.class, id);
-            if (partida != null) {
-                partida.registrarPlacarSet(set, placar1, placar2);
-                em.persist(partida);
-                partidasAtualizadas.add(partida);
-            }
+            registros.add(new RegistroSetDTO(setInfo.get("id"), setInfo.get("set"), setInfo.get("placar1"), setInfo.get("placar2")));
         }
-        em.getTransaction().commit();
-        return partidasAtualizadas;
+        return registroSetsService.registrarSets(registros);
     }
 
     /**
-     * Retorna o vencedor de uma partida.
+     * Avisa que os contadores das duas equipes da partida foram alterados
+     * (classificação em memória, caches).
+     *
+     * @param partida Partida cujas equipes foram alteradas.
+     */
+    private void publicarAtualizacao(PartidaDeVolei partida) {
+        eventos.publishEvent(new EquipeAtualizadaEvent(partida.equipe(0)));
+        eventos.publishEvent(new EquipeAtualizadaEvent(partida.equipe(1)));
+    }
+
+    /**
+     * Registra sets a partir de um corpo NDJSON ({"id", "set", "placar1",
+     * "placar2"} por linha), gravando em lotes e devolvendo o resultado de
+     * cada linha à medida que os lotes são concluídos.
+     *
+     * @param corpo Corpo da requisição em NDJSON.
+     * @param resposta Resposta onde os resultados são escritos em NDJSON.
+     * @throws IOException Em caso de falha de leitura ou escrita.
+     */
+    @PutMapping(value = "/partidas/sets", consumes = ImportacaoNdjsonService.NDJSON)
+    @OrcamentoConsultas(1)
+    public void importarSets(InputStream corpo, HttpServletResponse resposta) throws IOException {
+        resposta.setContentType(ImportacaoNdjsonService.NDJSON);
+        importacaoService.importar(corpo, resposta.getOutputStream(), RegistroSetDTO.class, (lote, linhas) -> {
+            List<ResultadoLinhaDTO> resultados = new ArrayList<>(lote.size());
+            for (ResultadoSetDTO resultado : registroSetsService.registrarSets(lote)) {
+                resultados.add(new ResultadoLinhaDTO(linhas[resultado.indice()], resultado.aceito(), resultado.id(), resultado.motivo()));
+            }
+            return resultados;
+        });
+    }
+
+    /**
+     * Retorna o resultado de uma partida: situação, sets de cada lado e
+     * vencedor, identificado pelo lado e pelo ID da equipe.
      *
      * @param id O ID da partida.
-     * @return Nome do vencedor.
+     * @return Resultado da partida, ou null se a partida não existir.
      */
     @GetMapping("/partidas/vencedor/{id}")
+    @OrcamentoConsultas(2)
+    @Transactional(readOnly = true)
     public @ResponseBody
-    String vencedorPartida(@PathVariable int id) {
-        EntityManager em = factory.createEntityManager();
-
+    ResultadoPartidaDTO vencedorPartida(@PathVariable int id) {
         PartidaDeVolei partida = em.find(PartidaDeVolei.class, id);
-        return partida.vencedorDoJogo();
+        return partida == null ? null : partida.resultado();
     }
 
     /**
-     * Exibe o placar de uma partida.
+     * Assina o placar ao vivo de uma partida por Server-Sent Events. O placar
+     * atual é enviado de imediato e, depois, a cada set registrado, sem que o
+     * cliente precise consultar {@code /partidas/placar/{id}} periodicamente.
+     *
+     * @param id ID da partida.
+     * @return Fluxo de eventos "placar", ou null se a partida não existir.
+     */
+    @GetMapping(value = "/partidas/aovivo/{id}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @OrcamentoConsultas(1)
+    public @ResponseBody
+    SseEmitter placarAoVivo(@PathVariable int id) {
+        return placarAoVivoService.assinarPartida(id);
+    }
+
+    /**
+     * Marca um ponto (rali vencido) na pontuação ao vivo de uma partida. O
+     * ponto é aplicado em memória e transmitido aos assinantes; o set, quando
+     * encerrado, é gravado em segundo plano. Só o primeiro ponto de cada
+     * partida consulta o banco.
+     *
+     * @param id ID da partida.
+     * @param time Equipe que venceu o rali (0-mandante, 1-visitante).
+     * @return Andamento da partida após o ponto, ou null se a partida não
+     * existir, já estiver decidida ou o time for inválido.
+     */
+    @PostMapping("/partidas/aovivo/{id}/ponto/{time}")
+    @OrcamentoConsultas(1)
+    public @ResponseBody
+    PontoAoVivoDTO marcarPonto(@PathVariable int id, @PathVariable int time) {
+        return partidaAoVivoService.marcarPonto(id, time);
+    }
+
+    /**
+     * Exibe o placar de uma partida. Responde 304 quando o ETag enviado em
+     * If-None-Match corresponde à versão atual da partida.
      *
      * @param id O ID da partida.
+     * @param requisicao Requisição, usada para a verificação do ETag.
      * @return O placar da partida.
      */
     @GetMapping("/partidas/placar/{id}")
+    @OrcamentoConsultas(3)
+    @Transactional(readOnly = true)
     public @ResponseBody
-    String placarPartida(@PathVariable int id) {
-        EntityManager em = factory.createEntityManager();
-
+    String placarPartida(@PathVariable int id, WebRequest requisicao) {
+        String etag = etagService.etagPartida(id);
+        if (etag != null && requisicao.checkNotModified(etag)) {
+            return null;
+        }
         PartidaDeVolei partida = em.find(PartidaDeVolei.class, id);
         return partida.exibirPlacar();
     }
@@ -1,33 +1,91 @@
 package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Controllers;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Controller;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import jakarta.persistence.EntityManager;
-import jakarta.persistence.EntityManagerFactory;
-import jakarta.persistence.PersistenceUnit;
+import jakarta.persistence.PersistenceContext;
+import jakarta.servlet.http.HttpServletResponse;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.DTO.CalendarioDTO;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.DTO.EquipeDTO;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.DTO.EquipeNomeDTO;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.DTO.LinhaClassificacao;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.DTO.LinhaRankingDTO;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.DTO.SimulacaoTemporadaDTO;
 import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.DTO.TemporadaDTO;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Events.AlteracaoResultado;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Events.AlteracaoResultado.EquipeInscrita;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Events.EquipeCadastradaEvent;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Events.ResultadosAlteradosEvent;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Metricas.OrcamentoConsultas;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Models.CriterioClassificacao;
 import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Models.Equipe;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Models.RankingTemporada;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Models.TabelaClassificacao;
 import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Models.Temporada;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Services.BuscaEquipesService;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Services.CadastroPartidasService;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Services.ClassificacaoService;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Services.ConcorrenciaOtimistaService;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Services.PlacarAoVivoService;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Services.SimulacaoTemporadaService;
 
 /**
  * Controlador para gerenciar temporadas de vôlei. Permite criar temporadas,
- * buscar equipes e cadastrar novas equipes.
+ * buscar equipes, cadastrar novas equipes, gerar o calendário de partidas,
+ * ordenar as equipes por critérios de desempate e simular o restante da
+ * temporada.
  */
 @Controller
 @RequestMapping("/temporada")
 public class TemporadaController {
 
-    @PersistenceUnit
-    private EntityManagerFactory factory;
+    @PersistenceContext
+    private EntityManager em;
+
+    @Autowired
+    private ClassificacaoService classificacaoService;
+
+    @Autowired
+    private BuscaEquipesService buscaEquipesService;
+
+    @Autowired
+    private ApplicationEventPublisher eventos;
+
+    @Autowired
+    private ConcorrenciaOtimistaService concorrencia;
+
+    @Autowired
+    private PlacarAoVivoService placarAoVivoService;
+
+    @Autowired
+    private CadastroPartidasService cadastroPartidasService;
+
+    @Autowired
+    private SimulacaoTemporadaService simulacaoService;
 
     /**
      * Cria uma nova temporada com base em um DTO.
@@ -36,129 +94,305 @@ public class TemporadaController {
      * @return A temporada criada.
      */
     @PostMapping
+    @OrcamentoConsultas(0)
+    @Transactional
     public @ResponseBody
     Temporada criarTemporada(@RequestBody TemporadaDTO temporadaDTO) {
-        EntityManager manager = factory.createEntityManager();
         Temporada novaTemporada = new Temporada(temporadaDTO.getAno());
-
-        manager.getTransaction().begin();
-        manager.persist(novaTemporada);
-        manager.getTransaction().commit();
-
+        em.persist(novaTemporada);
         return novaTemporada;
     }
 
     /**
-     * Busca uma equipe em uma temporada específica.
+     * Busca uma equipe em uma temporada específica pelo nome, sem distinção
+     * de maiúsculas e minúsculas.
      *
      * @param id O ID da temporada.
-     * @param nomeEquipe Nome da equipe a ser buscada.
+     * @param nome Nome da equipe a ser buscada.
      * @return A equipe encontrada ou null.
      */
     @GetMapping("/buscarEquipe/{id}")
+    @OrcamentoConsultas(1)
     public @ResponseBody
-    Equipe MostrEquipe(@PathVariable int id, @RequestBody String nomeEquipe) {
-        EntityManager em = factory.createEntityManager();
+    Equipe MostrEquipe(@PathVariable int id, @RequestParam String nome) {
+        return buscaEquipesService.buscar(id, nome);
+    }
 
-        Temporada temporada = em.find(Temporada.class, id);
-        Equipe equipe = temporada.buscarEquipe(nomeEquipe);
-        return equipe;
+    /**
+     * Lista as equipes da temporada cujo nome começa com um prefixo, para
+     * autocompletar.
+     *
+     * @param id O ID da temporada.
+     * @param prefixo Início do nome, sem distinção de maiúsculas e minúsculas.
+     * @param limite Quantidade máxima de equipes (até 100).
+     * @return Equipes encontradas, em ordem alfabética.
+     */
+    @GetMapping("/{id}/equipes/autocompletar")
+    @OrcamentoConsultas(1)
+    public @ResponseBody
+    List<EquipeNomeDTO> autocompletar(@PathVariable int id, @RequestParam String prefixo,
+            @RequestParam(defaultValue = "10") int limite) {
+        return buscaEquipesService.autocompletar(id, prefixo, Math.max(1, Math.min(limite, 100)));
     }
 
     /**
-     * Retorna a equipe líder da temporada.
+     * Retorna a equipe líder da temporada, pelos critérios configurados em
+     * {@code liga.classificacao.criterios}.
      *
      * @param id O ID da temporada.
-     * @return A equipe líder.
+     * @return A equipe líder ou null se a temporada não existir ou não tiver
+     * equipes.
      */
     @GetMapping("/LiderTemporada/{id}")
+    @OrcamentoConsultas(2)
     public @ResponseBody
     Equipe LiderTemporada(@PathVariable int id) {
-        EntityManager em = factory.createEntityManager();
-
-        Temporada temporada = em.find(Temporada.class, id);
-        Equipe equipe = temporada.liderTemporada();
-        return equipe;
+        TabelaClassificacao classificacao = classificacaoService.classificacao(id);
+        if (classificacao == null || classificacao.lider() == null) {
+            return null;
+        }
+        return em.find(Equipe.class, classificacao.lider().idEquipe());
     }
 
     /**
-     * Exibe a tabela de classificação da temporada.
+     * Exibe a tabela de classificação da temporada, ordenada pelos critérios
+     * configurados em {@code liga.classificacao.criterios}. O ETag é a versão
+     * da classificação em memória que gera a tabela, e não a do banco: entre o
+     * commit de um resultado e sua aplicação na classificação o ETag antigo
+     * continua valendo para a tabela antiga. Responde 304 quando o ETag
+     * enviado em If-None-Match corresponde à versão atual, sem montar a
+     * tabela.
      *
      * @param id O ID da temporada.
+     * @param requisicao Requisição, usada para a verificação do ETag.
      * @return A tabela da temporada.
      */
     @GetMapping("/{id}")
+    @OrcamentoConsultas(1)
+    public @ResponseBody
+    String Tabela(@PathVariable int id, WebRequest requisicao, HttpServletResponse resposta) {
+        TabelaClassificacao classificacao = classificacaoService.classificacao(id);
+        if (classificacao == null) {
+            return "Temporada não encontrada!";
+        }
+        long versao = classificacao.versao();
+        if (requisicao.checkNotModified(etagTemporada(id, versao))) {
+            return null;
+        }
+        // A tabela pode ter avançado desde a verificação; o ETag enviado é o
+        // da versão que de fato gerou o corpo.
+        TabelaClassificacao.Tabela tabela = classificacao.tabela();
+        if (tabela.versao() != versao) {
+            resposta.setHeader(HttpHeaders.ETAG, etagTemporada(id, tabela.versao()));
+        }
+        return tabela.texto();
+    }
+
+    private static String etagTemporada(int id, long versao) {
+        return "\"temporada-" + id + "-" + versao + "\"";
+    }
+
+    /**
+     * Assina, por Server-Sent Events, os placares ao vivo de todas as
+     * partidas das equipes da temporada.
+     *
+     * @param id O ID da temporada.
+     * @return Fluxo de eventos "placar", ou null se a temporada não existir.
+     */
+    @GetMapping(value = "/{id}/aovivo", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @OrcamentoConsultas(1)
+    public @ResponseBody
+    SseEmitter placarAoVivo(@PathVariable int id) {
+        return placarAoVivoService.assinarTemporada(id);
+    }
+
+    /**
+     * Calcula a classificação da temporada diretamente no banco, com uma única
+     * consulta agregada sobre as partidas, sem carregar nenhuma partida.
+     *
+     * @param id O ID da temporada.
+     * @return Dados das equipes na ordem da classificação.
+     */
+    @GetMapping("/{id}/agregada")
+    @OrcamentoConsultas(1)
+    public @ResponseBody
+    List<EquipeDTO> tabelaAgregada(@PathVariable int id) {
+        List<EquipeDTO> tabela = new ArrayList<>();
+        for (LinhaClassificacao linha : classificacaoService.classificacaoAgregada(id)) {
+            tabela.add(linha.dto());
+        }
+        return tabela;
+    }
+
+    /**
+     * Gera o calendário da temporada em rodízio: cada equipe inscrita enfrenta
+     * todas as outras uma vez por turno. Temporadas que já têm partidas são
+     * recusadas com 409 (Conflict), para que o calendário não seja duplicado.
+     *
+     * @param id O ID da temporada.
+     * @param turnos 1 (só turno) ou 2 (turno e returno, com mandos invertidos).
+     * @return Resumo do calendário criado, ou null se a temporada não existir,
+     * não tiver equipes ou a quantidade de turnos for inválida.
+     */
+    @PostMapping("/{id}/calendario")
+    @OrcamentoConsultas(4)
+    public @ResponseBody
+    CalendarioDTO gerarCalendario(@PathVariable int id, @RequestParam(defaultValue = "1") int turnos) {
+        if (turnos != 1 && turnos != 2) {
+            return null;
+        }
+        return cadastroPartidasService.criarCalendario(id, turnos);
+    }
+
+    /**
+     * Simula as partidas ainda sem vencedor da temporada e estima a chance de
+     * cada equipe terminar em 1º e entre as primeiras colocadas, pelos mesmos
+     * critérios da classificação.
+     *
+     * @param id O ID da temporada.
+     * @param simulacoes Quantidade de simulações (até
+     * {@code liga.simulacao.maximo}).
+     * @param topo Quantidade de primeiras posições consideradas.
+     * @param semente Semente dos sorteios (sorteada se não informada); a mesma
+     * semente repete o resultado.
+     * @return Chances de cada equipe, ou null se a temporada não existir ou
+     * não tiver equipes. Responde 503 se as vagas de simulação
+     * ({@code liga.simulacao.concorrentes}) estiverem ocupadas.
+     */
+    @GetMapping("/{id}/simulacao")
+    @OrcamentoConsultas(2)
     public @ResponseBody
-    String Tabela(@PathVariable int id) {
-        EntityManager em = factory.createEntityManager();
-        Temporada temporada = em.find(Temporada.class, id);
-        return temporada.tabela();
+    SimulacaoTemporadaDTO simular(@PathVariable int id, @RequestParam(defaultValue = "100000") int simulacoes,
+            @RequestParam(defaultValue = "4") int topo, @RequestParam(required = false) Long semente) {
+        return simulacaoService.simular(id, simulacoes, topo,
+                semente != null ? semente : ThreadLocalRandom.current().nextLong());
     }
 
     /**
-     * Cadastra uma equipe em uma temporada.
+     * Ordena as equipes da temporada por uma lista de critérios de desempate.
+     *
+     * @param id O ID da temporada.
+     * @param criterios Critérios na ordem em que são aplicados (por padrão,
+     * os de {@code liga.classificacao.criterios}).
+     * @return Linhas do ranking, ou null se a temporada não existir ou não
+     * tiver equipes.
+     */
+    @GetMapping("/{id}/ranking")
+    @OrcamentoConsultas(2)
+    public @ResponseBody
+    List<LinhaRankingDTO> ranking(@PathVariable int id,
+            @RequestParam(required = false) List<CriterioClassificacao> criterios) {
+        if (criterios == null || criterios.isEmpty()) {
+            return classificacaoService.ranking(id);
+        }
+        return classificacaoService.ranking(id, new RankingTemporada(criterios));
+    }
+
+    /**
+     * Cadastra uma equipe em uma temporada. A inscrição repetida é detectada
+     * com uma consulta à tabela de inscrições pelo ID da equipe, sem montar o
+     * conjunto de equipes da temporada. Repetido em caso de conflito de versão
+     * com outro cadastro na mesma temporada.
      *
      * @param temporadaId ID da temporada.
      * @param equipeId ID da equipe.
      * @return Mensagem de sucesso ou erro.
      */
     @PutMapping("/{temporadaId}/equipes/{equipeId}")
+    @OrcamentoConsultas(4)
     public @ResponseBody
     String cadastrarEquipe(@PathVariable int temporadaId, @PathVariable int equipeId) {
-        EntityManager em = factory.createEntityManager();
-
-        Temporada temporada = em.find(Temporada.class, temporadaId);
-        if (temporada == null) {
-            return "Temporada não encontrada!";
-        }
+        return concorrencia.executar(status -> {
+            Temporada temporada = em.find(Temporada.class, temporadaId);
+            if (temporada == null) {
+                return "Temporada não encontrada!";
+            }
 
-        Equipe equipe = em.find(Equipe.class, equipeId);
-        if (equipe == null) {
-            return "Equipe não encontrada!";
-        }
+            Equipe equipe = em.find(Equipe.class, equipeId);
+            if (equipe == null) {
+                return "Equipe não encontrada!";
+            }
 
-        em.getTransaction().begin();
-        int numeroEquipes = temporada.cadastrarEquipe(equipe);
-        em.persist(temporada);
-        em.getTransaction().commit();
+            if (!inscritas(temporadaId, List.of(equipeId)).isEmpty()) {
+                return "Equipe já cadastrada na temporada!";
+            }
+            int numeroEquipes = temporada.inscrever(equipe);
+            eventos.publishEvent(new EquipeCadastradaEvent(temporadaId, equipe));
+            eventos.publishEvent(new ResultadosAlteradosEvent(List.of(new EquipeInscrita(temporadaId, equipeId))));
 
-        return "Equipe cadastrada com sucesso! Total de equipes na temporada: " + numeroEquipes;
+            return "Equipe cadastrada com sucesso! Total de equipes na temporada: " + numeroEquipes;
+        });
     }
 
     /**
-     * Cadastra várias equipes em uma temporada.
+     * Cadastra várias equipes em uma temporada. As já inscritas são
+     * identificadas com uma consulta à tabela de inscrições pelos IDs das
+     * equipes. Repetido em caso de conflito de versão com outro cadastro na
+     * mesma temporada.
      *
      * @param temporadaId ID da temporada.
      * @param equipeIds IDs das equipes.
      * @return Mensagem de sucesso ou erro.
      */
     @PutMapping("/{temporadaId}/equipes")
+    @OrcamentoConsultas(4)
     public @ResponseBody
     String cadastrarEquipes(@PathVariable int temporadaId, @RequestBody List<Integer> equipeIds) {
-        EntityManager em = factory.createEntityManager();
-
-        Temporada temporada = em.find(Temporada.class, temporadaId);
-        if (temporada == null) {
-            return "Temporada não encontrada!";
-        }
-
-        int equipesCadastradas = 0;
-        em.getTransaction().begin();
+        return concorrencia.executar(status -> {
+            Temporada temporada = em.find(Temporada.class, temporadaId);
+            if (temporada == null) {
+                return "Temporada não encontrada!";
+            }
 
-        for (Integer equipeId : equipeIds) {
-            Equipe equipe = em.find(Equipe.class, equipeId);
-            if (equipe != null) {
-                temporada.cadastrarEquipe(equipe);
-                equipesCadastradas++;
-            } else {
-                em.getTransaction().rollback();
-                return "Erro: Equipe com ID " + equipeId + " não encontrada.";
+            Map<Integer, Equipe> encontradas = new HashMap<>();
+            for (Equipe equipe : em.createQuery("SELECT e FROM Equipe e WHERE e.idEquipe IN :ids", Equipe.class)
+                    .setParameter("ids", equipeIds)
+                    .getResultList()) {
+                encontradas.put(equipe.getIdEquipe(), equipe);
+            }
+            // Valida todos os IDs antes de alterar a temporada, para não deixar
+            // um cadastro parcial no contexto de persistência da transação.
+            for (Integer equipeId : equipeIds) {
+                if (!encontradas.containsKey(equipeId)) {
+                    return "Erro: Equipe com ID " + equipeId + " não encontrada.";
+                }
+            }
+            List<Equipe> equipesCadastradas = new ArrayList<>();
+            // Equipes já cadastradas (ou repetidas na lista) são ignoradas.
+            Set<Integer> ignoradas = new HashSet<>(inscritas(temporadaId, encontradas.keySet()));
+            for (Integer equipeId : equipeIds) {
+                if (ignoradas.add(equipeId)) {
+                    Equipe equipe = encontradas.get(equipeId);
+                    temporada.inscrever(equipe);
+                    equipesCadastradas.add(equipe);
+                }
+            }
+            List<AlteracaoResultado> inscricoes = new ArrayList<>(equipesCadastradas.size());
+            for (Equipe equipe : equipesCadastradas) {
+                eventos.publishEvent(new EquipeCadastradaEvent(temporadaId, equipe));
+                inscricoes.add(new EquipeInscrita(temporadaId, equipe.getIdEquipe()));
+            }
+            if (!inscricoes.isEmpty()) {
+                eventos.publishEvent(new ResultadosAlteradosEvent(inscricoes));
             }
-        }
 
-        em.persist(temporada);
-        em.getTransaction().commit();
+            return equipesCadastradas.size() + " equipes cadastradas com sucesso na temporada.";
+        });
+    }
 
-        return equipesCadastradas + " equipes cadastradas com sucesso na temporada.";
+    /**
+     * Consulta, entre as equipes informadas, as já inscritas na temporada.
+     * Filtra a tabela de inscrições pelo ID da equipe, coluna única e
+     * indexada, sem carregar as demais equipes da temporada.
+     */
+    private List<Integer> inscritas(int temporadaId, Collection<Integer> equipeIds) {
+        if (equipeIds.isEmpty()) {
+            return List.of();
+        }
+        return em.createQuery("SELECT e.idEquipe FROM Temporadas t JOIN t.equipes e "
+                + "WHERE t.id = :temporada AND e.idEquipe IN :equipes", Integer.class)
+                .setParameter("temporada", temporadaId)
+                .setParameter("equipes", equipeIds)
+                .getResultList();
     }
 }
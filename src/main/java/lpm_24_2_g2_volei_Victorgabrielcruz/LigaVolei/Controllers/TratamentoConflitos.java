@@ -0,0 +1,51 @@
+package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Controllers;
+
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Services.CalendarioExistenteException;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Services.ConflitoConcorrenciaException;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Services.SimulacoesOcupadasException;
+
+/**
+ * Responde 409 (Conflict) às escritas que não puderam ser concluídas por
+ * conflito de versão com outra requisição, para que o cliente recarregue o
+ * estado e decida se repete a operação, e também aos pedidos de calendário
+ * para temporadas que já têm partidas. Responde 503 (Service Unavailable)
+ * aos pedidos de simulação recusados por falta de vaga.
+ */
+@ControllerAdvice
+public class TratamentoConflitos {
+
+    @ExceptionHandler(ConflitoConcorrenciaException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public @ResponseBody
+    String conflito(ConflitoConcorrenciaException e) {
+        return e.getMessage();
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public @ResponseBody
+    String conflitoVersao(OptimisticLockingFailureException e) {
+        return "Registro alterado por outra requisição; tente novamente.";
+    }
+
+    @ExceptionHandler(CalendarioExistenteException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public @ResponseBody
+    String calendarioExistente(CalendarioExistenteException e) {
+        return e.getMessage();
+    }
+
+    @ExceptionHandler(SimulacoesOcupadasException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public @ResponseBody
+    String simulacoesOcupadas(SimulacoesOcupadasException e) {
+        return e.getMessage();
+    }
+}
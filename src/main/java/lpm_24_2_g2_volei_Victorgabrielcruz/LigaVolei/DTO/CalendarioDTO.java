@@ -0,0 +1,5 @@
+package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.DTO;
+
+public record CalendarioDTO(int temporada, int equipes, int turnos, int rodadas, int partidas) {
+
+}
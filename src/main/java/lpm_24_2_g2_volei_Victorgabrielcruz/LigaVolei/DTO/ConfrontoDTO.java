@@ -0,0 +1,5 @@
+package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.DTO;
+
+public record ConfrontoDTO(Integer id1, Integer id2) {
+
+}
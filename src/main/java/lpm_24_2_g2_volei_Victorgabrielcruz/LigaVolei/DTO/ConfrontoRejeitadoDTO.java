@@ -0,0 +1,5 @@
+package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.DTO;
+
+public record ConfrontoRejeitadoDTO(int indice, Integer id1, Integer id2, String motivo) {
+
+}
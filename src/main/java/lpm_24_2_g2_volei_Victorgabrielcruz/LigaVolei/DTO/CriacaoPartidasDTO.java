@@ -0,0 +1,9 @@
+package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.DTO;
+
+import java.util.List;
+
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Models.PartidaDeVolei;
+
+public record CriacaoPartidasDTO(List<PartidaDeVolei> partidas, List<ConfrontoRejeitadoDTO> rejeitadas) {
+
+}
@@ -0,0 +1,5 @@
+package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.DTO;
+
+public record EquipeNomeDTO(int idEquipe, String nome) {
+
+}
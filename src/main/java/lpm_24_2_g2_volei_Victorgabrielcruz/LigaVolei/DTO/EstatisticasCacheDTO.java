@@ -0,0 +1,5 @@
+package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.DTO;
+
+public record EstatisticasCacheDTO(long acertos, long falhas, long remocoes, long invalidacoes, int tamanho) {
+
+}
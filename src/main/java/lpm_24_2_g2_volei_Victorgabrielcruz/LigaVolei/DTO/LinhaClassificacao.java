@@ -0,0 +1,19 @@
+package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.DTO;
+
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Models.Equipe;
+
+public record LinhaClassificacao(int idEquipe, String nome, int partidas, int vitorias, int derrotas,
+        int setsVencidos, int setsDisputados, int pontosPro, int pontosContra) {
+
+    public double aproveitamentoTotal() {
+        return Equipe.aproveitamentoTotal(vitorias, partidas);
+    }
+
+    public double aproveitamentoSets() {
+        return Equipe.aproveitamentoSets(setsVencidos, setsDisputados, partidas);
+    }
+
+    public EquipeDTO dto() {
+        return new EquipeDTO(nome, vitorias, derrotas, aproveitamentoTotal(), aproveitamentoSets());
+    }
+}
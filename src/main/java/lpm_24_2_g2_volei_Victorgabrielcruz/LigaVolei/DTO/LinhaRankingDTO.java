@@ -0,0 +1,6 @@
+package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.DTO;
+
+public record LinhaRankingDTO(int posicao, int idEquipe, String nome, int partidas, int vitorias, int derrotas,
+        int pontosPartida, int setsVencidos, int setsPerdidos, int pontosPro, int pontosContra) {
+
+}
@@ -0,0 +1,7 @@
+package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.DTO;
+
+import java.util.List;
+
+public record PaginaPartidasDTO(List<PartidaResumoDTO> partidas, Integer proximoCursor) {
+
+}
@@ -0,0 +1,6 @@
+package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.DTO;
+
+public record PartidaResumoDTO(int id, String equipe1, String equipe2, int setsEquipe1, int setsEquipe2,
+        int setsDisputados, String vencedor) {
+
+}
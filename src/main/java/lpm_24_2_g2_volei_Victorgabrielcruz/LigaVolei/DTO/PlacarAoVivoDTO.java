@@ -0,0 +1,12 @@
+package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.DTO;
+
+/**
+ * Estado compacto do placar de uma partida, enviado aos assinantes ao vivo.
+ * Traz os pontos de cada set já disputado, os sets de cada lado e o vencedor
+ * (-1 enquanto em andamento, 0 mandante, 1 visitante). Como carrega o estado
+ * completo, uma atualização substitui qualquer anterior ainda não enviada.
+ */
+public record PlacarAoVivoDTO(int partida, int mandante, int visitante, int[] pontosMandante, int[] pontosVisitante,
+        int setsMandante, int setsVisitante, int vencedor) {
+
+}
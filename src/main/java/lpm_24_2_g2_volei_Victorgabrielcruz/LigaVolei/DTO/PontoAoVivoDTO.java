@@ -0,0 +1,13 @@
+package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.DTO;
+
+/**
+ * Andamento de uma partida pontuada ao vivo após um ponto: set em disputa,
+ * pontos de cada lado no set, equipe no saque (0 mandante, 1 visitante) e
+ * sets vencidos. Quando o ponto encerra o set, os pontos são os finais do set
+ * e {@code setEncerrado} é verdadeiro; {@code vencedor} fica em -1 enquanto a
+ * partida não termina.
+ */
+public record PontoAoVivoDTO(int partida, int mandante, int visitante, int set, int pontosMandante,
+        int pontosVisitante, int saque, int setsMandante, int setsVisitante, boolean setEncerrado, int vencedor) {
+
+}
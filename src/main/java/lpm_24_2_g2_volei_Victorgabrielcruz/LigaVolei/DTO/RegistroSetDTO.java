@@ -0,0 +1,5 @@
+package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.DTO;
+
+public record RegistroSetDTO(Integer id, Integer set, Integer placar1, Integer placar2) {
+
+}
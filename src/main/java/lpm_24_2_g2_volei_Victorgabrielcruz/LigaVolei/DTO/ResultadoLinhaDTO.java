@@ -0,0 +1,5 @@
+package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.DTO;
+
+public record ResultadoLinhaDTO(long linha, boolean aceito, Integer id, String motivo) {
+
+}
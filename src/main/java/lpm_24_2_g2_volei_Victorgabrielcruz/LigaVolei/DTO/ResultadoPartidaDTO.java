@@ -0,0 +1,8 @@
+package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.DTO;
+
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Models.StatusPartida;
+
+public record ResultadoPartidaDTO(int idPartida, StatusPartida status, int idMandante, int idVisitante,
+        int setsMandante, int setsVisitante, int ladoVencedor, Integer idVencedor) {
+
+}
@@ -0,0 +1,5 @@
+package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.DTO;
+
+public record ResultadoSetDTO(int indice, Integer id, Integer set, boolean aceito, String motivo) {
+
+}
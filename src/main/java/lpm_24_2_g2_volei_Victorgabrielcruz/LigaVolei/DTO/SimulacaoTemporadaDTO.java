@@ -0,0 +1,8 @@
+package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.DTO;
+
+import java.util.List;
+
+public record SimulacaoTemporadaDTO(int temporada, int simulacoes, int partidasRestantes, int topo, long semente,
+        List<ProbabilidadeEquipeDTO> equipes) {
+
+}
@@ -0,0 +1,19 @@
+package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.DTO;
+
+import java.util.List;
+
+/**
+ * Resultado da conferência do diário de resultados com o banco.
+ *
+ * @param registros Registros lidos do diário.
+ * @param partidas Partidas reconstruídas a partir do diário.
+ * @param sets Sets reconstruídos a partir do diário.
+ * @param inscricoes Inscrições de equipes em temporadas no diário.
+ * @param consistente Se diário e banco têm exatamente os mesmos resultados.
+ * @param totalDivergencias Quantidade de divergências encontradas.
+ * @param divergencias Descrição das primeiras divergências.
+ */
+public record VerificacaoDiarioDTO(long registros, int partidas, int sets, int inscricoes, boolean consistente,
+        int totalDivergencias, List<String> divergencias) {
+
+}
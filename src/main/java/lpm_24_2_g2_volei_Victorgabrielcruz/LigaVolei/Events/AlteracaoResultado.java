@@ -0,0 +1,38 @@
+package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Events;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+
+/**
+ * Alteração de resultado gravada no diário de resultados. Reaplicadas em
+ * ordem, as alterações reconstroem as partidas, os sets e as inscrições nas
+ * temporadas; os recálculos apontam as equipes cujos contadores mudaram sem
+ * um novo resultado.
+ */
+@JsonTypeInfo(use = JsonTypeInfo.Id.SIMPLE_NAME, property = "tipo")
+public sealed interface AlteracaoResultado {
+
+    /**
+     * Partida criada entre duas equipes.
+     */
+    record PartidaCriada(int partida, int mandante, int visitante) implements AlteracaoResultado {
+    }
+
+    /**
+     * Set aceito em uma partida.
+     */
+    record SetRegistrado(int partida, int set, int pontosMandante, int pontosVisitante) implements AlteracaoResultado {
+    }
+
+    /**
+     * Equipe inscrita em uma temporada.
+     */
+    record EquipeInscrita(int temporada, int equipe) implements AlteracaoResultado {
+    }
+
+    /**
+     * Contadores de uma equipe corrigidos pelo recálculo a partir das suas
+     * partidas.
+     */
+    record EquipeRecalculada(int equipe) implements AlteracaoResultado {
+    }
+}
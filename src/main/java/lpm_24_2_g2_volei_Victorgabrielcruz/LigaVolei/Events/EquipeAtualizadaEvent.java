@@ -0,0 +1,11 @@
+package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Events;
+
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Models.Equipe;
+
+/**
+ * Publicado após o commit de qualquer alteração nos dados de uma equipe
+ * (partida criada, set registrado ou estatísticas recalculadas).
+ */
+public record EquipeAtualizadaEvent(Equipe equipe) {
+
+}
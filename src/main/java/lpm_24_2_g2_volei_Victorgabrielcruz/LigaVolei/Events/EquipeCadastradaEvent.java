@@ -0,0 +1,10 @@
+package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Events;
+
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Models.Equipe;
+
+/**
+ * Publicado após o commit do cadastro de uma equipe em uma temporada.
+ */
+public record EquipeCadastradaEvent(int idTemporada, Equipe equipe) {
+
+}
@@ -0,0 +1,11 @@
+package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Events;
+
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.DTO.PlacarAoVivoDTO;
+
+/**
+ * Publicado após o commit de um ou mais sets registrados em uma partida, com
+ * o placar resultante.
+ */
+public record PlacarAtualizadoEvent(PlacarAoVivoDTO placar) {
+
+}
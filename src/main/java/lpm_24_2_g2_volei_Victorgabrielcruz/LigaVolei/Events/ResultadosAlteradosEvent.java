@@ -0,0 +1,11 @@
+package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Events;
+
+import java.util.List;
+
+/**
+ * Publicado após o commit de uma transação que alterou resultados, com as
+ * alterações na ordem em que foram aplicadas.
+ */
+public record ResultadosAlteradosEvent(List<AlteracaoResultado> alteracoes) {
+
+}
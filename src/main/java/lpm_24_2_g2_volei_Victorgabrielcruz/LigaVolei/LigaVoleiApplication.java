@@ -2,8 +2,10 @@ package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class LigaVoleiApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,92 @@
+package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Metricas;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Conta os comandos SQL preparados pelo Hibernate na thread atual, para que
+ * cada requisição saiba quantos comandos e quantas consultas disparou. Também
+ * registra em log uma amostra dos comandos (um a cada
+ * {@code liga.sql.amostragem}), no lugar do antigo {@code show-sql}.
+ */
+@Component
+public class ContadorSql implements StatementInspector {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ContadorSql.class);
+
+    private static final ThreadLocal<long[]> COMANDOS = new ThreadLocal<>();
+
+    private final AtomicLong total = new AtomicLong();
+
+    @Value("${liga.sql.amostragem:0}")
+    private long amostragem;
+
+    @Override
+    public String inspect(String sql) {
+        long[] contador = COMANDOS.get();
+        if (contador != null) {
+            contador[0]++;
+            if (ehConsulta(sql)) {
+                contador[1]++;
+            }
+        }
+        long n = total.incrementAndGet();
+        if (amostragem > 0 && n % amostragem == 0) {
+            LOG.info("SQL (amostra 1/{}): {}", amostragem, sql);
+        }
+        return sql;
+    }
+
+    /**
+     * Consultas são os SELECTs que leem dados; os SELECTs de incremento de
+     * sequência (geração de IDs) ficam de fora, pois crescem com as
+     * inserções e não com carregamentos preguiçosos.
+     */
+    private static boolean ehConsulta(String sql) {
+        String inicio = sql.stripLeading();
+        if (!inicio.regionMatches(true, 0, "select", 0, 6)) {
+            return false;
+        }
+        String minusculo = inicio.toLowerCase();
+        return !minusculo.contains("next value for") && !minusculo.contains("nextval(");
+    }
+
+    /**
+     * Zera a contagem da thread atual. Chamado no início de cada requisição.
+     */
+    public void iniciar() {
+        COMANDOS.set(new long[2]);
+    }
+
+    /**
+     * Encerra a contagem da thread atual.
+     *
+     * @return Comandos e consultas preparados desde {@link #iniciar()} (zero
+     * se não iniciada).
+     */
+    public ContagemSql finalizar() {
+        ContagemSql contagem = parcial();
+        COMANDOS.remove();
+        return contagem;
+    }
+
+    /**
+     * @return Comandos e consultas preparados na thread atual até agora.
+     */
+    public ContagemSql parcial() {
+        long[] contador = COMANDOS.get();
+        return contador == null ? new ContagemSql(0, 0) : new ContagemSql(contador[0], contador[1]);
+    }
+
+    /**
+     * @return Total de comandos SQL preparados desde o início da aplicação.
+     */
+    public long total() {
+        return total.get();
+    }
+}
@@ -0,0 +1,12 @@
+package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Metricas;
+
+/**
+ * Comandos SQL disparados durante uma requisição.
+ *
+ * @param comandos Total de comandos preparados (consultas, inserções,
+ * atualizações, sequências).
+ * @param consultas Apenas as consultas (SELECT) que leem entidades, sem contar
+ * os incrementos de sequência.
+ */
+public record ContagemSql(long comandos, long consultas) {
+}
@@ -0,0 +1,37 @@
+package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Metricas;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Liga a instrumentação ao Hibernate (contagem de comandos SQL e duração das
+ * transações) e ao Spring MVC (comandos SQL por requisição). Latência por
+ * endpoint, estatísticas do Hibernate e o pool de conexões são publicados
+ * pelo próprio actuator em {@code /actuator/prometheus}.
+ */
+@Configuration
+public class MetricasConfig implements WebMvcConfigurer {
+
+    private final MetricasRequisicaoInterceptor metricasRequisicao;
+
+    public MetricasConfig(MetricasRequisicaoInterceptor metricasRequisicao) {
+        this.metricasRequisicao = metricasRequisicao;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer instrumentacaoHibernate(ContadorSql contadorSql, MetricasTransacoes metricasTransacoes) {
+        return propriedades -> {
+            propriedades.put(AvailableSettings.STATEMENT_INSPECTOR, contadorSql);
+            propriedades.put(AvailableSettings.INTERCEPTOR, metricasTransacoes);
+        };
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(metricasRequisicao);
+    }
+}
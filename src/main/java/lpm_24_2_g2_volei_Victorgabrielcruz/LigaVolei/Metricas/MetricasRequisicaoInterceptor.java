@@ -0,0 +1,97 @@
+package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Metricas;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Registra, para cada requisição atendida por um controlador, quantos
+ * comandos SQL e quantas consultas ela disparou ({@code liga.sql.comandos} e
+ * {@code liga.sql.consultas}, com o método e o padrão da URI como tags). Se o
+ * endpoint declara um {@link OrcamentoConsultas} e a requisição o ultrapassa,
+ * registra um aviso com a requisição e incrementa
+ * {@code liga.sql.orcamento.excedido}.
+ */
+@Component
+public class MetricasRequisicaoInterceptor implements HandlerInterceptor {
+
+    /**
+     * Atributo da requisição com a {@link ContagemSql} ao fim do
+     * atendimento, para inspeção em testes.
+     */
+    public static final String ATRIBUTO_CONTAGEM = MetricasRequisicaoInterceptor.class.getName() + ".contagem";
+
+    private static final Logger LOG = LoggerFactory.getLogger(MetricasRequisicaoInterceptor.class);
+
+    private final ContadorSql contadorSql;
+    private final MeterRegistry registro;
+
+    public MetricasRequisicaoInterceptor(ContadorSql contadorSql, MeterRegistry registro) {
+        this.contadorSql = contadorSql;
+        this.registro = registro;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest requisicao, HttpServletResponse resposta, Object handler) {
+        contadorSql.iniciar();
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest requisicao, HttpServletResponse resposta, Object handler, Exception ex) {
+        ContagemSql contagem = contadorSql.finalizar();
+        requisicao.setAttribute(ATRIBUTO_CONTAGEM, contagem);
+        String metodo = requisicao.getMethod();
+        String uri = uri(requisicao);
+        resumo("liga.sql.comandos", "Comandos SQL disparados por requisição", metodo, uri).record(contagem.comandos());
+        resumo("liga.sql.consultas", "Consultas SQL disparadas por requisição", metodo, uri).record(contagem.consultas());
+
+        OrcamentoConsultas orcamento = orcamento(handler);
+        if (orcamento != null && contagem.consultas() > orcamento.value()) {
+            Counter.builder("liga.sql.orcamento.excedido")
+                    .description("Requisições que ultrapassaram o orçamento de consultas do endpoint")
+                    .tag("method", metodo)
+                    .tag("uri", uri)
+                    .register(registro)
+                    .increment();
+            String consulta = requisicao.getQueryString();
+            LOG.warn("Orçamento de consultas excedido: {} {}{} disparou {} consultas (orçamento {}, {} comandos no total)",
+                    metodo, requisicao.getRequestURI(), consulta == null ? "" : "?" + consulta,
+                    contagem.consultas(), orcamento.value(), contagem.comandos());
+        }
+    }
+
+    private DistributionSummary resumo(String nome, String descricao, String metodo, String uri) {
+        return DistributionSummary.builder(nome)
+                .description(descricao)
+                .tag("method", metodo)
+                .tag("uri", uri)
+                .publishPercentiles(0.5, 0.99)
+                .register(registro);
+    }
+
+    /**
+     * @param handler Handler que atendeu a requisição.
+     * @return Orçamento declarado no método do controlador, ou null.
+     */
+    public static OrcamentoConsultas orcamento(Object handler) {
+        if (handler instanceof HandlerMethod metodo) {
+            return metodo.getMethodAnnotation(OrcamentoConsultas.class);
+        }
+        return null;
+    }
+
+    static String uri(HttpServletRequest requisicao) {
+        Object padrao = requisicao.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return padrao != null ? padrao.toString() : "UNKNOWN";
+    }
+}
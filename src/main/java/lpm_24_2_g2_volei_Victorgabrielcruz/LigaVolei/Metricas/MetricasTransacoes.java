@@ -0,0 +1,52 @@
+package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Metricas;
+
+import org.hibernate.Interceptor;
+import org.hibernate.Transaction;
+import org.hibernate.resource.transaction.spi.TransactionStatus;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Mede a duração de cada transação do Hibernate (do begin ao commit ou
+ * rollback) no timer {@code liga.transacoes}, com o resultado como tag.
+ * As transações da aplicação são sempre abertas e encerradas na mesma thread.
+ */
+@Component
+public class MetricasTransacoes implements Interceptor {
+
+    private static final ThreadLocal<Timer.Sample> INICIO = new ThreadLocal<>();
+
+    private final MeterRegistry registro;
+    private final Timer confirmadas;
+    private final Timer desfeitas;
+
+    public MetricasTransacoes(MeterRegistry registro) {
+        this.registro = registro;
+        this.confirmadas = timer("commit");
+        this.desfeitas = timer("rollback");
+    }
+
+    private Timer timer(String resultado) {
+        return Timer.builder("liga.transacoes")
+                .description("Duração das transações do Hibernate")
+                .tag("resultado", resultado)
+                .publishPercentileHistogram()
+                .register(registro);
+    }
+
+    @Override
+    public void afterTransactionBegin(Transaction tx) {
+        INICIO.set(Timer.start(registro));
+    }
+
+    @Override
+    public void afterTransactionCompletion(Transaction tx) {
+        Timer.Sample inicio = INICIO.get();
+        if (inicio != null) {
+            INICIO.remove();
+            inicio.stop(tx.getStatus() == TransactionStatus.COMMITTED ? confirmadas : desfeitas);
+        }
+    }
+}
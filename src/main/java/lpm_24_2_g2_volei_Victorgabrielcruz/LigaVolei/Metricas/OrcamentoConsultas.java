@@ -0,0 +1,24 @@
+package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Metricas;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declara o máximo de consultas SQL (SELECTs) que um endpoint pode disparar
+ * por requisição. O orçamento não deve depender do volume de dados: um
+ * endpoint que passa a carregar coleções preguiçosas item a item (N+1)
+ * estoura o orçamento e gera um aviso em log com a requisição responsável.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface OrcamentoConsultas {
+
+    /**
+     * @return Máximo de consultas por requisição.
+     */
+    int value();
+}
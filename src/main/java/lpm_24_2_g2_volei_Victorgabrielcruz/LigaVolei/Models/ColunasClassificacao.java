@@ -0,0 +1,163 @@
+package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Models;
+
+import java.util.Arrays;
+
+/**
+ * Dados de uma temporada em colunas primitivas, uma posição por equipe, para
+ * o {@link RankingTemporada}. Os contadores das equipes e os resultados das
+ * partidas decididas são acumulados em uma única passada sobre cada fonte.
+ */
+public final class ColunasClassificacao {
+
+    private final int[] ids;
+    private final String[] nomes;
+    private final int[] partidas;
+    private final int[] vitorias;
+    private final int[] derrotas;
+    private final int[] setsVencidos;
+    private final int[] setsDisputados;
+    private final int[] pontosPro;
+    private final int[] pontosContra;
+    private final int[] pontosPartida;
+    private int equipes;
+
+    private int[] vencedores = new int[16];
+    private int[] perdedores = new int[16];
+    private int resultados;
+
+    /**
+     * @param equipes Quantidade máxima de equipes.
+     */
+    public ColunasClassificacao(int equipes) {
+        this.ids = new int[equipes];
+        this.nomes = new String[equipes];
+        this.partidas = new int[equipes];
+        this.vitorias = new int[equipes];
+        this.derrotas = new int[equipes];
+        this.setsVencidos = new int[equipes];
+        this.setsDisputados = new int[equipes];
+        this.pontosPro = new int[equipes];
+        this.pontosContra = new int[equipes];
+        this.pontosPartida = new int[equipes];
+    }
+
+    /**
+     * Inclui uma equipe com seus contadores acumulados.
+     *
+     * @return Índice da equipe nas colunas.
+     */
+    public int adicionarEquipe(int id, String nome, int partidas, int vitorias, int derrotas,
+            int setsVencidos, int setsDisputados, int pontosPro, int pontosContra) {
+        int i = equipes++;
+        ids[i] = id;
+        nomes[i] = nome;
+        this.partidas[i] = partidas;
+        this.vitorias[i] = vitorias;
+        this.derrotas[i] = derrotas;
+        this.setsVencidos[i] = setsVencidos;
+        this.setsDisputados[i] = setsDisputados;
+        this.pontosPro[i] = pontosPro;
+        this.pontosContra[i] = pontosContra;
+        return i;
+    }
+
+    /**
+     * Inclui o resultado de uma partida decidida entre duas equipes já
+     * incluídas, somando os pontos de partida e guardando o confronto.
+     *
+     * @param mandante Índice do mandante.
+     * @param visitante Índice do visitante.
+     * @param setsMandante Sets vencidos pelo mandante.
+     * @param setsVisitante Sets vencidos pelo visitante.
+     */
+    public void adicionarResultado(int mandante, int visitante, int setsMandante, int setsVisitante) {
+        boolean mandanteVenceu = setsMandante > setsVisitante;
+        int vencedor = mandanteVenceu ? mandante : visitante;
+        int perdedor = mandanteVenceu ? visitante : mandante;
+        if (Math.min(setsMandante, setsVisitante) == 2) {
+            pontosPartida[vencedor] += 2;
+            pontosPartida[perdedor] += 1;
+        } else {
+            pontosPartida[vencedor] += 3;
+        }
+        if (resultados == vencedores.length) {
+            vencedores = Arrays.copyOf(vencedores, resultados * 2);
+            perdedores = Arrays.copyOf(perdedores, resultados * 2);
+        }
+        vencedores[resultados] = vencedor;
+        perdedores[resultados] = perdedor;
+        resultados++;
+    }
+
+    public int equipes() {
+        return equipes;
+    }
+
+    public int id(int indice) {
+        return ids[indice];
+    }
+
+    public String nome(int indice) {
+        return nomes[indice];
+    }
+
+    public int partidas(int indice) {
+        return partidas[indice];
+    }
+
+    public int vitorias(int indice) {
+        return vitorias[indice];
+    }
+
+    public int derrotas(int indice) {
+        return derrotas[indice];
+    }
+
+    public int setsVencidos(int indice) {
+        return setsVencidos[indice];
+    }
+
+    public int setsPerdidos(int indice) {
+        return setsDisputados[indice] - setsVencidos[indice];
+    }
+
+    public int pontosPro(int indice) {
+        return pontosPro[indice];
+    }
+
+    public int pontosContra(int indice) {
+        return pontosContra[indice];
+    }
+
+    public int pontosPartida(int indice) {
+        return pontosPartida[indice];
+    }
+
+    int resultados() {
+        return resultados;
+    }
+
+    int vencedor(int resultado) {
+        return vencedores[resultado];
+    }
+
+    int perdedor(int resultado) {
+        return perdedores[resultado];
+    }
+
+    /**
+     * Calcula o valor de um critério para todas as equipes.
+     *
+     * @param criterio Critério, exceto {@link CriterioClassificacao#CONFRONTO_DIRETO},
+     * que depende dos empates e é calculado pelo ranking (aqui fica zerado).
+     * @return Valor por equipe.
+     */
+    double[] coluna(CriterioClassificacao criterio) {
+        double[] valores = new double[equipes];
+        for (int i = 0; i < equipes; i++) {
+            valores[i] = criterio.valor(partidas[i], vitorias[i], setsVencidos[i], setsDisputados[i], pontosPro[i],
+                    pontosContra[i], pontosPartida[i]);
+        }
+        return valores;
+    }
+}
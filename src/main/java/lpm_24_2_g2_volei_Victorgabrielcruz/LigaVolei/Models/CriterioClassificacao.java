@@ -0,0 +1,76 @@
+package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Models;
+
+/**
+ * Critérios que podem compor a ordem de uma classificação, aplicados na
+ * ordem em que são listados. Em todos, o valor maior fica à frente; o ID da
+ * equipe é sempre o último desempate.
+ */
+public enum CriterioClassificacao {
+
+    /**
+     * Aproveitamento total ({@link Equipe#aproveitamentoTotal(int, int)}).
+     */
+    APROVEITAMENTO,
+    /**
+     * Aproveitamento de sets ({@link Equipe#aproveitamentoSets(int, int, int)}).
+     */
+    APROVEITAMENTO_SETS,
+    /**
+     * Quantidade de vitórias.
+     */
+    VITORIAS,
+    /**
+     * Pontos de partida: 3 por vitória por 3-0 ou 3-1, 2 por vitória por 3-2
+     * e 1 por derrota por 2-3.
+     */
+    PONTOS_PARTIDA,
+    /**
+     * Sets vencidos / sets perdidos (infinito se nenhum set foi perdido).
+     */
+    RAZAO_SETS,
+    /**
+     * Pontos feitos / pontos sofridos (infinito se nenhum ponto foi sofrido).
+     */
+    RAZAO_PONTOS,
+    /**
+     * Vitórias nas partidas entre as equipes empatadas em todos os critérios
+     * anteriores.
+     */
+    CONFRONTO_DIRETO;
+
+    /**
+     * @return TRUE se o critério depende dos resultados das partidas, e não
+     * só dos contadores acumulados das equipes.
+     */
+    public boolean dependeDeResultados() {
+        return this == PONTOS_PARTIDA || this == CONFRONTO_DIRETO;
+    }
+
+    /**
+     * Calcula o valor do critério a partir dos contadores de uma equipe.
+     *
+     * @param pontosPartida Pontos de partida da equipe (só usados por
+     * {@link #PONTOS_PARTIDA}).
+     * @return Valor do critério; para {@link #CONFRONTO_DIRETO}, que depende
+     * dos empates e é calculado pelo ranking, 0.
+     */
+    public double valor(int partidas, int vitorias, int setsVencidos, int setsDisputados, int pontosPro,
+            int pontosContra, int pontosPartida) {
+        return switch (this) {
+            case APROVEITAMENTO -> Equipe.aproveitamentoTotal(vitorias, partidas);
+            case APROVEITAMENTO_SETS -> Equipe.aproveitamentoSets(setsVencidos, setsDisputados, partidas);
+            case VITORIAS -> vitorias;
+            case PONTOS_PARTIDA -> pontosPartida;
+            case RAZAO_SETS -> razao(setsVencidos, setsDisputados - setsVencidos);
+            case RAZAO_PONTOS -> razao(pontosPro, pontosContra);
+            case CONFRONTO_DIRETO -> 0;
+        };
+    }
+
+    private static double razao(int favor, int contra) {
+        if (contra == 0) {
+            return favor == 0 ? 0 : Double.POSITIVE_INFINITY;
+        }
+        return (double) favor / contra;
+    }
+}
@@ -2,32 +2,74 @@ package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Models;
 
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.ManyToMany;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import org.hibernate.annotations.ColumnDefault;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.DTO.EquipeDTO;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.DTO.LinhaClassificacao;
 
 /**
  * Classe "Equipe" para sistema de Liga LPM de Vôlei
  */
 @Entity
-@Table(name = "Equipes")
+@Table(name = "Equipes", indexes = {
+    @Index(name = "idx_equipes_nome_busca", columnList = "nome_busca")
+})
 public class Equipe {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "equipes_seq")
+    @SequenceGenerator(name = "equipes_seq", sequenceName = "equipes_seq", allocationSize = 50)
     private int idEquipe;
     private String nome;
 
-    @ManyToMany(fetch = FetchType.LAZY)
+    /**
+     * Nome em minúsculas ({@link IndiceNomes#dobrar}), indexado para buscas
+     * por nome sem distinção de maiúsculas e minúsculas no banco.
+     */
+    @Column(name = "nome_busca")
+    private String nomeBusca;
+
+    @ManyToMany(mappedBy = "equipes", fetch = FetchType.LAZY)
     private List<PartidaDeVolei> partidas;
     private int quantPartidas;
 
+    @ColumnDefault("0")
+    private int vitorias;
+    @ColumnDefault("0")
+    private int derrotas;
+    @ColumnDefault("0")
+    private int setsVencidos;
+    @ColumnDefault("0")
+    private int setsDisputados;
+    @ColumnDefault("0")
+    private int pontosPro;
+    @ColumnDefault("0")
+    private int pontosContra;
+
+    /**
+     * Versão para controle de concorrência otimista, incrementada pelo
+     * Hibernate a cada commit que altera a entidade.
+     */
+    @Version
+    @ColumnDefault("0")
+    private long versao;
+
     /**
      * Cria uma equipe com nome recebido por parâmetro e 0 partidas disputadas.
      *
@@ -39,6 +81,7 @@ public class Equipe {
             nome = "Sem Nome";
         }
         this.nome = nome;
+        this.nomeBusca = IndiceNomes.dobrar(nome);
         partidas = new LinkedList<>();
         quantPartidas = 0;
     }
@@ -47,6 +90,25 @@ public class Equipe {
 
     }
 
+    /**
+     * Preenche o nome de busca de equipes criadas sem o construtor com nome
+     * (como as recebidas em JSON).
+     */
+    @PrePersist
+    void preencherNomeBusca() {
+        nomeBusca = IndiceNomes.dobrar(nome);
+    }
+
+    /**
+     * Retorna o ID da equipe.
+     *
+     * @return ID da equipe (0 se ainda não persistida).
+     */
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    public int getIdEquipe() {
+        return idEquipe;
+    }
+
     /**
      * Retorna o nome da equipe.
      *
@@ -72,30 +134,96 @@ public class Equipe {
     }
 
     /**
-     * A partir das partidas registradas, verifica e retorna a quantidade de
-     * vitórias da equipe
+     * Soma partidas criadas em lote à contagem da equipe, sem carregar a lista
+     * de partidas. A associação em si é gravada pelo lado da partida.
      *
-     * @return Total de vitórias da equipe.
+     * @param quantidade Quantidade de partidas novas.
+     * @return Quantidade de partidas disputadas pela equipe.
      */
-    private int totalVitorias() {
-        int total = 0;
-        for (int i = 0; i < quantPartidas; i++) {
-            String vencedor = partidas.get(i).vencedorDoJogo();
-            if (vencedor.equals(nome)) {
-                total++;
-            }
+    public int registrarPartidas(int quantidade) {
+        quantPartidas += quantidade;
+        return quantPartidas;
+    }
+
+    /**
+     * Atualiza as estatísticas acumuladas da equipe com um set concluído.
+     * Chamado pela partida a cada placar de set registrado com sucesso.
+     *
+     * @param vencido TRUE se a equipe venceu o set
+     * @param pontosFeitos Pontos marcados pela equipe no set
+     * @param pontosSofridos Pontos marcados pelo adversário no set
+     */
+    void registrarSet(boolean vencido, int pontosFeitos, int pontosSofridos) {
+        if (vencido) {
+            setsVencidos++;
         }
-        return total;
+        setsDisputados++;
+        pontosPro += pontosFeitos;
+        pontosContra += pontosSofridos;
     }
 
     /**
-     * A partir das partidas registradas, verifica e retorna a quantidade de
-     * derrotas da equipe
+     * Atualiza as estatísticas acumuladas da equipe com o resultado de uma
+     * partida decidida. Chamado pela partida quando uma equipe chega a 3 sets.
      *
-     * @return Total de derrotas da equipe.
+     * @param vitoria TRUE se a equipe venceu a partida
      */
-    private int totalDerrotas() {
-        return quantPartidas - totalVitorias();
+    void registrarResultado(boolean vitoria) {
+        if (vitoria) {
+            vitorias++;
+        } else {
+            derrotas++;
+        }
+    }
+
+    /**
+     * Recalcula as estatísticas acumuladas (vitórias, derrotas, sets e pontos)
+     * percorrendo todas as partidas registradas. Usado para carga inicial de
+     * equipes antigas e para conferência dos contadores.
+     *
+     * @return TRUE se algum contador estava divergente e foi corrigido.
+     */
+    public boolean recalcularEstatisticas() {
+        int novasVitorias = 0;
+        int novasDerrotas = 0;
+        int novosSetsVencidos = 0;
+        int novosSetsDisputados = 0;
+        int novosPontosPro = 0;
+        int novosPontosContra = 0;
+        int novaQuantPartidas = 0;
+
+        for (PartidaDeVolei partida : partidas) {
+            int lado = partida.lado(this);
+            if (lado == -1) {
+                continue;
+            }
+            novaQuantPartidas++;
+            novosSetsVencidos += partida.setsVencidos(lado);
+            novosSetsDisputados += partida.setsDisputados();
+            novosPontosPro += partida.pontosTotais(lado);
+            novosPontosContra += partida.pontosTotais(1 - lado);
+
+            int vencedor = partida.vencedor();
+            if (vencedor == lado) {
+                novasVitorias++;
+            } else if (vencedor != -1) {
+                novasDerrotas++;
+            }
+        }
+
+        boolean divergente = novasVitorias != vitorias || novasDerrotas != derrotas
+                || novosSetsVencidos != setsVencidos || novosSetsDisputados != setsDisputados
+                || novosPontosPro != pontosPro || novosPontosContra != pontosContra
+                || novaQuantPartidas != quantPartidas;
+
+        vitorias = novasVitorias;
+        derrotas = novasDerrotas;
+        setsVencidos = novosSetsVencidos;
+        setsDisputados = novosSetsDisputados;
+        pontosPro = novosPontosPro;
+        pontosContra = novosPontosContra;
+        quantPartidas = novaQuantPartidas;
+        return divergente;
     }
 
     /**
@@ -106,10 +234,22 @@ public class Equipe {
      * caso de 0 derrotas.
      */
     public double aproveitamentoTotal() {
-        if (quantPartidas == 0) {
+        return aproveitamentoTotal(vitorias, quantPartidas);
+    }
+
+    /**
+     * Fórmula do aproveitamento total a partir dos contadores, compartilhada
+     * com a classificação calculada no banco.
+     *
+     * @param vitorias Total de vitórias.
+     * @param partidas Total de partidas.
+     * @return Aproveitamento total (0 se não houver partidas).
+     */
+    public static double aproveitamentoTotal(int vitorias, int partidas) {
+        if (partidas == 0) {
             return 0;
         }
-        return (double) totalVitorias() / quantPartidas * 100;
+        return (double) vitorias / partidas * 100;
     }
 
     /**
@@ -120,16 +260,23 @@ public class Equipe {
      * 100 em caso de 0 sets perdidos.
      */
     public double aproveitamentoSets() {
-        int setsVencidos = 0;
-        int quantSets = 0;
-        for (int i = 0; i < quantPartidas; i++) {
-            setsVencidos += partidas.get(i).setsVencidosEquipe(nome);
-            quantSets += partidas.get(i).setsDisputados();
-        }
-        if (quantPartidas == 0) {
+        return aproveitamentoSets(setsVencidos, setsDisputados, quantPartidas);
+    }
+
+    /**
+     * Fórmula do aproveitamento em sets a partir dos contadores,
+     * compartilhada com a classificação calculada no banco.
+     *
+     * @param setsVencidos Total de sets vencidos.
+     * @param setsDisputados Total de sets disputados.
+     * @param partidas Total de partidas.
+     * @return Aproveitamento em sets (0 se não houver sets disputados).
+     */
+    public static double aproveitamentoSets(int setsVencidos, int setsDisputados, int partidas) {
+        if (partidas == 0 || setsDisputados == 0) {
             return 0;
         }
-        return (double) setsVencidos / (quantPartidas * quantSets) * 100;
+        return (double) setsVencidos / ((double) partidas * setsDisputados) * 100;
     }
 
     /**
@@ -143,8 +290,8 @@ public class Equipe {
         StringBuilder sb = new StringBuilder();
         sb.append("Equipe: ").append(nome).append(" | ");
         sb.append("Quantidade de partidas: ").append(quantPartidas).append(" | ");
-        sb.append("Vitórias: ").append(totalVitorias()).append(" | ");
-        sb.append("Derrotas: ").append(totalDerrotas()).append(" | ");
+        sb.append("Vitórias: ").append(vitorias).append(" | ");
+        sb.append("Derrotas: ").append(derrotas).append(" | ");
         sb.append("Aproveitamento Total: ").append(String.format("%.2f", aproveitamentoTotal())).append("% | ");
         sb.append("Aproveitamento de Sets: ").append(String.format("%.2f", aproveitamentoSets())).append("%");
         return sb.toString();
@@ -158,6 +305,47 @@ public class Equipe {
      * (int), aproveitamento total (dbl), aproveitamento de sets (dbl)
      */
     public EquipeDTO getDTO() {
-        return new EquipeDTO(nome, totalVitorias(), totalDerrotas(), aproveitamentoTotal(), aproveitamentoSets());
+        return new EquipeDTO(nome, vitorias, derrotas, aproveitamentoTotal(), aproveitamentoSets());
+    }
+
+    /**
+     * Inclui os contadores da equipe nas colunas de um ranking.
+     *
+     * @param colunas Colunas do ranking.
+     * @return Índice da equipe nas colunas.
+     */
+    int preencherColunas(ColunasClassificacao colunas) {
+        return colunas.adicionarEquipe(idEquipe, nome, quantPartidas, vitorias, derrotas,
+                setsVencidos, setsDisputados, pontosPro, pontosContra);
+    }
+
+    /**
+     * Inclui nas colunas de um ranking os resultados das partidas decididas em
+     * que a equipe é mandante e o adversário também está no ranking. Como
+     * cada partida tem um único mandante, nenhuma é contada duas vezes.
+     *
+     * @param colunas Colunas do ranking.
+     * @param indices Índice de cada equipe nas colunas.
+     */
+    void preencherResultados(ColunasClassificacao colunas, Map<Equipe, Integer> indices) {
+        for (PartidaDeVolei partida : partidas) {
+            if (partida.equipe(0) == this) {
+                Integer adversario = indices.get(partida.equipe(1));
+                if (adversario != null) {
+                    partida.preencherResultado(colunas, indices.get(this), adversario);
+                }
+            }
+        }
+    }
+
+    /**
+     * Gera a linha da equipe para a classificação de uma temporada, com os
+     * contadores acumulados e o ID usado para posicioná-la.
+     *
+     * @return Linha de classificação da equipe.
+     */
+    public LinhaClassificacao linhaClassificacao() {
+        return new LinhaClassificacao(idEquipe, nome, quantPartidas, vitorias, derrotas,
+                setsVencidos, setsDisputados, pontosPro, pontosContra);
     }
 }
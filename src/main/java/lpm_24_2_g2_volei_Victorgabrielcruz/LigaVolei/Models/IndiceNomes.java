@@ -0,0 +1,82 @@
+package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Models;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Índice de nomes sem distinção de maiúsculas e minúsculas: um mapa hash dos
+ * nomes dobrados para a busca exata e um mapa ordenado para a busca por
+ * prefixo, que percorre só os nomes a partir do prefixo. As duas estruturas
+ * são concorrentes, então o índice pode ser lido enquanto recebe inclusões.
+ *
+ * @param <T> Tipo dos valores indexados.
+ */
+public final class IndiceNomes<T> {
+
+    private final Map<String, T> exatos = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<String, Queue<T>> ordenados = new ConcurrentSkipListMap<>();
+
+    /**
+     * Forma do nome usada como chave do índice (e gravada na coluna
+     * {@code nome_busca} das equipes).
+     *
+     * @param nome Nome original.
+     * @return Nome em minúsculas, ou null se o nome for null.
+     */
+    public static String dobrar(String nome) {
+        return nome == null ? null : nome.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Inclui um valor. Se outro valor já tiver o mesmo nome dobrado, a busca
+     * exata continua devolvendo o primeiro, e a busca por prefixo devolve
+     * ambos na ordem de inclusão. Valores sem nome não são indexados.
+     *
+     * @param nome Nome do valor (pode ser null).
+     * @param valor Valor indexado.
+     */
+    public void adicionar(String nome, T valor) {
+        if (nome == null) {
+            return;
+        }
+        String chave = dobrar(nome);
+        exatos.putIfAbsent(chave, valor);
+        ordenados.computeIfAbsent(chave, k -> new ConcurrentLinkedQueue<>()).add(valor);
+    }
+
+    /**
+     * @param nome Nome buscado, com quaisquer maiúsculas e minúsculas.
+     * @return O primeiro valor incluído com esse nome, ou null.
+     */
+    public T buscar(String nome) {
+        return nome == null ? null : exatos.get(dobrar(nome));
+    }
+
+    /**
+     * @param prefixo Início do nome, com quaisquer maiúsculas e minúsculas.
+     * @param limite Quantidade máxima de valores.
+     * @return Valores cujo nome começa com o prefixo, em ordem alfabética.
+     */
+    public List<T> prefixo(String prefixo, int limite) {
+        String chave = dobrar(prefixo);
+        List<T> encontrados = new ArrayList<>(Math.min(limite, 16));
+        for (Map.Entry<String, Queue<T>> nome : ordenados.tailMap(chave).entrySet()) {
+            if (!nome.getKey().startsWith(chave)) {
+                break;
+            }
+            for (T valor : nome.getValue()) {
+                if (encontrados.size() == limite) {
+                    return encontrados;
+                }
+                encontrados.add(valor);
+            }
+        }
+        return encontrados;
+    }
+}
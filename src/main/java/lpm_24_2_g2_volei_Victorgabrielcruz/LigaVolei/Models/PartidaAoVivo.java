@@ -0,0 +1,88 @@
+package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Models;
+
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.DTO.PontoAoVivoDTO;
+
+/**
+ * Estado em memória de uma partida pontuada rali a rali: set em disputa,
+ * pontos de cada lado e equipe no saque. Não é persistido; apenas os sets
+ * encerrados são gravados, pelas mesmas regras de
+ * {@link PartidaDeVolei#registrarPlacarSet(int, int, int)}.
+ *
+ * Pelo sistema de ponto por rali, quem vence o rali passa a sacar. O primeiro
+ * saque de cada set alterna entre as equipes, começando pelo mandante no set
+ * 1.
+ */
+public class PartidaAoVivo {
+
+    private final int idPartida;
+    private final int idMandante;
+    private final int idVisitante;
+    private final int[] sets = new int[2];
+    private final int[] pontos = new int[2];
+    private int set;
+    private int saque;
+    private int vencedor;
+
+    /**
+     * @param idPartida ID da partida.
+     * @param idMandante ID da equipe mandante.
+     * @param idVisitante ID da equipe visitante.
+     * @param setsMandante Sets já vencidos pelo mandante.
+     * @param setsVisitante Sets já vencidos pelo visitante.
+     * @param vencedor Vencedor já definido (-1 se em andamento).
+     */
+    PartidaAoVivo(int idPartida, int idMandante, int idVisitante, int setsMandante, int setsVisitante, int vencedor) {
+        this.idPartida = idPartida;
+        this.idMandante = idMandante;
+        this.idVisitante = idVisitante;
+        this.sets[0] = setsMandante;
+        this.sets[1] = setsVisitante;
+        this.vencedor = vencedor;
+        this.set = setsMandante + setsVisitante + 1;
+        this.saque = (set - 1) % 2;
+    }
+
+    /**
+     * Marca um ponto (rali vencido) para uma equipe. Se o placar do set passa
+     * a ser um placar final válido, o set é encerrado e o próximo começa
+     * zerado.
+     *
+     * @param time Equipe que venceu o rali (0-mandante, 1-visitante)
+     * @return Andamento após o ponto, ou null se o time for inválido, a
+     * partida já estiver decidida ou o ponto levaria o set além de
+     * {@link Placar#MAX_PONTOS}.
+     */
+    public synchronized PontoAoVivoDTO marcarPonto(int time) {
+        if ((time != 0 && time != 1) || vencedor != -1 || pontos[time] >= Placar.MAX_PONTOS) {
+            return null;
+        }
+        pontos[time]++;
+        saque = time;
+        if (!PartidaDeVolei.validarPlacarSet(set, pontos[0], pontos[1])) {
+            return estado(false);
+        }
+
+        sets[time]++;
+        if (sets[time] == 3) {
+            vencedor = time;
+        }
+        PontoAoVivoDTO encerrado = estado(true);
+        set++;
+        pontos[0] = 0;
+        pontos[1] = 0;
+        saque = (set - 1) % 2;
+        return encerrado;
+    }
+
+    /**
+     * @return Andamento atual, sem marcar ponto.
+     */
+    public synchronized PontoAoVivoDTO estado() {
+        return estado(false);
+    }
+
+    private PontoAoVivoDTO estado(boolean setEncerrado) {
+        return new PontoAoVivoDTO(idPartida, idMandante, idVisitante, set, pontos[0], pontos[1], saque,
+                sets[0], sets[1], setEncerrado, vencedor);
+    }
+}
@@ -3,31 +3,70 @@ package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Models;
 import java.util.ArrayList;
 import java.util.List;
 
-import jakarta.persistence.ElementCollection;
+import jakarta.persistence.Column;
+import jakarta.persistence.Embedded;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.ManyToMany;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import org.hibernate.annotations.ColumnDefault;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.DTO.PlacarAoVivoDTO;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.DTO.ResultadoPartidaDTO;
 
 /**
  * Classe "PartidaDeVolei". Versão 0.3 para Sistema do LPM Vôlei
  */
 @Entity
-@Table(name = "Partidas")
+@Table(name = "Partidas", indexes = {
+    @Index(name = "idx_partidas_mandante", columnList = "id_mandante"),
+    @Index(name = "idx_partidas_visitante", columnList = "id_visitante")
+})
 public class PartidaDeVolei {
 
+    /**
+     * Texto de {@link #vencedorDoJogo()} enquanto a partida não tem vencedor.
+     */
+    public static final String EM_ANDAMENTO = "Jogo em andamento";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "partidas_seq")
+    @SequenceGenerator(name = "partidas_seq", sequenceName = "partidas_seq", allocationSize = 50)
     private int id;
-    private static final int MAX_SETS = 5;
 
     @ManyToMany(fetch = FetchType.LAZY)
     private List<Equipe> equipes;
-    @ElementCollection
-    private List<List<Integer>> pontuacoes;
+
+    /**
+     * IDs das equipes 1 (mandante) e 2 (visitante), repetidos na linha da
+     * partida para que a classificação possa ser agregada no banco sabendo o
+     * lado de cada equipe.
+     */
+    @Column(name = "id_mandante")
+    @ColumnDefault("0")
+    private int idMandante;
+    @Column(name = "id_visitante")
+    @ColumnDefault("0")
+    private int idVisitante;
+    @Embedded
+    private Placar pontuacoes;
+
+    /**
+     * Versão para controle de concorrência otimista, incrementada pelo
+     * Hibernate a cada commit que altera a entidade. Também usada para gerar
+     * ETags sem carregar a entidade.
+     */
+    @Version
+    @ColumnDefault("0")
+    private long versao;
 
     public PartidaDeVolei() {
 
@@ -44,9 +83,19 @@ public class PartidaDeVolei {
         equipes = new ArrayList<>(2);
         equipes.add(equipe1);
         equipes.add(equipe2);
-        pontuacoes = new ArrayList<>(2);
-        pontuacoes.add(new ArrayList<>(MAX_SETS));
-        pontuacoes.add(new ArrayList<>(MAX_SETS));
+        idMandante = equipe1.getIdEquipe();
+        idVisitante = equipe2.getIdEquipe();
+        pontuacoes = new Placar();
+    }
+
+    /**
+     * Retorna o ID da partida.
+     *
+     * @return ID da partida (0 se ainda não persistida).
+     */
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    public int getId() {
+        return id;
     }
 
     /**
@@ -66,11 +115,11 @@ public class PartidaDeVolei {
         String setZerado = "--";
         int setsDisputados = setsDisputados();
         for (int i = 0; i < 2; i++) {
-            placar.append(String.format("%16s\t", equipes.get(i).getNome()));
+            placar.append(String.format("%16s\t", equipe(i).getNome()));
             for (int j = 0; j < setsDisputados; j++) {
-                placar.append(pontuacoes.get(i).get(j) + "\t");
+                placar.append(pontuacoes.pontos(i, j) + "\t");
             }
-            for (int j = setsDisputados; j < 5; j++) {
+            for (int j = setsDisputados; j < Placar.MAX_SETS; j++) {
                 placar.append(setZerado + "\t");
             }
             placar.append(setsVencidos(i) + "\n");
@@ -82,32 +131,94 @@ public class PartidaDeVolei {
         return exibirPlacar();
     }
 
+    /**
+     * Gera o estado compacto do placar para transmissão ao vivo, a partir dos
+     * pontos já gravados, sem formatar texto.
+     *
+     * @return Placar com os pontos de cada set disputado.
+     */
+    public PlacarAoVivoDTO placarAoVivo() {
+        int sets = pontuacoes.setsDisputados();
+        int[] pontosMandante = new int[sets];
+        int[] pontosVisitante = new int[sets];
+        for (int j = 0; j < sets; j++) {
+            pontosMandante[j] = pontuacoes.pontos(0, j);
+            pontosVisitante[j] = pontuacoes.pontos(1, j);
+        }
+        return new PlacarAoVivoDTO(id, equipe(0).getIdEquipe(), equipe(1).getIdEquipe(), pontosMandante, pontosVisitante,
+                pontuacoes.setsVencidos(0), pontuacoes.setsVencidos(1), pontuacoes.vencedor());
+    }
+
+    /**
+     * Cria o estado em memória para pontuar a partida ao vivo, a partir dos
+     * sets já registrados.
+     *
+     * @return Estado ao vivo, com o próximo set em disputa.
+     */
+    public PartidaAoVivo aoVivo() {
+        return new PartidaAoVivo(id, equipe(0).getIdEquipe(), equipe(1).getIdEquipe(),
+                pontuacoes.setsVencidos(0), pontuacoes.setsVencidos(1), pontuacoes.vencedor());
+    }
+
+    /**
+     * Inclui o resultado da partida, se já decidida, nas colunas de um
+     * ranking.
+     *
+     * @param colunas Colunas do ranking.
+     * @param mandante Índice do mandante nas colunas.
+     * @param visitante Índice do visitante nas colunas.
+     */
+    void preencherResultado(ColunasClassificacao colunas, int mandante, int visitante) {
+        if (pontuacoes.vencedor() != -1) {
+            colunas.adicionarResultado(mandante, visitante, pontuacoes.setsVencidos(0), pontuacoes.setsVencidos(1));
+        }
+    }
+
+    /**
+     * Retorna uma das equipes da partida. A lista de equipes não tem ordem
+     * garantida ao ser recarregada do banco, por isso o lado é resolvido pelo
+     * ID do mandante gravado na partida.
+     *
+     * @param time Posição do time (0-mandante, 1-visitante)
+     * @return Equipe naquela posição
+     */
+    public Equipe equipe(int time) {
+        boolean invertida = idMandante != 0 && equipes.get(0).getIdEquipe() != idMandante;
+        return equipes.get(invertida ? 1 - time : time);
+    }
+
     /**
      * Faz a validação de placares válidos para um set: sets entre 1 e 4, pelo
      * menos 25 pontos e 2 pontos de diferença. Caso ultrapasse 25 pontos,
      * exatamente 2 pontos de diferença. Para o set 5, mesma regra com 15
-     * pontos.
+     * pontos. Pontuações negativas ou acima de {@link Placar#MAX_PONTOS} não
+     * cabem no placar gravado e são recusadas.
      *
      * @param set Número do set (1-5)
      * @param pontos1 Pontuação da equipe 1
      * @param pontos2 Pontuação da equipe 2
      * @return TRUE/FALSE conforme o placar é válido ou não para aquele set.
      */
-    private boolean validarPlacarSet(int set, int pontos1, int pontos2) {
+    static boolean validarPlacarSet(int set, int pontos1, int pontos2) {
         boolean resposta = false;
         int pontosMinimos = set == 5 ? 15 : 25;
         int diferenca = pontos1 - pontos2;
         int pontosVencedor = diferenca > 0 ? pontos1 : pontos2;
+        if (pontos1 < 0 || pontos2 < 0 || pontosVencedor > Placar.MAX_PONTOS) {
+            return false;
+        }
         resposta = (pontosVencedor == pontosMinimos && Math.abs(diferenca) >= 2) || (pontosVencedor > pontosMinimos && Math.abs(diferenca) == 2);
         return resposta;
     }
 
     /**
      * Registra um placar para um set, caso seja válido. Além da validação da
-     * pontuação, não é permitido "pular sets" (por exemplo, só registra o set 4
-     * se já estiverem registrados os sets de 1 a 3). Também não deixa registrar
-     * sets além da vitória (por exemplo, 4 sets se a mesma equipe já venceu os
-     * 3 primeiros)
+     * pontuação, só é aceito o set seguinte ao último registrado (por exemplo,
+     * só registra o set 4 se já estiverem registrados os sets de 1 a 3, e não
+     * registra de novo um set já gravado). Também não deixa registrar sets
+     * além da vitória (por exemplo, 4 sets se a mesma equipe já venceu os 3
+     * primeiros). Assim, repetir um registro depois de um conflito de versão
+     * não duplica o set.
      *
      * @param set Número do set (1-5)
      * @param pontosEquipe1 Pontuação da equipe 1
@@ -117,16 +228,127 @@ public class PartidaDeVolei {
     public boolean registrarPlacarSet(int set, int pontosEquipe1, int pontosEquipe2) {
         boolean valoresValidos = false;
 
-        if (set >= 1 && set <= setsDisputados() + 1 && vencedorDoJogo().equals("Jogo em andamento")) {
+        if (set == pontuacoes.setsDisputados() + 1 && pontuacoes.vencedor() == -1) {
             valoresValidos = validarPlacarSet(set, pontosEquipe1, pontosEquipe2);
             if (valoresValidos) {
-                pontuacoes.get(0).add(set - 1, pontosEquipe1);
-                pontuacoes.get(1).add(set - 1, pontosEquipe2);
+                pontuacoes.registrar(pontosEquipe1, pontosEquipe2);
+                atualizarEstatisticasEquipes(pontosEquipe1, pontosEquipe2);
             }
         }
         return valoresValidos;
     }
 
+    /**
+     * Restaura o placar gravado no formato anterior (uma lista de pontos por
+     * equipe), sem mexer nos contadores das equipes, que devem ser
+     * recalculados depois. Só restaura partidas ainda sem sets e listas que
+     * caibam no placar.
+     *
+     * @param pontosEquipe1 Pontos da equipe 1 em cada set, em ordem
+     * @param pontosEquipe2 Pontos da equipe 2 em cada set, em ordem
+     * @return TRUE/FALSE conforme o placar foi restaurado ou não.
+     */
+    public boolean restaurarPlacar(List<Integer> pontosEquipe1, List<Integer> pontosEquipe2) {
+        if (pontuacoes.setsDisputados() != 0 || pontosEquipe1.size() != pontosEquipe2.size()
+                || pontosEquipe1.size() > Placar.MAX_SETS) {
+            return false;
+        }
+        for (int i = 0; i < pontosEquipe1.size(); i++) {
+            Integer pontos1 = pontosEquipe1.get(i);
+            Integer pontos2 = pontosEquipe2.get(i);
+            if (pontos1 == null || pontos2 == null || pontos1 < 0 || pontos2 < 0
+                    || pontos1 > Placar.MAX_PONTOS || pontos2 > Placar.MAX_PONTOS) {
+                return false;
+            }
+        }
+        for (int i = 0; i < pontosEquipe1.size(); i++) {
+            pontuacoes.registrar(pontosEquipe1.get(i), pontosEquipe2.get(i));
+        }
+        return true;
+    }
+
+    /**
+     * Repassa às duas equipes o set recém-registrado e, caso ele tenha decidido
+     * a partida, o resultado final. Mantém os contadores das equipes em dia sem
+     * que elas precisem percorrer suas partidas.
+     *
+     * @param pontosEquipe1 Pontuação da equipe 1 no set
+     * @param pontosEquipe2 Pontuação da equipe 2 no set
+     */
+    private void atualizarEstatisticasEquipes(int pontosEquipe1, int pontosEquipe2) {
+        boolean equipe1Venceu = pontosEquipe1 > pontosEquipe2;
+        equipe(0).registrarSet(equipe1Venceu, pontosEquipe1, pontosEquipe2);
+        equipe(1).registrarSet(!equipe1Venceu, pontosEquipe2, pontosEquipe1);
+
+        int vencedor = pontuacoes.vencedor();
+        if (vencedor != -1) {
+            equipe(vencedor).registrarResultado(true);
+            equipe(1 - vencedor).registrarResultado(false);
+        }
+    }
+
+    /**
+     * Retorna a situação da partida a partir do placar, sem consultar as
+     * equipes.
+     *
+     * @return Situação da partida.
+     */
+    public StatusPartida status() {
+        if (pontuacoes.vencedor() != -1) {
+            return StatusPartida.ENCERRADA;
+        }
+        return pontuacoes.setsDisputados() == 0 ? StatusPartida.AGENDADA : StatusPartida.EM_ANDAMENTO;
+    }
+
+    /**
+     * Retorna o resultado da partida identificando as equipes pelo ID e o
+     * vencedor pelo lado. O vencedor já fica gravado no placar a cada set
+     * registrado, e os IDs de mandante e visitante na linha da partida (ver
+     * {@code MigracaoPlacaresService} para as partidas antigas): as equipes
+     * não são carregadas.
+     *
+     * @return Resultado da partida.
+     */
+    public ResultadoPartidaDTO resultado() {
+        int vencedor = pontuacoes.vencedor();
+        return new ResultadoPartidaDTO(id, status(), idMandante, idVisitante, pontuacoes.setsVencidos(0),
+                pontuacoes.setsVencidos(1), vencedor, vencedor == -1 ? null : vencedor == 0 ? idMandante : idVisitante);
+    }
+
+    /**
+     * Retorna o lado de uma equipe na partida, comparando instâncias e, para
+     * equipes já gravadas, IDs. Equipes com o mesmo nome não se confundem.
+     *
+     * @param equipe Equipe procurada.
+     * @return 0 (mandante), 1 (visitante) ou -1 se a equipe não joga a
+     * partida.
+     */
+    int lado(Equipe equipe) {
+        for (int time = 0; time < 2; time++) {
+            Equipe candidata = equipe(time);
+            if (candidata == equipe || (equipe.getIdEquipe() != 0 && candidata.getIdEquipe() == equipe.getIdEquipe())) {
+                return time;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return Lado do vencedor (0-mandante, 1-visitante) ou -1 se a partida
+     * não terminou.
+     */
+    int vencedor() {
+        return pontuacoes.vencedor();
+    }
+
+    /**
+     * @param time Posição do time (0-mandante, 1-visitante)
+     * @return Pontos do time em todos os sets disputados.
+     */
+    int pontosTotais(int time) {
+        return pontuacoes.pontosTotais(time);
+    }
+
     /**
      * Retorna o nome da equipe vencedora do jogo, ou "Jogo em andamento" caso
      * ninguém tenha vencido 3 sets ainda.
@@ -134,19 +356,11 @@ public class PartidaDeVolei {
      * @return Nome da equipe vencedora ou "Jogo em andamento"
      */
     public String vencedorDoJogo() {
-        String resultado = "Jogo em andamento"; // Modifiquei aqui para ser mais claro
-        int[] setsVencidos = {setsVencidos(0), setsVencidos(1)};
-        int vencedor = -1;
-
-        for (int i = 0; i < setsVencidos.length; i++) {
-            if (setsVencidos[i] >= 3) {
-                vencedor = i;
-                break;
-            }
-        }
+        String resultado = EM_ANDAMENTO; // Modifiquei aqui para ser mais claro
+        int vencedor = pontuacoes.vencedor();
 
         if (vencedor != -1) {
-            resultado = equipes.get(vencedor).getNome();
+            resultado = equipe(vencedor).getNome();
         }
 
         return resultado;
@@ -161,18 +375,25 @@ public class PartidaDeVolei {
      */
     public int pontosTotaisEquipe(String equipe) {
         int total = 0;
-        int time = equipe.equals(equipes.get(0).getNome()) ? 0
-                : equipe.equals(equipes.get(1).getNome()) ? 1 : -1;
+        int time = equipe.equals(equipe(0).getNome()) ? 0
+                : equipe.equals(equipe(1).getNome()) ? 1 : -1;
 
         if (time != -1) {
-            for (int i = 0; i < setsDisputados(); i++) {
-                total += pontuacoes.get(time).get(i);
-            }
+            total = pontuacoes.pontosTotais(time);
         }
 
         return total;
     }
 
+    /**
+     * Retorna a soma dos pontos das duas equipes em todos os sets disputados.
+     *
+     * @return Total de pontos da partida.
+     */
+    public int pontosTotais() {
+        return pontuacoes.pontosTotais(0) + pontuacoes.pontosTotais(1);
+    }
+
     /**
      * Retorna sets vencidos por uma equipe até o momento. Em caso da equipe
      * procurada não exista, retornará 0 sets.
@@ -182,8 +403,8 @@ public class PartidaDeVolei {
      */
     public int setsVencidosEquipe(String equipe) {
         int vencidos = 0;
-        int time = equipe.equals(equipes.get(0).getNome()) ? 0
-                : equipe.equals(equipes.get(1).getNome()) ? 1 : -1;
+        int time = equipe.equals(equipe(0).getNome()) ? 0
+                : equipe.equals(equipe(1).getNome()) ? 1 : -1;
 
         if (time != -1) {
             vencidos = setsVencidos(time);
@@ -197,23 +418,7 @@ public class PartidaDeVolei {
      * @return Inteiro com o total de sets disputados até agora (0-5)
      */
     public int setsDisputados() {
-        int totalSetsDisputados = 0;
-
-        // Verifica se a lista principal e as sublistas não estão vazias
-        if (pontuacoes == null || pontuacoes.size() < 2 || pontuacoes.get(0).size() != pontuacoes.get(1).size()) {
-            return totalSetsDisputados; // Retorna 0 se a lista estiver malformada
-        }
-
-        List<Integer> pontuacoesEquipe1 = pontuacoes.get(0);
-        List<Integer> pontuacoesEquipe2 = pontuacoes.get(1);
-
-        for (int i = 0; i < pontuacoesEquipe1.size(); i++) {
-            if (pontuacoesEquipe1.get(i) > 0 || pontuacoesEquipe2.get(i) > 0) {
-                totalSetsDisputados++;
-            }
-        }
-
-        return totalSetsDisputados;
+        return pontuacoes.setsDisputados();
     }
 
     /**
@@ -223,30 +428,8 @@ public class PartidaDeVolei {
      * @param time Posição do time (0-mandante, 1-visitante)
      * @return Quantidade de sets vencidos pelo time (0-3)
      */
-    private int setsVencidos(int time) {
-        int totalSetsVencidos = 0;
-        int adversario = (time == 0) ? 1 : 0;
-
-        // Verifica se a lista principal e as sublistas não estão vazias
-        if (pontuacoes == null || pontuacoes.size() < 2 || pontuacoes.get(time).size() != pontuacoes.get(adversario).size()) {
-            return totalSetsVencidos; // Retorna 0 se a lista estiver malformada
-        }
-
-        // Percorre os sets e calcula o número de sets vencidos
-        for (int j = 0; j < pontuacoes.get(time).size(); j++) {
-            int pontosTime = pontuacoes.get(time).get(j);
-            int pontosAdversario = pontuacoes.get(adversario).get(j);
-
-            // Verifica se o time venceu o set
-            if (pontosTime > pontosAdversario) {
-                // Condição para o último set (set 5) e outros sets
-                if ((j == 4 && pontosTime >= 15) || (j < 4 && pontosTime >= 25 && Math.abs(pontosTime - pontosAdversario) >= 2)) {
-                    totalSetsVencidos++;
-                }
-            }
-        }
-
-        return totalSetsVencidos;
+    int setsVencidos(int time) {
+        return pontuacoes.setsVencidos(time);
     }
 
 }
@@ -0,0 +1,111 @@
+package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Models;
+
+import jakarta.persistence.Embeddable;
+import org.hibernate.annotations.ColumnDefault;
+
+/**
+ * Placar compacto de uma partida de vôlei, gravado na própria linha da
+ * partida. Os pontos de cada equipe nos 5 sets ficam empacotados em um único
+ * {@code long} (12 bits por set) e os dados derivados (sets vencidos por lado,
+ * sets disputados e vencedor) são mantidos prontos a cada set registrado.
+ */
+@Embeddable
+public class Placar {
+
+    static final int MAX_SETS = 5;
+    private static final int BITS_POR_SET = 12;
+    private static final long MASCARA_SET = (1L << BITS_POR_SET) - 1;
+
+    /**
+     * Maior pontuação de um set que cabe nos 12 bits reservados a ele.
+     */
+    static final int MAX_PONTOS = (int) MASCARA_SET;
+
+    @ColumnDefault("0")
+    private long pontosEquipe1;
+    @ColumnDefault("0")
+    private long pontosEquipe2;
+    @ColumnDefault("0")
+    private byte setsEquipe1;
+    @ColumnDefault("0")
+    private byte setsEquipe2;
+    @ColumnDefault("0")
+    private byte setsDisputados;
+    @ColumnDefault("-1")
+    private byte vencedor = -1;
+
+    public Placar() {
+
+    }
+
+    /**
+     * Grava o placar do próximo set, no espaço de 12 bits seguinte ao último
+     * set disputado, e atualiza sets vencidos e vencedor. A validação do
+     * placar (inclusive de que ainda há sets a disputar) é responsabilidade
+     * da partida.
+     *
+     * @param pontos1 Pontuação da equipe 1
+     * @param pontos2 Pontuação da equipe 2
+     */
+    void registrar(int pontos1, int pontos2) {
+        int deslocamento = setsDisputados * BITS_POR_SET;
+        pontosEquipe1 |= (pontos1 & MASCARA_SET) << deslocamento;
+        pontosEquipe2 |= (pontos2 & MASCARA_SET) << deslocamento;
+        setsDisputados++;
+        if (pontos1 > pontos2) {
+            setsEquipe1++;
+        } else {
+            setsEquipe2++;
+        }
+        vencedor = (byte) (setsEquipe1 >= 3 ? 0 : setsEquipe2 >= 3 ? 1 : -1);
+    }
+
+    /**
+     * Retorna a pontuação de uma equipe em um set.
+     *
+     * @param time Posição do time (0-mandante, 1-visitante)
+     * @param indiceSet Índice do set (0-4)
+     * @return Pontos do time naquele set (0 se ainda não disputado)
+     */
+    int pontos(int time, int indiceSet) {
+        long pontos = time == 0 ? pontosEquipe1 : pontosEquipe2;
+        return (int) ((pontos >>> (indiceSet * BITS_POR_SET)) & MASCARA_SET);
+    }
+
+    /**
+     * Retorna a soma dos pontos de uma equipe em todos os sets disputados.
+     *
+     * @param time Posição do time (0-mandante, 1-visitante)
+     * @return Total de pontos do time
+     */
+    int pontosTotais(int time) {
+        int total = 0;
+        for (int i = 0; i < setsDisputados; i++) {
+            total += pontos(time, i);
+        }
+        return total;
+    }
+
+    /**
+     * @param time Posição do time (0-mandante, 1-visitante)
+     * @return Sets vencidos pelo time (0-3)
+     */
+    int setsVencidos(int time) {
+        return time == 0 ? setsEquipe1 : setsEquipe2;
+    }
+
+    /**
+     * @return Total de sets disputados (0-5)
+     */
+    int setsDisputados() {
+        return setsDisputados;
+    }
+
+    /**
+     * @return Posição do time vencedor (0-mandante, 1-visitante) ou -1 se a
+     * partida está em andamento
+     */
+    int vencedor() {
+        return vencedor;
+    }
+}
@@ -0,0 +1,254 @@
+package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Models;
+
+import java.util.Comparator;
+import java.util.List;
+
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.DTO.LinhaClassificacao;
+
+/**
+ * Ordena as equipes de uma temporada por uma lista configurável de critérios
+ * de desempate. Cada critério é calculado uma vez para todas as equipes, em
+ * uma coluna de {@code double}, e os índices das equipes são ordenados uma
+ * única vez comparando as colunas; nenhuma linha é montada durante a
+ * ordenação.
+ *
+ * O confronto direto depende de quem está empatado, por isso é resolvido em
+ * duas etapas: ordena pelos critérios anteriores a ele, conta as vitórias
+ * entre as equipes de cada grupo de empatadas e ordena de novo com todos os
+ * critérios.
+ *
+ * Rankings que só usam os contadores das equipes também ordenam linhas
+ * isoladas ({@link #comparador()}), o que permite manter a classificação em
+ * memória ({@link TabelaClassificacao}) na mesma ordem.
+ */
+public final class RankingTemporada {
+
+    /**
+     * Critério padrão da liga: aproveitamento total e aproveitamento de sets.
+     */
+    public static final RankingTemporada PADRAO = new RankingTemporada(
+            List.of(CriterioClassificacao.APROVEITAMENTO, CriterioClassificacao.APROVEITAMENTO_SETS));
+
+    private final CriterioClassificacao[] criterios;
+
+    /**
+     * @param criterios Critérios na ordem em que são aplicados.
+     */
+    public RankingTemporada(List<CriterioClassificacao> criterios) {
+        this.criterios = criterios.toArray(new CriterioClassificacao[0]);
+    }
+
+    /**
+     * @return TRUE se algum critério depende dos resultados das partidas
+     * (pontos de partida ou confronto direto), que então devem ser incluídos
+     * nas colunas.
+     */
+    public boolean usaResultados() {
+        for (CriterioClassificacao criterio : criterios) {
+            if (criterio.dependeDeResultados()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return Critérios na ordem em que são aplicados.
+     */
+    public List<CriterioClassificacao> criterios() {
+        return List.of(criterios);
+    }
+
+    /**
+     * Ordem das linhas de classificação pelos critérios e, por fim, pelo ID
+     * da equipe.
+     *
+     * @return Comparador em que a linha à frente é a menor.
+     * @throws IllegalStateException Se algum critério depender dos resultados
+     * das partidas, que as linhas não trazem.
+     */
+    public Comparator<LinhaClassificacao> comparador() {
+        if (usaResultados()) {
+            throw new IllegalStateException("Critérios dependem dos resultados das partidas: " + criterios());
+        }
+        return (a, b) -> {
+            for (CriterioClassificacao criterio : criterios) {
+                int ordem = Double.compare(valor(criterio, b), valor(criterio, a));
+                if (ordem != 0) {
+                    return ordem;
+                }
+            }
+            return Integer.compare(a.idEquipe(), b.idEquipe());
+        };
+    }
+
+    private static double valor(CriterioClassificacao criterio, LinhaClassificacao linha) {
+        return criterio.valor(linha.partidas(), linha.vitorias(), linha.setsVencidos(), linha.setsDisputados(),
+                linha.pontosPro(), linha.pontosContra(), 0);
+    }
+
+    /**
+     * Ordena as equipes.
+     *
+     * @param colunas Dados das equipes.
+     * @return Índices das equipes nas colunas, do 1º ao último colocado.
+     */
+    public int[] ordenar(ColunasClassificacao colunas) {
+        int n = colunas.equipes();
+        double[][] chaves = new double[criterios.length][];
+        int confronto = -1;
+        for (int c = 0; c < criterios.length; c++) {
+            if (criterios[c] == CriterioClassificacao.CONFRONTO_DIRETO && confronto == -1) {
+                confronto = c;
+            }
+            chaves[c] = colunas.coluna(criterios[c]);
+        }
+        int[] ids = new int[n];
+        int[] ordem = new int[n];
+        for (int i = 0; i < n; i++) {
+            ids[i] = colunas.id(i);
+            ordem[i] = i;
+        }
+
+        if (confronto == -1) {
+            ordenar(ordem, chaves, criterios.length, ids);
+            return ordem;
+        }
+        ordenar(ordem, chaves, confronto, ids);
+        confrontoDireto(colunas, ordem, chaves, confronto);
+        ordenar(ordem, chaves, criterios.length, ids);
+        return ordem;
+    }
+
+    /**
+     * Encontra o 1º colocado. Sem confronto direto basta uma passada pelas
+     * colunas, sem ordenar.
+     *
+     * @param colunas Dados das equipes, com ao menos uma equipe.
+     * @return Índice do 1º colocado nas colunas.
+     */
+    public int primeiro(ColunasClassificacao colunas) {
+        if (usaConfrontoDireto()) {
+            return ordenar(colunas)[0];
+        }
+        int n = colunas.equipes();
+        double[][] chaves = new double[criterios.length][];
+        for (int c = 0; c < criterios.length; c++) {
+            chaves[c] = colunas.coluna(criterios[c]);
+        }
+        int[] ids = new int[n];
+        for (int i = 0; i < n; i++) {
+            ids[i] = colunas.id(i);
+        }
+        int primeiro = 0;
+        for (int i = 1; i < n; i++) {
+            if (comparar(chaves, criterios.length, ids, i, primeiro) < 0) {
+                primeiro = i;
+            }
+        }
+        return primeiro;
+    }
+
+    private boolean usaConfrontoDireto() {
+        for (CriterioClassificacao criterio : criterios) {
+            if (criterio == CriterioClassificacao.CONFRONTO_DIRETO) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Conta, na coluna do confronto direto, as vitórias de cada equipe contra
+     * as outras do seu grupo de empatadas nos critérios anteriores.
+     */
+    private static void confrontoDireto(ColunasClassificacao colunas, int[] ordem, double[][] chaves, int confronto) {
+        int[] grupo = new int[ordem.length];
+        int grupos = 0;
+        for (int inicio = 0; inicio < ordem.length; ) {
+            int fim = inicio + 1;
+            while (fim < ordem.length && empatadas(chaves, confronto, ordem[inicio], ordem[fim])) {
+                fim++;
+            }
+            int id = fim - inicio > 1 ? ++grupos : 0;
+            for (int p = inicio; p < fim; p++) {
+                grupo[ordem[p]] = id;
+            }
+            inicio = fim;
+        }
+        if (grupos == 0) {
+            return;
+        }
+        double[] vitorias = chaves[confronto];
+        for (int r = 0; r < colunas.resultados(); r++) {
+            int vencedor = colunas.vencedor(r);
+            if (grupo[vencedor] != 0 && grupo[vencedor] == grupo[colunas.perdedor(r)]) {
+                vitorias[vencedor]++;
+            }
+        }
+    }
+
+    private static boolean empatadas(double[][] chaves, int criterios, int a, int b) {
+        for (int c = 0; c < criterios; c++) {
+            if (Double.compare(chaves[c][a], chaves[c][b]) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Compara duas equipes por colunas de critérios já calculadas, para quem
+     * recalcula as colunas muitas vezes sobre os mesmos vetores (como a
+     * simulação da temporada).
+     *
+     * @param chaves Valor de cada critério (na ordem do ranking) por equipe.
+     * @param ids ID de cada equipe, último desempate.
+     * @return Negativo se a equipe A fica à frente da B, positivo se fica
+     * atrás.
+     */
+    public static int comparar(double[][] chaves, int[] ids, int a, int b) {
+        return comparar(chaves, chaves.length, ids, a, b);
+    }
+
+    private static int comparar(double[][] chaves, int criterios, int[] ids, int a, int b) {
+        for (int c = 0; c < criterios; c++) {
+            int ordem = Double.compare(chaves[c][b], chaves[c][a]);
+            if (ordem != 0) {
+                return ordem;
+            }
+        }
+        return Integer.compare(ids[a], ids[b]);
+    }
+
+    /**
+     * Merge sort de baixo para cima sobre os índices, com um único vetor
+     * auxiliar.
+     */
+    private static void ordenar(int[] ordem, double[][] chaves, int criterios, int[] ids) {
+        int n = ordem.length;
+        int[] origem = ordem;
+        int[] destino = new int[n];
+        for (int largura = 1; largura < n; largura *= 2) {
+            for (int inicio = 0; inicio < n; inicio += 2 * largura) {
+                int meio = Math.min(inicio + largura, n);
+                int fim = Math.min(inicio + 2 * largura, n);
+                int i = inicio;
+                int j = meio;
+                for (int k = inicio; k < fim; k++) {
+                    if (i < meio && (j >= fim || comparar(chaves, criterios, ids, origem[i], origem[j]) <= 0)) {
+                        destino[k] = origem[i++];
+                    } else {
+                        destino[k] = origem[j++];
+                    }
+                }
+            }
+            int[] troca = origem;
+            origem = destino;
+            destino = troca;
+        }
+        if (origem != ordem) {
+            System.arraycopy(origem, 0, ordem, 0, n);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Models;
+
+/**
+ * Situação de uma partida, derivada do seu placar.
+ */
+public enum StatusPartida {
+
+    /**
+     * Nenhum set registrado.
+     */
+    AGENDADA,
+    /**
+     * Algum set registrado, mas nenhuma equipe venceu 3.
+     */
+    EM_ANDAMENTO,
+    /**
+     * Uma das equipes venceu 3 sets.
+     */
+    ENCERRADA
+}
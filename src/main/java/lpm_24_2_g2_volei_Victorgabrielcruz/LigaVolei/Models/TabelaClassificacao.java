@@ -0,0 +1,142 @@
+package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Models;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.DTO.LinhaClassificacao;
+
+/**
+ * Classificação materializada de uma temporada. Mantém as linhas das equipes
+ * sempre ordenadas, de modo que a atualização de uma equipe custa O(log n), o
+ * líder fica disponível em O(1) e a tabela é apenas um percurso da estrutura.
+ * A ordem é a de um {@link RankingTemporada} que só usa os contadores das
+ * equipes.
+ *
+ * <p>
+ * Cada atualização dá à tabela uma nova versão, tirada de um contador comum a
+ * todas as tabelas que começa no instante de carga da classe, de modo que uma
+ * versão não se repete entre tabelas recarregadas nem entre reinícios. A
+ * versão identifica exatamente o conteúdo formatado e serve de ETag.
+ */
+public class TabelaClassificacao {
+
+    private static final AtomicLong VERSOES = new AtomicLong(
+            TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis()));
+
+    /**
+     * Tabela formatada junto da versão da classificação que a gerou.
+     *
+     * @param versao versão da classificação.
+     * @param texto tabela no formato texto.
+     */
+    public record Tabela(long versao, String texto) {
+
+    }
+
+    private final int ano;
+    private final TreeSet<LinhaClassificacao> linhas;
+    private final Map<Integer, LinhaClassificacao> porEquipe = new HashMap<>();
+    private LinhaClassificacao lider;
+    private long versao = VERSOES.incrementAndGet();
+
+    /**
+     * Cria uma classificação vazia para a temporada do ano informado.
+     *
+     * @param ano o ano da temporada.
+     * @param ranking critérios de ordenação (ver
+     * {@link RankingTemporada#comparador()}).
+     */
+    public TabelaClassificacao(int ano, RankingTemporada ranking) {
+        this.ano = ano;
+        this.linhas = new TreeSet<>(ranking.comparador());
+    }
+
+    public int ano() {
+        return ano;
+    }
+
+    /**
+     * Insere ou reposiciona a linha de uma equipe na classificação.
+     *
+     * @param linha linha com os dados atuais da equipe.
+     */
+    public synchronized void atualizar(LinhaClassificacao linha) {
+        LinhaClassificacao anterior = porEquipe.put(linha.idEquipe(), linha);
+        if (anterior != null) {
+            linhas.remove(anterior);
+        }
+        linhas.add(linha);
+        lider = linhas.first();
+        versao = VERSOES.incrementAndGet();
+    }
+
+    /**
+     * @return a versão atual da classificação.
+     */
+    public synchronized long versao() {
+        return versao;
+    }
+
+    /**
+     * @param idEquipe o ID da equipe.
+     * @return TRUE se a equipe faz parte desta classificação.
+     */
+    public synchronized boolean contem(int idEquipe) {
+        return porEquipe.containsKey(idEquipe);
+    }
+
+    /**
+     * @return a linha da equipe líder ou {@code null} se não houver equipes.
+     */
+    public synchronized LinhaClassificacao lider() {
+        return lider;
+    }
+
+    /**
+     * @return cópia das linhas na ordem da classificação.
+     */
+    public synchronized List<LinhaClassificacao> linhas() {
+        return new ArrayList<>(linhas);
+    }
+
+    /**
+     * Gera a tabela da temporada no formato texto já ordenada, junto da versão
+     * da classificação lida no mesmo instante.
+     *
+     * @return a tabela formatada e sua versão.
+     */
+    public synchronized Tabela tabela() {
+        return new Tabela(versao, formatar(ano, linhas));
+    }
+
+    /**
+     * Gera uma string representando a tabela da temporada, contendo o nome das
+     * equipes e seus aproveitamentos, na ordem em que as linhas são recebidas.
+     *
+     * @param ano o ano da temporada.
+     * @param linhas linhas da classificação já ordenadas.
+     * @return uma string formatada com a tabela da temporada.
+     */
+    public static String formatar(int ano, Iterable<LinhaClassificacao> linhas) {
+        StringBuilder tabela = new StringBuilder();
+        tabela.append("------------------- Tabela da Temporada de " + ano + " -------------------\n");
+        tabela.append(String.format("%-20s %-20s %-20s%n", "Nome da Equipe", "Aproveitamento Total", "Aproveitamento Sets"));
+        tabela.append("----------------------------------------------------------------------\n");
+
+        for (LinhaClassificacao linha : linhas) {
+            tabela.append(String.format("%-20s %-20.2f %-20.2f%n",
+                    linha.nome(),
+                    linha.aproveitamentoTotal(),
+                    linha.aproveitamentoSets()
+            ));
+        }
+
+        tabela.append("----------------------------------------------------------------------\n");
+        return tabela.toString();
+    }
+}
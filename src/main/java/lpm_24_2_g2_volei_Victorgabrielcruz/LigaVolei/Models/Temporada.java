@@ -1,6 +1,11 @@
 package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Models;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -8,6 +13,10 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.Transient;
+import jakarta.persistence.Version;
+import org.hibernate.annotations.ColumnDefault;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.DTO.LinhaClassificacao;
 
 /**
  * A classe {@code Temporada} representa uma temporada de voleibol, contendo
@@ -34,6 +43,20 @@ public class Temporada {
     @OneToMany
     private List<Equipe> equipes;
 
+    /**
+     * Versão para controle de concorrência otimista, incrementada pelo
+     * Hibernate a cada commit que altera a entidade.
+     */
+    @Version
+    @ColumnDefault("0")
+    private long versao;
+
+    @Transient
+    private Set<Equipe> inscritas;
+
+    @Transient
+    private IndiceNomes<Equipe> nomes;
+
     /**
      * Construtor que inicializa uma nova temporada com o ano informado.
      *
@@ -41,6 +64,7 @@ public class Temporada {
      */
     public Temporada(int ano) {
         this.ano = ano;
+        this.equipes = new ArrayList<>();
     }
 
     /**
@@ -49,81 +73,188 @@ public class Temporada {
     public Temporada() {
     }
 
+    /**
+     * Retorna o ID da temporada.
+     *
+     * @return o ID da temporada.
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Retorna o ano da temporada.
+     *
+     * @return o ano da temporada.
+     */
+    public int getAno() {
+        return ano;
+    }
+
     /**
      * Cadastra uma nova equipe na temporada.
      *
      * @param equipe a equipe a ser adicionada.
      * @return o número total de equipes após a adição, ou 0 se a equipe for
-     * nula.
+     * nula ou já estiver cadastrada.
      */
     public int cadastrarEquipe(Equipe equipe) {
-        if (equipe != null) {
-            equipes.add(equipe);
-            return equipes.size();
+        if (equipe == null || inscritas().contains(equipe)) {
+            return 0;
         }
-        return 0;
+        return inscrever(equipe);
     }
 
     /**
-     * Busca uma equipe pelo nome na lista de equipes da temporada.
+     * Inscreve uma equipe que o chamador já verificou não estar cadastrada,
+     * por exemplo com uma consulta às inscrições no banco. Não monta o índice
+     * de nomes: só o atualiza se uma busca já o tiver montado neste contexto
+     * de persistência.
+     *
+     * @param equipe a equipe a ser adicionada.
+     * @return o número total de equipes após a adição.
+     */
+    public int inscrever(Equipe equipe) {
+        equipes.add(equipe);
+        if (inscritas != null) {
+            inscritas.add(equipe);
+            nomes.adicionar(equipe.getNome(), equipe);
+        }
+        return equipes.size();
+    }
+
+    /**
+     * Busca uma equipe pelo nome, sem distinção de maiúsculas e minúsculas.
      *
      * @param nomeEquipe o nome da equipe a ser buscada.
-     * @return a equipe correspondente ao nome informado, ou {@code null} se não
-     * encontrada.
+     * @return a equipe correspondente ao nome informado (a primeira
+     * cadastrada, se houver mais de uma), ou {@code null} se não encontrada.
      */
     public Equipe buscarEquipe(String nomeEquipe) {
-        for (Equipe equipe : equipes) {
-            if (equipe.getNome().equalsIgnoreCase(nomeEquipe)) {
-                return equipe;
+        inscritas();
+        return nomes.buscar(nomeEquipe);
+    }
+
+    /**
+     * Busca as equipes cujo nome começa com um prefixo, sem distinção de
+     * maiúsculas e minúsculas.
+     *
+     * @param prefixo início do nome.
+     * @param limite quantidade máxima de equipes.
+     * @return as equipes encontradas, em ordem alfabética.
+     */
+    public List<Equipe> buscarEquipesPorPrefixo(String prefixo, int limite) {
+        inscritas();
+        return nomes.prefixo(prefixo, limite);
+    }
+
+    /**
+     * Monta, no primeiro uso, o conjunto das equipes cadastradas e o índice
+     * dos seus nomes, mantidos a cada cadastro a partir daí. O conjunto é por
+     * identidade: no mesmo contexto de persistência, cada equipe tem uma única
+     * instância. Como percorre todas as equipes, serve às buscas feitas dentro
+     * de uma mesma requisição; os endpoints de cadastro verificam a inscrição
+     * no banco e usam {@link #inscrever(Equipe)}.
+     */
+    private Set<Equipe> inscritas() {
+        if (inscritas == null) {
+            inscritas = Collections.newSetFromMap(new IdentityHashMap<>(equipes.size() * 2));
+            nomes = new IndiceNomes<>();
+            for (Equipe equipe : equipes) {
+                inscritas.add(equipe);
+                nomes.adicionar(equipe.getNome(), equipe);
             }
         }
-        return null;
+        return inscritas;
     }
 
     /**
-     * Determina a equipe líder da temporada com base no aproveitamento total e
-     * de sets.
+     * Determina a equipe líder da temporada pelo critério padrão da liga
+     * ({@link RankingTemporada#PADRAO}). Os endpoints usam o ranking
+     * configurado, através de {@link #liderTemporada(RankingTemporada)}.
      *
-     * @return a equipe com o melhor desempenho na temporada.
+     * @return a equipe com o melhor desempenho na temporada, ou {@code null}
+     * se não houver equipes.
      */
     public Equipe liderTemporada() {
-        Equipe lider = equipes.get(0);
+        return liderTemporada(RankingTemporada.PADRAO);
+    }
 
-        for (Equipe equipe : equipes) {
-            if (equipe.aproveitamentoTotal() > lider.aproveitamentoTotal()) {
-                lider = equipe;
-            } else if (equipe.aproveitamentoTotal() == lider.aproveitamentoTotal()) {
-                if (equipe.aproveitamentoSets() > lider.aproveitamentoSets()) {
-                    lider = equipe;
-                }
-            }
+    /**
+     * Determina a equipe líder da temporada por uma lista de critérios.
+     *
+     * @param ranking critérios de ordenação.
+     * @return a equipe com o melhor desempenho na temporada, ou {@code null}
+     * se não houver equipes.
+     */
+    public Equipe liderTemporada(RankingTemporada ranking) {
+        if (equipes.isEmpty()) {
+            return null;
         }
+        return equipes.get(ranking.primeiro(colunas(ranking)));
+    }
 
-        return lider;
+    /**
+     * Monta a classificação materializada da temporada a partir dos
+     * contadores acumulados das equipes, sem carregar suas partidas.
+     *
+     * @param ranking critérios de ordenação, só sobre os contadores.
+     * @return a classificação ordenada da temporada.
+     */
+    public TabelaClassificacao classificacao(RankingTemporada ranking) {
+        TabelaClassificacao classificacao = new TabelaClassificacao(ano, ranking);
+        for (Equipe equipe : equipes) {
+            classificacao.atualizar(equipe.linhaClassificacao());
+        }
+        return classificacao;
     }
 
     /**
      * Gera uma string representando a tabela da temporada, contendo o nome das
-     * equipes e seus aproveitamentos.
+     * equipes e seus aproveitamentos, ordenada pelo critério padrão da liga,
+     * o mesmo de {@link #liderTemporada()}.
      *
      * @return uma string formatada com a tabela da temporada.
      */
     public String tabela() {
-        StringBuilder tabela = new StringBuilder();
-        tabela.append("------------------- Tabela da Temporada de " + ano + " -------------------\n");
-        tabela.append(String.format("%-20s %-20s %-20s%n", "Nome da Equipe", "Aproveitamento Total", "Aproveitamento Sets"));
-        tabela.append("----------------------------------------------------------------------\n");
+        return tabela(RankingTemporada.PADRAO);
+    }
 
-        for (Equipe equipe : equipes) {
-            tabela.append(String.format("%-20s %-20.2f %-20.2f%n",
-                    equipe.getNome(),
-                    equipe.aproveitamentoTotal(),
-                    equipe.aproveitamentoSets()
-            ));
+    /**
+     * Gera a tabela da temporada ordenada por uma lista de critérios.
+     *
+     * @param ranking critérios de ordenação.
+     * @return uma string formatada com a tabela da temporada.
+     */
+    public String tabela(RankingTemporada ranking) {
+        List<LinhaClassificacao> linhas = new ArrayList<>(equipes.size());
+        for (int indice : ranking.ordenar(colunas(ranking))) {
+            linhas.add(equipes.get(indice).linhaClassificacao());
         }
+        return TabelaClassificacao.formatar(ano, linhas);
+    }
 
-        tabela.append("----------------------------------------------------------------------\n");
-        return tabela.toString();
+    /**
+     * Monta as colunas do ranking na ordem da lista de equipes. Os resultados
+     * das partidas só são percorridos se algum critério precisar deles.
+     */
+    private ColunasClassificacao colunas(RankingTemporada ranking) {
+        ColunasClassificacao colunas = new ColunasClassificacao(equipes.size());
+        if (!ranking.usaResultados()) {
+            for (Equipe equipe : equipes) {
+                equipe.preencherColunas(colunas);
+            }
+            return colunas;
+        }
+        // Por identidade: equipes ainda não gravadas têm todas o ID 0.
+        Map<Equipe, Integer> indices = new IdentityHashMap<>(equipes.size() * 2);
+        for (Equipe equipe : equipes) {
+            indices.put(equipe, equipe.preencherColunas(colunas));
+        }
+        for (Equipe equipe : equipes) {
+            equipe.preencherResultados(colunas, indices);
+        }
+        return colunas;
     }
 
 }
@@ -0,0 +1,78 @@
+package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Services;
+
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Ajusta as sequências de IDs de equipes e partidas, que antes eram gerados
+ * pelo banco (IDENTITY). Com {@code ddl-auto=update}, as sequências são
+ * criadas começando em 1, e os IDs entregues colidiriam com os já gravados.
+ * Na inicialização, antes de qualquer inserção, cada sequência que ainda não
+ * passou do maior ID da sua tabela é reiniciada logo depois dele.
+ */
+@Service
+public class AjusteSequenciasService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AjusteSequenciasService.class);
+
+    /**
+     * O mesmo {@code allocationSize} dos {@code @SequenceGenerator}: cada
+     * valor lido da sequência reserva os 50 IDs que terminam nele.
+     */
+    static final int ALOCACAO = 50;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    private final TransactionTemplate escrita;
+
+    public AjusteSequenciasService(PlatformTransactionManager gerenciadorTransacoes) {
+        escrita = new TransactionTemplate(gerenciadorTransacoes);
+    }
+
+    @PostConstruct
+    void ajustar() {
+        escrita.executeWithoutResult(status -> {
+            ajustar("equipes_seq", "SELECT MAX(e.idEquipe) FROM Equipe e");
+            ajustar("partidas_seq", "SELECT MAX(p.id) FROM PartidaDeVolei p");
+        });
+    }
+
+    /**
+     * Lê o próximo valor da sequência (descartando um bloco de IDs, o que só
+     * deixa uma lacuna) e, se o bloco começar em um ID já usado, reinicia a
+     * sequência no fim do bloco seguinte ao maior ID.
+     */
+    private void ajustar(String sequencia, String consultaMaximo) {
+        Integer maximo = em.createQuery(consultaMaximo, Integer.class).getSingleResult();
+        if (maximo == null) {
+            return;
+        }
+        long proximo = proximoValor(sequencia);
+        if (proximo - ALOCACAO + 1 > maximo) {
+            return;
+        }
+        long reinicio = (long) maximo + ALOCACAO;
+        em.createNativeQuery("ALTER SEQUENCE " + sequencia + " RESTART WITH " + reinicio).executeUpdate();
+        LOG.info("Sequência {} reiniciada em {} (maior ID gravado: {})", sequencia, reinicio, maximo);
+    }
+
+    /**
+     * @return Próximo valor da sequência, lido com o SQL do dialeto em uso.
+     */
+    long proximoValor(String sequencia) {
+        Dialect dialeto = em.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect();
+        return ((Number) em.createNativeQuery(dialeto.getSequenceSupport().getSequenceNextValString(sequencia))
+                .getSingleResult()).longValue();
+    }
+}
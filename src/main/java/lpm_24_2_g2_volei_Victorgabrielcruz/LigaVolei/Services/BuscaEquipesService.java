@@ -0,0 +1,212 @@
+package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Services;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.DTO.EquipeNomeDTO;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Events.EquipeCadastradaEvent;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Models.Equipe;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Models.IndiceNomes;
+
+/**
+ * Busca equipes de uma temporada pelo nome, sem distinção de maiúsculas e
+ * minúsculas. Cada temporada usada no autocompletar ganha um índice de nomes
+ * em memória ({@link IndiceNomes}), carregado com uma consulta e mantido a
+ * cada equipe cadastrada, após o commit. Buscas exatas em temporadas sem
+ * índice vão ao banco pela coluna indexada {@code nome_busca}.
+ *
+ * Cadastros confirmados enquanto um índice é carregado ficam guardados e são
+ * incluídos logo após a carga, pois a consulta pode ter começado antes deles.
+ */
+@Service
+public class BuscaEquipesService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(BuscaEquipesService.class);
+
+    @PersistenceContext
+    private EntityManager em;
+
+    private final Map<Integer, IndiceNomes<EquipeNomeDTO>> temporadas = new ConcurrentHashMap<>();
+
+    /**
+     * Serializa as cargas dos índices, como em {@link ClassificacaoService}.
+     */
+    private final ReentrantLock carga = new ReentrantLock();
+
+    /**
+     * Protege a troca entre aplicar os cadastros diretamente e guardá-los em
+     * {@link #cadastrosEmCarga} enquanto um índice é carregado.
+     */
+    private final ReentrantLock aplicacao = new ReentrantLock();
+    private List<EquipeCadastradaEvent> cadastrosEmCarga;
+
+    private final TransactionTemplate leitura;
+    private final TransactionTemplate escrita;
+
+    public BuscaEquipesService(PlatformTransactionManager gerenciadorTransacoes) {
+        leitura = new TransactionTemplate(gerenciadorTransacoes);
+        leitura.setReadOnly(true);
+        escrita = new TransactionTemplate(gerenciadorTransacoes);
+    }
+
+    /**
+     * Preenche o nome de busca das equipes gravadas antes da existência da
+     * coluna.
+     */
+    @PostConstruct
+    void preencherNomesBusca() {
+        Integer preenchidas = escrita.execute(status -> em.createQuery(
+                "UPDATE Equipe e SET e.nomeBusca = LOWER(e.nome) WHERE e.nomeBusca IS NULL AND e.nome IS NOT NULL")
+                .executeUpdate());
+        if (preenchidas != null && preenchidas > 0) {
+            LOG.info("Nome de busca preenchido em {} equipes", preenchidas);
+        }
+    }
+
+    /**
+     * Busca uma equipe da temporada pelo nome exato.
+     *
+     * @param idTemporada ID da temporada.
+     * @param nome Nome da equipe, com quaisquer maiúsculas e minúsculas.
+     * @return A equipe, ou null se não encontrada.
+     */
+    public Equipe buscar(int idTemporada, String nome) {
+        if (nome == null) {
+            return null;
+        }
+        IndiceNomes<EquipeNomeDTO> indice = temporadas.get(idTemporada);
+        return leitura.execute(status -> {
+            if (indice != null) {
+                EquipeNomeDTO encontrada = indice.buscar(nome);
+                return encontrada == null ? null : em.find(Equipe.class, encontrada.idEquipe());
+            }
+            List<Equipe> encontradas = em.createQuery("SELECT e FROM Temporadas t JOIN t.equipes e "
+                    + "WHERE t.id = :id AND e.nomeBusca = :nome ORDER BY e.idEquipe", Equipe.class)
+                    .setParameter("id", idTemporada)
+                    .setParameter("nome", IndiceNomes.dobrar(nome))
+                    .setMaxResults(1)
+                    .getResultList();
+            return encontradas.isEmpty() ? null : encontradas.get(0);
+        });
+    }
+
+    /**
+     * Lista as equipes da temporada cujo nome começa com um prefixo.
+     *
+     * @param idTemporada ID da temporada.
+     * @param prefixo Início do nome, com quaisquer maiúsculas e minúsculas.
+     * @param limite Quantidade máxima de equipes.
+     * @return Equipes encontradas, em ordem alfabética (vazia se a temporada
+     * não existir ou não tiver equipes).
+     */
+    public List<EquipeNomeDTO> autocompletar(int idTemporada, String prefixo, int limite) {
+        IndiceNomes<EquipeNomeDTO> indice = temporadas.get(idTemporada);
+        if (indice == null) {
+            indice = carregar(idTemporada);
+        }
+        return indice == null ? List.of() : indice.prefixo(prefixo, limite);
+    }
+
+    private IndiceNomes<EquipeNomeDTO> carregar(int idTemporada) {
+        carga.lock();
+        try {
+            IndiceNomes<EquipeNomeDTO> indice = temporadas.get(idTemporada);
+            if (indice != null) {
+                return indice;
+            }
+            aplicacao.lock();
+            try {
+                cadastrosEmCarga = new ArrayList<>();
+            } finally {
+                aplicacao.unlock();
+            }
+            List<Object[]> equipes = null;
+            try {
+                equipes = leitura.execute(status -> em.createQuery(
+                        "SELECT e.idEquipe, e.nome FROM Temporadas t JOIN t.equipes e WHERE t.id = :id "
+                        + "ORDER BY e.idEquipe", Object[].class)
+                        .setParameter("id", idTemporada)
+                        .getResultList());
+            } finally {
+                aplicacao.lock();
+                try {
+                    if (equipes != null) {
+                        indice = indexar(idTemporada, equipes, cadastrosEmCarga);
+                    }
+                    cadastrosEmCarga = null;
+                } finally {
+                    aplicacao.unlock();
+                }
+            }
+            return indice;
+        } finally {
+            carga.unlock();
+        }
+    }
+
+    /**
+     * Monta o índice com as equipes lidas e os cadastros confirmados durante
+     * a leitura, ignorando os que a leitura já trouxe.
+     */
+    private IndiceNomes<EquipeNomeDTO> indexar(int idTemporada, List<Object[]> equipes,
+            List<EquipeCadastradaEvent> cadastros) {
+        Set<Integer> lidas = new HashSet<>(equipes.size() * 2);
+        IndiceNomes<EquipeNomeDTO> indice = new IndiceNomes<>();
+        for (Object[] equipe : equipes) {
+            lidas.add((Integer) equipe[0]);
+            indice.adicionar((String) equipe[1], new EquipeNomeDTO((Integer) equipe[0], (String) equipe[1]));
+        }
+        for (EquipeCadastradaEvent cadastro : cadastros) {
+            Equipe equipe = cadastro.equipe();
+            if (cadastro.idTemporada() == idTemporada && lidas.add(equipe.getIdEquipe())) {
+                indice.adicionar(equipe.getNome(), new EquipeNomeDTO(equipe.getIdEquipe(), equipe.getNome()));
+            }
+        }
+        // Temporadas sem equipes não ficam em memória: IDs inexistentes
+        // não ocupam espaço, e a primeira equipe cadastrada só passa a
+        // ser indexada na próxima busca.
+        if (lidas.isEmpty()) {
+            return null;
+        }
+        temporadas.put(idTemporada, indice);
+        return indice;
+    }
+
+    /**
+     * Inclui uma equipe recém-cadastrada no índice da sua temporada, caso ele
+     * já esteja em memória.
+     *
+     * @param evento Evento com a temporada e a equipe.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void equipeCadastrada(EquipeCadastradaEvent evento) {
+        aplicacao.lock();
+        try {
+            if (cadastrosEmCarga != null) {
+                cadastrosEmCarga.add(evento);
+            }
+            IndiceNomes<EquipeNomeDTO> indice = temporadas.get(evento.idTemporada());
+            if (indice != null) {
+                Equipe equipe = evento.equipe();
+                indice.adicionar(equipe.getNome(), new EquipeNomeDTO(equipe.getIdEquipe(), equipe.getNome()));
+            }
+        } finally {
+            aplicacao.unlock();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Services;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.DTO.EstatisticasCacheDTO;
+
+/**
+ * Cache em memória com leitura direta (read-through), limitado por quantidade
+ * de entradas (descarta a menos usada recentemente) e por tempo de vida.
+ * Mantém contadores de acertos, falhas, remoções e invalidações.
+ *
+ * <p>
+ * Cada invalidação incrementa uma geração; um valor carregado só é guardado
+ * se nenhuma invalidação ocorreu durante o carregamento, evitando que um dado
+ * lido antes de uma alteração fique no cache depois dela.
+ *
+ * @param <K> Tipo da chave
+ * @param <V> Tipo do valor
+ */
+public class CacheLimitado<K, V> {
+
+    private record Entrada<V>(V valor, long expiraEm) {
+
+    }
+
+    private final int tamanhoMaximo;
+    private final long tempoDeVida;
+    private final LinkedHashMap<K, Entrada<V>> entradas;
+    private final AtomicLong geracao = new AtomicLong();
+    private final LongAdder acertos = new LongAdder();
+    private final LongAdder falhas = new LongAdder();
+    private final LongAdder remocoes = new LongAdder();
+    private final LongAdder invalidacoes = new LongAdder();
+
+    /**
+     * @param tamanhoMaximo Quantidade máxima de entradas.
+     * @param tempoDeVida Tempo máximo que uma entrada permanece válida.
+     */
+    public CacheLimitado(int tamanhoMaximo, Duration tempoDeVida) {
+        this.tamanhoMaximo = tamanhoMaximo;
+        this.tempoDeVida = tempoDeVida.toNanos();
+        this.entradas = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entrada<V>> maisAntiga) {
+                boolean remover = size() > CacheLimitado.this.tamanhoMaximo;
+                if (remover) {
+                    remocoes.increment();
+                }
+                return remover;
+            }
+        };
+    }
+
+    /**
+     * Retorna o valor em cache ou o carrega. Valores nulos não são guardados.
+     *
+     * @param chave Chave procurada.
+     * @param carregador Função que carrega o valor em caso de falha.
+     * @return O valor em cache ou o recém-carregado.
+     */
+    public V obter(K chave, Function<K, V> carregador) {
+        long agora = System.nanoTime();
+        synchronized (this) {
+            Entrada<V> entrada = entradas.get(chave);
+            if (entrada != null) {
+                if (entrada.expiraEm() - agora > 0) {
+                    acertos.increment();
+                    return entrada.valor();
+                }
+                entradas.remove(chave);
+                remocoes.increment();
+            }
+        }
+        falhas.increment();
+
+        long geracaoInicial = geracao.get();
+        V valor = carregador.apply(chave);
+        if (valor != null) {
+            synchronized (this) {
+                if (geracao.get() == geracaoInicial) {
+                    entradas.put(chave, new Entrada<>(valor, System.nanoTime() + tempoDeVida));
+                }
+            }
+        }
+        return valor;
+    }
+
+    /**
+     * Remove a chave do cache.
+     *
+     * @param chave Chave a invalidar.
+     */
+    public synchronized void invalidar(K chave) {
+        geracao.incrementAndGet();
+        invalidacoes.increment();
+        entradas.remove(chave);
+    }
+
+    public synchronized int tamanho() {
+        return entradas.size();
+    }
+
+    public EstatisticasCacheDTO estatisticas() {
+        return new EstatisticasCacheDTO(acertos.sum(), falhas.sum(), remocoes.sum(), invalidacoes.sum(), tamanho());
+    }
+}
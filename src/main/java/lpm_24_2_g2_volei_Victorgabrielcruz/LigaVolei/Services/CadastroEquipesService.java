@@ -0,0 +1,34 @@
+package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Services;
+
+import java.util.List;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Models.Equipe;
+
+/**
+ * Cadastro de equipes em lote, usado pelos endpoints de criação em massa.
+ */
+@Service
+public class CadastroEquipesService {
+
+    @PersistenceContext
+    private EntityManager manager;
+
+    /**
+     * Persiste as equipes informadas em uma única transação.
+     *
+     * @param equipes Lista de equipes a serem criadas.
+     * @return A mesma lista, com os IDs preenchidos.
+     */
+    @Transactional
+    public List<Equipe> criarEquipes(List<Equipe> equipes) {
+        for (Equipe equipe : equipes) {
+            manager.persist(equipe);
+        }
+        return equipes;
+    }
+}
@@ -0,0 +1,218 @@
+package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Services;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.DTO.CalendarioDTO;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.DTO.ConfrontoDTO;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.DTO.ConfrontoRejeitadoDTO;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Events.AlteracaoResultado;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Events.AlteracaoResultado.PartidaCriada;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Events.EquipeAtualizadaEvent;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Events.ResultadosAlteradosEvent;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Models.Equipe;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Models.PartidaDeVolei;
+
+/**
+ * Criação de partidas em lote, avulsas ou como calendário de uma temporada.
+ * As equipes envolvidas são resolvidas com consultas {@code IN} e as inserções
+ * são descarregadas em lotes JDBC de tamanho configurável
+ * ({@code liga.partidas.lote}).
+ */
+@Service
+public class CadastroPartidasService {
+
+    private static final int MAX_PARAMETROS_IN = 1000;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Autowired
+    private ApplicationEventPublisher eventos;
+
+    @Autowired
+    private ConcorrenciaOtimistaService concorrencia;
+
+    @Value("${liga.partidas.lote:500}")
+    private int tamanhoLote;
+
+    /**
+     * Cria uma partida para cada confronto cujas duas equipes existem, em uma
+     * única transação, repetida em caso de conflito de versão nas equipes. Os
+     * eventos das equipes alteradas são entregues após o commit, e as
+     * partidas só são repassadas a {@code aoCriar} depois dele.
+     *
+     * @param confrontos Confrontos a criar (IDs das equipes 1 e 2).
+     * @param aoCriar Recebe cada partida criada, na ordem dos confrontos.
+     * @return Confrontos rejeitados, com o índice original e o motivo.
+     */
+    public List<ConfrontoRejeitadoDTO> criarPartidas(List<ConfrontoDTO> confrontos, Consumer<PartidaDeVolei> aoCriar) {
+        List<ConfrontoRejeitadoDTO> rejeitados = new ArrayList<>();
+        List<PartidaDeVolei> criadas = new ArrayList<>();
+        concorrencia.executar(status -> {
+            rejeitados.clear();
+            criadas.clear();
+            criar(confrontos, rejeitados, criadas);
+            return null;
+        });
+        criadas.forEach(aoCriar);
+        return rejeitados;
+    }
+
+    private void criar(List<ConfrontoDTO> confrontos, List<ConfrontoRejeitadoDTO> rejeitados, List<PartidaDeVolei> criadas) {
+        Set<Integer> ids = new HashSet<>();
+        for (ConfrontoDTO confronto : confrontos) {
+            if (confronto.id1() != null) {
+                ids.add(confronto.id1());
+            }
+            if (confronto.id2() != null) {
+                ids.add(confronto.id2());
+            }
+        }
+
+        Map<Integer, Equipe> equipes = buscarEquipes(ids);
+        List<PartidaDeVolei> partidas = new ArrayList<>(confrontos.size());
+        for (int i = 0; i < confrontos.size(); i++) {
+            ConfrontoDTO confronto = confrontos.get(i);
+            String motivo = validar(confronto, equipes);
+            if (motivo != null) {
+                rejeitados.add(new ConfrontoRejeitadoDTO(i, confronto.id1(), confronto.id2(), motivo));
+                continue;
+            }
+            partidas.add(new PartidaDeVolei(equipes.get(confronto.id1()), equipes.get(confronto.id2())));
+        }
+        persistir(partidas);
+        criadas.addAll(partidas);
+    }
+
+    /**
+     * Gera o calendário de rodízio de uma temporada: cada equipe inscrita
+     * enfrenta todas as outras uma vez por turno. Os confrontos e as partidas
+     * são montados em paralelo; as inserções seguem em lotes JDBC, em uma
+     * única transação, para que o calendário seja gravado inteiro ou não seja
+     * gravado.
+     *
+     * O calendário só é gerado para temporadas ainda sem partidas. Duas
+     * chamadas simultâneas atualizam as mesmas equipes, então a segunda cai
+     * em conflito de versão, é repetida e encontra as partidas da primeira.
+     *
+     * @param temporadaId ID da temporada.
+     * @param turnos 1 (turno) ou 2 (turno e returno).
+     * @return Resumo do calendário criado, ou null se a temporada não existir
+     * ou não tiver equipes.
+     * @throws CalendarioExistenteException Se a temporada já tiver partidas.
+     */
+    public CalendarioDTO criarCalendario(int temporadaId, int turnos) {
+        return concorrencia.executar(status -> {
+            List<Integer> ids = em.createQuery(
+                    "SELECT e.idEquipe FROM Temporadas t JOIN t.equipes e WHERE t.id = :id ORDER BY e.idEquipe", Integer.class)
+                    .setParameter("id", temporadaId)
+                    .getResultList();
+            if (ids.isEmpty()) {
+                return null;
+            }
+            if (temPartidas(temporadaId)) {
+                throw new CalendarioExistenteException(temporadaId);
+            }
+            Map<Integer, Equipe> equipes = buscarEquipes(ids);
+            List<PartidaDeVolei> partidas = CalendarioRodizio.confrontos(ids, turnos).parallelStream()
+                    .map(confronto -> new PartidaDeVolei(equipes.get(confronto.id1()), equipes.get(confronto.id2())))
+                    .toList();
+            persistir(partidas);
+            return new CalendarioDTO(temporadaId, ids.size(), turnos, CalendarioRodizio.rodadas(ids.size(), turnos),
+                    partidas.size());
+        });
+    }
+
+    /**
+     * Verifica se alguma partida da temporada já foi criada. Como em
+     * {@link PlacaresTemporada}, basta procurar o mandante entre as equipes
+     * inscritas.
+     */
+    private boolean temPartidas(int temporadaId) {
+        return !em.createQuery("SELECT p.id FROM Temporadas t JOIN t.equipes e, PartidaDeVolei p "
+                + "WHERE t.id = :id AND p.idMandante = e.idEquipe", Integer.class)
+                .setParameter("id", temporadaId)
+                .setMaxResults(1)
+                .getResultList()
+                .isEmpty();
+    }
+
+    /**
+     * Insere as partidas em lotes de {@code liga.partidas.lote}, atualiza a
+     * contagem de partidas das equipes e publica os eventos das equipes e,
+     * por último, o das alterações de resultado.
+     */
+    private void persistir(List<PartidaDeVolei> partidas) {
+        Map<Integer, Integer> partidasPorEquipe = new HashMap<>();
+        List<AlteracaoResultado> alteracoes = new ArrayList<>(partidas.size());
+        int pendentes = 0;
+
+        for (PartidaDeVolei partida : partidas) {
+            em.persist(partida);
+            int mandante = partida.equipe(0).getIdEquipe();
+            int visitante = partida.equipe(1).getIdEquipe();
+            alteracoes.add(new PartidaCriada(partida.getId(), mandante, visitante));
+            partidasPorEquipe.merge(mandante, 1, Integer::sum);
+            partidasPorEquipe.merge(visitante, 1, Integer::sum);
+
+            if (++pendentes == tamanhoLote) {
+                em.flush();
+                em.clear();
+                pendentes = 0;
+            }
+        }
+        em.flush();
+        em.clear();
+
+        for (Equipe equipe : buscarEquipes(partidasPorEquipe.keySet()).values()) {
+            equipe.registrarPartidas(partidasPorEquipe.get(equipe.getIdEquipe()));
+            eventos.publishEvent(new EquipeAtualizadaEvent(equipe));
+        }
+        eventos.publishEvent(new ResultadosAlteradosEvent(alteracoes));
+    }
+
+    private String validar(ConfrontoDTO confronto, Map<Integer, Equipe> equipes) {
+        if (confronto.id1() == null || confronto.id2() == null) {
+            return "IDs das equipes não informados";
+        }
+        if (!equipes.containsKey(confronto.id1())) {
+            return "Equipe com ID " + confronto.id1() + " não encontrada";
+        }
+        if (!equipes.containsKey(confronto.id2())) {
+            return "Equipe com ID " + confronto.id2() + " não encontrada";
+        }
+        return null;
+    }
+
+    /**
+     * Carrega as equipes informadas com consultas {@code IN}, em blocos para
+     * não estourar o limite de parâmetros do banco.
+     */
+    private Map<Integer, Equipe> buscarEquipes(Collection<Integer> ids) {
+        Map<Integer, Equipe> equipes = new HashMap<>();
+        List<Integer> pendentes = new ArrayList<>(ids);
+        for (int inicio = 0; inicio < pendentes.size(); inicio += MAX_PARAMETROS_IN) {
+            List<Integer> bloco = pendentes.subList(inicio, Math.min(inicio + MAX_PARAMETROS_IN, pendentes.size()));
+            for (Equipe equipe : em.createQuery("SELECT e FROM Equipe e WHERE e.idEquipe IN :ids", Equipe.class)
+                    .setParameter("ids", bloco)
+                    .getResultList()) {
+                equipes.put(equipe.getIdEquipe(), equipe);
+            }
+        }
+        return equipes;
+    }
+}
@@ -0,0 +1,12 @@
+package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Services;
+
+/**
+ * Lançada quando se pede o calendário de uma temporada que já tem partidas.
+ * Respondida com 409.
+ */
+public class CalendarioExistenteException extends RuntimeException {
+
+    public CalendarioExistenteException(int temporadaId) {
+        super("A temporada " + temporadaId + " já tem partidas; o calendário não foi gerado.");
+    }
+}
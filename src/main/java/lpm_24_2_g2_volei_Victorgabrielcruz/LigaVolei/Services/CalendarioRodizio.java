@@ -0,0 +1,68 @@
+package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Services;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.DTO.ConfrontoDTO;
+
+/**
+ * Confrontos de um rodízio (todos contra todos) pelo método do círculo: a
+ * primeira equipe fica fixa e as demais giram uma posição a cada rodada. Com
+ * quantidade ímpar de equipes, uma posição vazia completa o círculo e quem a
+ * enfrenta folga na rodada. No returno as rodadas se repetem com os mandos
+ * invertidos.
+ *
+ * Cada rodada depende só do seu número, por isso as rodadas são geradas em
+ * paralelo.
+ */
+final class CalendarioRodizio {
+
+    private CalendarioRodizio() {
+    }
+
+    /**
+     * @param equipes Quantidade de equipes.
+     * @param turnos 1 (turno) ou 2 (turno e returno).
+     * @return Quantidade de rodadas do calendário.
+     */
+    static int rodadas(int equipes, int turnos) {
+        return equipes < 2 ? 0 : (equipes % 2 == 0 ? equipes - 1 : equipes) * turnos;
+    }
+
+    /**
+     * Gera os confrontos do calendário, rodada a rodada.
+     *
+     * @param equipes IDs das equipes, na ordem das posições no círculo.
+     * @param turnos 1 (turno) ou 2 (turno e returno).
+     * @return Confrontos (mandante, visitante) na ordem das rodadas.
+     */
+    static List<ConfrontoDTO> confrontos(List<Integer> equipes, int turnos) {
+        int participantes = equipes.size() % 2 == 0 ? equipes.size() : equipes.size() + 1;
+        int giro = participantes - 1;
+        return IntStream.range(0, rodadas(equipes.size(), turnos))
+                .parallel()
+                .mapToObj(rodada -> rodada(equipes, participantes, giro, rodada))
+                .flatMap(List::stream)
+                .toList();
+    }
+
+    private static List<ConfrontoDTO> rodada(List<Integer> equipes, int participantes, int giro, int rodada) {
+        int posicao = rodada % giro;
+        boolean returno = rodada >= giro;
+        List<ConfrontoDTO> confrontos = new ArrayList<>(participantes / 2);
+        for (int i = 0; i < participantes / 2; i++) {
+            int mandante = (posicao + i) % giro;
+            int visitante = i == 0 ? giro : (posicao + giro - i) % giro;
+            if (mandante < equipes.size() && visitante < equipes.size()) {
+                // Alterna o mando da equipe fixa para que ela não jogue sempre
+                // do mesmo lado.
+                boolean invertido = (i == 0 && posicao % 2 == 1) != returno;
+                confrontos.add(invertido
+                        ? new ConfrontoDTO(equipes.get(visitante), equipes.get(mandante))
+                        : new ConfrontoDTO(equipes.get(mandante), equipes.get(visitante)));
+            }
+        }
+        return confrontos;
+    }
+}
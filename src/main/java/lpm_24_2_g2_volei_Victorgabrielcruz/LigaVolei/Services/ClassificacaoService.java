@@ -0,0 +1,584 @@
+package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Services;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.DTO.LinhaClassificacao;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.DTO.LinhaRankingDTO;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Events.AlteracaoResultado.EquipeInscrita;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Events.AlteracaoResultado.EquipeRecalculada;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Events.AlteracaoResultado.PartidaCriada;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Events.AlteracaoResultado.SetRegistrado;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Events.EquipeAtualizadaEvent;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Events.EquipeCadastradaEvent;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Models.ColunasClassificacao;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Models.CriterioClassificacao;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Models.Equipe;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Models.RankingTemporada;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Models.TabelaClassificacao;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Models.Temporada;
+
+/**
+ * Mantém em memória a classificação de cada temporada já consultada. A
+ * classificação é montada uma única vez a partir dos contadores das equipes e
+ * depois atualizada incrementalmente a cada resultado registrado, após o
+ * commit da transação que o gravou.
+ *
+ * Na inicialização, as classificações são restauradas do último snapshot
+ * ({@code liga.classificacao.snapshot.arquivo}) e alcançam o banco relendo do
+ * diário de resultados só o que foi registrado depois dele: apenas as equipes
+ * afetadas são recarregadas. Sem snapshot, todas as temporadas são carregadas
+ * do banco. O snapshot é regravado periodicamente
+ * ({@code liga.classificacao.snapshot.intervalo}) e no encerramento, a
+ * menos que {@code liga.classificacao.snapshot.apagar-ao-encerrar} peça para
+ * apagá-lo (caso dos testes). A inicialização espera a migração dos
+ * placares antigos ({@link MigracaoPlacaresService}), que altera contadores
+ * sem passar pelo diário e, por isso, descarta o snapshot.
+ *
+ * O snapshot guarda a sequência do diário lida antes de copiar as
+ * classificações, descontados os registros de transações ainda não
+ * terminadas ({@link DiarioResultadosService#sequenciaAplicada()}): o diário
+ * é gravado antes do commit, e as classificações só são atualizadas depois
+ * dele. Em toda escrita, os eventos das equipes são publicados antes do evento
+ * de resultados, então, quando a transação de um registro é dada por
+ * terminada, a classificação já reflete a alteração.
+ *
+ * Todas as classificações servidas (em memória, agregada e ranking) seguem
+ * os mesmos critérios, {@code liga.classificacao.criterios}. Como a
+ * classificação em memória é atualizada só com os contadores das equipes, os
+ * critérios configurados não podem depender dos resultados das partidas
+ * (pontos de partida, confronto direto); estes ficam disponíveis no ranking
+ * sob demanda, com critérios informados na requisição.
+ *
+ * Enquanto uma temporada é carregada sob demanda, os eventos das equipes ficam
+ * guardados e são reaplicados logo após a carga: a consulta pode ter lido o
+ * banco antes de um commit cujo evento chegou antes de a classificação estar
+ * em memória.
+ */
+@Service
+@DependsOn("migracaoPlacaresService")
+public class ClassificacaoService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ClassificacaoService.class);
+    private static final int MAX_PARAMETROS_IN = 1000;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    private final Map<Integer, TabelaClassificacao> temporadas = new ConcurrentHashMap<>();
+    private final Map<Integer, Integer> temporadaDaEquipe = new ConcurrentHashMap<>();
+
+    /**
+     * Serializa as cargas iniciais. Um lock explícito em vez de
+     * {@code synchronized}, pois a carga faz E/S e um bloco sincronizado
+     * prenderia a thread portadora das threads virtuais.
+     */
+    private final ReentrantLock carga = new ReentrantLock();
+
+    /**
+     * Protege a troca entre aplicar os eventos das equipes diretamente e
+     * guardá-los em {@link #eventosEmCarga} enquanto uma temporada é
+     * carregada.
+     */
+    private final ReentrantLock aplicacao = new ReentrantLock();
+    private List<LinhaPendente> eventosEmCarga;
+
+    private final TransactionTemplate leitura;
+    private final DiarioResultadosService diario;
+    private final Path arquivoSnapshot;
+    private final boolean apagarAoEncerrar;
+    private final MeterRegistry registro;
+    private final RankingTemporada ranking;
+
+    /**
+     * Serializa as gravações do snapshot, que podem partir do agendador ou do
+     * encerramento da aplicação.
+     */
+    private final ReentrantLock gravacao = new ReentrantLock();
+    private long sequenciaGravada = -1;
+    private int temporadasGravadas;
+
+    public ClassificacaoService(PlatformTransactionManager gerenciadorTransacoes, DiarioResultadosService diario,
+            @Value("${liga.classificacao.snapshot.arquivo:dados/classificacao.snapshot}") Path arquivoSnapshot,
+            @Value("${liga.classificacao.snapshot.apagar-ao-encerrar:false}") boolean apagarAoEncerrar,
+            MeterRegistry registro,
+            @Value("${liga.classificacao.criterios:APROVEITAMENTO,APROVEITAMENTO_SETS}")
+            List<CriterioClassificacao> criterios) {
+        leitura = new TransactionTemplate(gerenciadorTransacoes);
+        leitura.setReadOnly(true);
+        this.diario = diario;
+        this.arquivoSnapshot = arquivoSnapshot;
+        this.apagarAoEncerrar = apagarAoEncerrar;
+        this.registro = registro;
+        this.ranking = new RankingTemporada(criterios);
+        if (ranking.usaResultados()) {
+            throw new IllegalArgumentException("liga.classificacao.criterios não pode usar critérios que dependem "
+                    + "dos resultados das partidas: " + criterios);
+        }
+    }
+
+    /**
+     * @return Ranking configurado em {@code liga.classificacao.criterios},
+     * que ordena todas as classificações.
+     */
+    public RankingTemporada ranking() {
+        return ranking;
+    }
+
+    /**
+     * Monta as classificações de todas as temporadas: a partir do snapshot e
+     * do diário, se houver snapshot válido, ou do banco. O tempo gasto é
+     * registrado em {@code liga.classificacao.inicializacao}, por origem.
+     */
+    @PostConstruct
+    void inicializar() {
+        long inicio = System.nanoTime();
+        String origem = "snapshot";
+        int reaplicados = restaurarSnapshot();
+        if (reaplicados < 0) {
+            origem = "banco";
+            carregarTodas();
+        }
+        long duracao = System.nanoTime() - inicio;
+        Timer.builder("liga.classificacao.inicializacao")
+                .description("Tempo para montar as classificações na inicialização")
+                .tag("origem", origem)
+                .register(registro)
+                .record(duracao, TimeUnit.NANOSECONDS);
+        LOG.info("Classificação de {} temporadas montada a partir do {} em {} ms{}", temporadas.size(), origem,
+                TimeUnit.NANOSECONDS.toMillis(duracao),
+                reaplicados >= 0 ? " (" + reaplicados + " registros do diário reaplicados)" : "");
+    }
+
+    /**
+     * Restaura as classificações do snapshot e aplica as alterações
+     * registradas no diário depois dele.
+     *
+     * @return Quantidade de registros do diário reaplicados, ou -1 se não
+     * houver snapshot utilizável.
+     */
+    private int restaurarSnapshot() {
+        SnapshotClassificacao.Conteudo snapshot;
+        try {
+            snapshot = SnapshotClassificacao.ler(arquivoSnapshot, ranking);
+        } catch (IOException e) {
+            LOG.warn("Snapshot de classificação ignorado: {}", e.getMessage());
+            return -1;
+        }
+        if (snapshot == null) {
+            return -1;
+        }
+        if (snapshot.sequencia() > diario.sequencia()) {
+            LOG.warn("Snapshot de classificação ignorado: cobre a sequência {} e o diário termina em {}",
+                    snapshot.sequencia(), diario.sequencia());
+            return -1;
+        }
+        for (Map.Entry<Integer, TabelaClassificacao> temporada : snapshot.temporadas().entrySet()) {
+            for (LinhaClassificacao linha : temporada.getValue().linhas()) {
+                temporadaDaEquipe.put(linha.idEquipe(), temporada.getKey());
+            }
+            temporadas.put(temporada.getKey(), temporada.getValue());
+        }
+        return alcancarDiario(snapshot.sequencia());
+    }
+
+    /**
+     * Relê o diário após a sequência do snapshot para descobrir as equipes
+     * afetadas (por partidas criadas, sets registrados, inscrições ou
+     * recálculos) e recarrega só essas equipes do banco. Temporadas criadas
+     * depois do snapshot são carregadas na primeira consulta, como de
+     * costume.
+     */
+    private int alcancarDiario(long sequencia) {
+        Set<Integer> equipes = new HashSet<>();
+        Set<Integer> partidasCriadas = new HashSet<>();
+        Set<Integer> partidasAnteriores = new HashSet<>();
+        Map<Integer, Integer> inscricoes = new HashMap<>();
+        int[] reaplicados = new int[1];
+
+        diario.ler(sequencia, entrada -> {
+            reaplicados[0]++;
+            switch (entrada.alteracao()) {
+                case PartidaCriada p -> {
+                    partidasCriadas.add(p.partida());
+                    equipes.add(p.mandante());
+                    equipes.add(p.visitante());
+                }
+                case SetRegistrado s -> {
+                    if (!partidasCriadas.contains(s.partida())) {
+                        partidasAnteriores.add(s.partida());
+                    }
+                }
+                case EquipeInscrita e -> {
+                    if (temporadas.containsKey(e.temporada())) {
+                        inscricoes.put(e.equipe(), e.temporada());
+                        equipes.add(e.equipe());
+                    }
+                }
+                case EquipeRecalculada r -> equipes.add(r.equipe());
+            }
+        });
+        if (reaplicados[0] == 0) {
+            return 0;
+        }
+
+        List<LinhaClassificacao> linhas = leitura.execute(status -> {
+            for (List<Integer> bloco : blocos(partidasAnteriores)) {
+                for (Object[] lados : em.createQuery(
+                        "SELECT p.idMandante, p.idVisitante FROM PartidaDeVolei p WHERE p.id IN :ids", Object[].class)
+                        .setParameter("ids", bloco)
+                        .getResultList()) {
+                    equipes.add((Integer) lados[0]);
+                    equipes.add((Integer) lados[1]);
+                }
+            }
+            equipes.removeIf(equipe -> !temporadaDaEquipe.containsKey(equipe) && !inscricoes.containsKey(equipe));
+            List<LinhaClassificacao> recarregadas = new ArrayList<>(equipes.size());
+            for (List<Integer> bloco : blocos(equipes)) {
+                for (Equipe equipe : em.createQuery("SELECT e FROM Equipe e WHERE e.idEquipe IN :ids", Equipe.class)
+                        .setParameter("ids", bloco)
+                        .getResultList()) {
+                    recarregadas.add(equipe.linhaClassificacao());
+                }
+            }
+            return recarregadas;
+        });
+
+        temporadaDaEquipe.putAll(inscricoes);
+        for (LinhaClassificacao linha : linhas) {
+            temporadas.get(temporadaDaEquipe.get(linha.idEquipe())).atualizar(linha);
+        }
+        return reaplicados[0];
+    }
+
+    private static List<List<Integer>> blocos(Set<Integer> ids) {
+        List<Integer> lista = new ArrayList<>(ids);
+        List<List<Integer>> blocos = new ArrayList<>();
+        for (int inicio = 0; inicio < lista.size(); inicio += MAX_PARAMETROS_IN) {
+            blocos.add(lista.subList(inicio, Math.min(inicio + MAX_PARAMETROS_IN, lista.size())));
+        }
+        return blocos;
+    }
+
+    /**
+     * Carrega do banco as classificações de todas as temporadas, em uma única
+     * consulta.
+     */
+    private void carregarTodas() {
+        leitura.executeWithoutResult(status -> {
+            for (Temporada temporada : em.createQuery(
+                    "SELECT DISTINCT t FROM Temporadas t LEFT JOIN FETCH t.equipes", Temporada.class).getResultList()) {
+                TabelaClassificacao classificacao = temporada.classificacao(ranking);
+                for (LinhaClassificacao linha : classificacao.linhas()) {
+                    temporadaDaEquipe.put(linha.idEquipe(), temporada.getId());
+                }
+                temporadas.put(temporada.getId(), classificacao);
+            }
+        });
+    }
+
+    /**
+     * Grava o snapshot das classificações em memória, se algo mudou desde o
+     * último.
+     */
+    @Scheduled(fixedDelayString = "${liga.classificacao.snapshot.intervalo:PT5M}",
+            initialDelayString = "${liga.classificacao.snapshot.intervalo:PT5M}")
+    public void gravarSnapshot() {
+        gravacao.lock();
+        try {
+            long sequencia = diario.sequenciaAplicada();
+            Map<Integer, TabelaClassificacao> copia = new HashMap<>(temporadas);
+            if (sequencia == sequenciaGravada && copia.size() == temporadasGravadas) {
+                return;
+            }
+            SnapshotClassificacao.gravar(arquivoSnapshot, sequencia, copia);
+            sequenciaGravada = sequencia;
+            temporadasGravadas = copia.size();
+        } catch (IOException e) {
+            LOG.warn("Falha ao gravar o snapshot de classificação em {}", arquivoSnapshot, e);
+        } finally {
+            gravacao.unlock();
+        }
+    }
+
+    @PreDestroy
+    void encerrar() {
+        if (!apagarAoEncerrar) {
+            gravarSnapshot();
+            return;
+        }
+        try {
+            Files.deleteIfExists(arquivoSnapshot);
+        } catch (IOException e) {
+            LOG.warn("Falha ao apagar o snapshot de classificação em {}", arquivoSnapshot, e);
+        }
+    }
+
+    /**
+     * Retorna a classificação de uma temporada, carregando-a do banco na
+     * primeira consulta.
+     *
+     * @param idTemporada O ID da temporada.
+     * @return A classificação ou null se a temporada não existir.
+     */
+    public TabelaClassificacao classificacao(int idTemporada) {
+        TabelaClassificacao classificacao = temporadas.get(idTemporada);
+        if (classificacao == null) {
+            classificacao = carregar(idTemporada);
+        }
+        return classificacao;
+    }
+
+    private TabelaClassificacao carregar(int idTemporada) {
+        carga.lock();
+        try {
+            TabelaClassificacao classificacao = temporadas.get(idTemporada);
+            if (classificacao != null) {
+                return classificacao;
+            }
+            aplicacao.lock();
+            try {
+                eventosEmCarga = new ArrayList<>();
+            } finally {
+                aplicacao.unlock();
+            }
+            try {
+                classificacao = leitura.execute(status -> {
+                    List<Temporada> encontradas = em.createQuery(
+                            "SELECT t FROM Temporadas t LEFT JOIN FETCH t.equipes WHERE t.id = :id", Temporada.class)
+                            .setParameter("id", idTemporada)
+                            .getResultList();
+                    return encontradas.isEmpty() ? null : encontradas.get(0).classificacao(ranking);
+                });
+            } finally {
+                aplicacao.lock();
+                try {
+                    if (classificacao != null) {
+                        publicar(idTemporada, classificacao, eventosEmCarga);
+                    }
+                    eventosEmCarga = null;
+                } finally {
+                    aplicacao.unlock();
+                }
+            }
+            return classificacao;
+        } finally {
+            carga.unlock();
+        }
+    }
+
+    /**
+     * Coloca em memória a classificação carregada e reaplica, na ordem em que
+     * chegaram, os eventos das suas equipes recebidos durante a carga.
+     */
+    private void publicar(int idTemporada, TabelaClassificacao classificacao, List<LinhaPendente> pendentes) {
+        for (LinhaClassificacao linha : classificacao.linhas()) {
+            temporadaDaEquipe.put(linha.idEquipe(), idTemporada);
+        }
+        temporadas.put(idTemporada, classificacao);
+        for (LinhaPendente pendente : pendentes) {
+            if (pendente.idTemporada() != null && pendente.idTemporada() == idTemporada) {
+                temporadaDaEquipe.put(pendente.linha().idEquipe(), idTemporada);
+            }
+            Integer temporada = temporadaDaEquipe.get(pendente.linha().idEquipe());
+            if (temporada != null && temporada == idTemporada) {
+                classificacao.atualizar(pendente.linha());
+            }
+        }
+    }
+
+    /**
+     * Calcula a classificação de uma temporada inteiramente no banco, em uma
+     * única consulta agregada sobre as partidas de suas equipes, sem
+     * instanciar nenhuma partida. Os pontos feitos e sofridos, que o placar
+     * compacto não permite somar no banco, vêm dos contadores das equipes. As
+     * linhas são devolvidas já ordenadas.
+     *
+     * @param idTemporada O ID da temporada.
+     * @return Linhas da classificação, ordenadas pelos critérios configurados.
+     */
+    public List<LinhaClassificacao> classificacaoAgregada(int idTemporada) {
+        return leitura.execute(status -> {
+            List<Object[]> agregados = em.createQuery(
+                    "SELECT e.idEquipe, e.nome, COUNT(p), "
+                    + "COALESCE(SUM(CASE WHEN (p.idMandante = e.idEquipe AND p.pontuacoes.vencedor = 0) "
+                    + "OR (p.idVisitante = e.idEquipe AND p.pontuacoes.vencedor = 1) THEN 1 ELSE 0 END), 0), "
+                    + "COALESCE(SUM(CASE WHEN p.pontuacoes.vencedor >= 0 THEN 1 ELSE 0 END), 0), "
+                    + "COALESCE(SUM(CASE WHEN p.idMandante = e.idEquipe THEN p.pontuacoes.setsEquipe1 "
+                    + "ELSE p.pontuacoes.setsEquipe2 END), 0), "
+                    + "COALESCE(SUM(p.pontuacoes.setsDisputados), 0), e.pontosPro, e.pontosContra "
+                    + "FROM Temporadas t JOIN t.equipes e "
+                    + "LEFT JOIN PartidaDeVolei p ON p.idMandante = e.idEquipe OR p.idVisitante = e.idEquipe "
+                    + "WHERE t.id = :id GROUP BY e.idEquipe, e.nome, e.pontosPro, e.pontosContra", Object[].class)
+                    .setParameter("id", idTemporada)
+                    .getResultList();
+
+            List<LinhaClassificacao> linhas = new ArrayList<>(agregados.size());
+            for (Object[] agregado : agregados) {
+                int partidas = ((Number) agregado[2]).intValue();
+                int vitorias = ((Number) agregado[3]).intValue();
+                int decididas = ((Number) agregado[4]).intValue();
+                int setsVencidos = ((Number) agregado[5]).intValue();
+                int setsDisputados = ((Number) agregado[6]).intValue();
+                linhas.add(new LinhaClassificacao((Integer) agregado[0], (String) agregado[1], partidas,
+                        vitorias, decididas - vitorias, setsVencidos, setsDisputados,
+                        (Integer) agregado[7], (Integer) agregado[8]));
+            }
+            linhas.sort(ranking.comparador());
+            return linhas;
+        });
+    }
+
+    /**
+     * Ordena as equipes de uma temporada pelos critérios de desempate
+     * configurados em {@code liga.classificacao.criterios}.
+     *
+     * @param idTemporada O ID da temporada.
+     * @return Linhas do ranking, do 1º ao último colocado, ou null se a
+     * temporada não existir ou não tiver equipes.
+     */
+    public List<LinhaRankingDTO> ranking(int idTemporada) {
+        return ranking(idTemporada, ranking);
+    }
+
+    /**
+     * Ordena as equipes de uma temporada por uma lista de critérios de
+     * desempate. Os contadores das equipes são lidos em uma consulta e, se
+     * algum critério depender deles, os resultados das partidas decididas em
+     * outra; a ordenação é feita sobre colunas primitivas (ver
+     * {@link RankingTemporada}).
+     *
+     * @param idTemporada O ID da temporada.
+     * @param ranking Critérios de ordenação.
+     * @return Linhas do ranking, do 1º ao último colocado, ou null se a
+     * temporada não existir ou não tiver equipes.
+     */
+    public List<LinhaRankingDTO> ranking(int idTemporada, RankingTemporada ranking) {
+        ColunasClassificacao colunas = leitura.execute(status -> colunasRanking(idTemporada, ranking));
+        if (colunas == null) {
+            return null;
+        }
+        int[] ordem = ranking.ordenar(colunas);
+        List<LinhaRankingDTO> linhas = new ArrayList<>(ordem.length);
+        for (int i : ordem) {
+            linhas.add(new LinhaRankingDTO(linhas.size() + 1, colunas.id(i), colunas.nome(i), colunas.partidas(i),
+                    colunas.vitorias(i), colunas.derrotas(i), colunas.pontosPartida(i), colunas.setsVencidos(i),
+                    colunas.setsPerdidos(i), colunas.pontosPro(i), colunas.pontosContra(i)));
+        }
+        return linhas;
+    }
+
+    private ColunasClassificacao colunasRanking(int idTemporada, RankingTemporada ranking) {
+        List<Object[]> equipes = em.createQuery("SELECT e.idEquipe, e.nome, e.quantPartidas, e.vitorias, e.derrotas, "
+                + "e.setsVencidos, e.setsDisputados, e.pontosPro, e.pontosContra "
+                + "FROM Temporadas t JOIN t.equipes e WHERE t.id = :id", Object[].class)
+                .setParameter("id", idTemporada)
+                .getResultList();
+        if (equipes.isEmpty()) {
+            return null;
+        }
+        ColunasClassificacao colunas = new ColunasClassificacao(equipes.size());
+        Map<Integer, Integer> indices = new HashMap<>(equipes.size() * 2);
+        for (Object[] equipe : equipes) {
+            indices.put((Integer) equipe[0], colunas.adicionarEquipe((Integer) equipe[0], (String) equipe[1],
+                    (Integer) equipe[2], (Integer) equipe[3], (Integer) equipe[4], (Integer) equipe[5],
+                    (Integer) equipe[6], (Integer) equipe[7], (Integer) equipe[8]));
+        }
+        if (!ranking.usaResultados()) {
+            return colunas;
+        }
+        for (Object[] resultado : PlacaresTemporada.ler(em, idTemporada, true)) {
+            Integer mandante = indices.get((Integer) resultado[0]);
+            Integer visitante = indices.get((Integer) resultado[1]);
+            if (mandante != null && visitante != null) {
+                colunas.adicionarResultado(mandante, visitante,
+                        ((Number) resultado[2]).intValue(), ((Number) resultado[3]).intValue());
+            }
+        }
+        return colunas;
+    }
+
+    /**
+     * Reposiciona uma equipe na classificação da sua temporada, caso ela já
+     * esteja em memória.
+     *
+     * @param evento Evento com a equipe e seus contadores atualizados.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void equipeAtualizada(EquipeAtualizadaEvent evento) {
+        LinhaClassificacao linha = evento.equipe().linhaClassificacao();
+        aplicacao.lock();
+        try {
+            if (eventosEmCarga != null) {
+                eventosEmCarga.add(new LinhaPendente(null, linha));
+            }
+            Integer idTemporada = temporadaDaEquipe.get(linha.idEquipe());
+            if (idTemporada != null) {
+                TabelaClassificacao classificacao = temporadas.get(idTemporada);
+                if (classificacao != null) {
+                    classificacao.atualizar(linha);
+                }
+            }
+        } finally {
+            aplicacao.unlock();
+        }
+    }
+
+    /**
+     * Inclui uma equipe recém-cadastrada na classificação da temporada, caso
+     * ela já esteja em memória.
+     *
+     * @param evento Evento com o ID da temporada e a equipe cadastrada.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void equipeCadastrada(EquipeCadastradaEvent evento) {
+        int idTemporada = evento.idTemporada();
+        LinhaClassificacao linha = evento.equipe().linhaClassificacao();
+        aplicacao.lock();
+        try {
+            if (eventosEmCarga != null) {
+                eventosEmCarga.add(new LinhaPendente(idTemporada, linha));
+            }
+            TabelaClassificacao classificacao = temporadas.get(idTemporada);
+            if (classificacao != null) {
+                temporadaDaEquipe.put(linha.idEquipe(), idTemporada);
+                classificacao.atualizar(linha);
+            }
+        } finally {
+            aplicacao.unlock();
+        }
+    }
+
+    /**
+     * Evento de equipe recebido durante uma carga: a linha da equipe e, para
+     * inscrições, a temporada.
+     */
+    private record LinhaPendente(Integer idTemporada, LinhaClassificacao linha) {
+    }
+}
@@ -0,0 +1,106 @@
+package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Services;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.hibernate.StaleStateException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.OptimisticLockException;
+
+/**
+ * Executa escritas em transação e as repete quando o commit falha por
+ * conflito de versão, isto é, quando outra requisição alterou a mesma
+ * partida, equipe ou temporada no meio do caminho. Cada tentativa abre uma
+ * transação nova e recarrega as entidades, de modo que as validações do
+ * modelo são refeitas sobre o estado mais recente. Entre as tentativas há uma
+ * espera curta e aleatória, para que as escritas concorrentes se desencontrem.
+ * Esgotadas as tentativas ({@code liga.concorrencia.tentativas}), lança
+ * {@link ConflitoConcorrenciaException}.
+ *
+ * Deve ser chamado fora de uma transação; dentro de uma, a repetição não
+ * teria efeito.
+ */
+@Service
+public class ConcorrenciaOtimistaService {
+
+    private final TransactionTemplate transacao;
+    private final int tentativas;
+    private final long esperaMaxima;
+    private final Counter repetidas;
+    private final Counter esgotadas;
+
+    public ConcorrenciaOtimistaService(PlatformTransactionManager gerenciadorTransacoes,
+            @Value("${liga.concorrencia.tentativas:3}") int tentativas,
+            @Value("${liga.concorrencia.espera:PT0.02S}") Duration espera, MeterRegistry registro) {
+        this.transacao = new TransactionTemplate(gerenciadorTransacoes);
+        this.tentativas = Math.max(1, tentativas);
+        this.esperaMaxima = Math.max(1, espera.toMillis());
+        this.repetidas = conflitos(registro, "repetida");
+        this.esgotadas = conflitos(registro, "esgotada");
+    }
+
+    private static Counter conflitos(MeterRegistry registro, String resultado) {
+        return Counter.builder("liga.concorrencia.conflitos")
+                .description("Escritas que falharam por conflito de versão")
+                .tag("resultado", resultado)
+                .register(registro);
+    }
+
+    /**
+     * @param trabalho Escrita a executar; pode ser executada mais de uma vez.
+     * @return Resultado da tentativa que conseguiu o commit.
+     * @throws ConflitoConcorrenciaException Se todas as tentativas
+     * terminaram em conflito.
+     */
+    public <T> T executar(TransactionCallback<T> trabalho) {
+        for (int tentativa = 1;; tentativa++) {
+            try {
+                return transacao.execute(trabalho);
+            } catch (RuntimeException e) {
+                if (!ehConflito(e)) {
+                    throw e;
+                }
+                if (tentativa == tentativas) {
+                    esgotadas.increment();
+                    throw new ConflitoConcorrenciaException(
+                            "Registro alterado por outra requisição; tente novamente.", e);
+                }
+                repetidas.increment();
+                esperar(tentativa);
+            }
+        }
+    }
+
+    private void esperar(int tentativa) {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(esperaMaxima * tentativa) + 1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConflitoConcorrenciaException("Interrompido ao aguardar nova tentativa.", e);
+        }
+    }
+
+    /**
+     * O conflito chega traduzido pelo Spring quando acontece no commit, ou
+     * como exceção do JPA/Hibernate quando acontece em um flush dentro da
+     * transação.
+     */
+    static boolean ehConflito(Throwable erro) {
+        for (Throwable causa = erro; causa != null; causa = causa.getCause()) {
+            if (causa instanceof OptimisticLockingFailureException
+                    || causa instanceof OptimisticLockException
+                    || causa instanceof StaleStateException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,12 @@
+package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Services;
+
+/**
+ * Lançada quando uma escrita continua em conflito de versão com escritas
+ * concorrentes mesmo depois de todas as tentativas. Respondida com 409.
+ */
+public class ConflitoConcorrenciaException extends RuntimeException {
+
+    public ConflitoConcorrenciaException(String mensagem, Throwable causa) {
+        super(mensagem, causa);
+    }
+}
@@ -0,0 +1,406 @@
+package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Services;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Events.AlteracaoResultado;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Events.AlteracaoResultado.EquipeInscrita;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Events.AlteracaoResultado.EquipeRecalculada;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Events.AlteracaoResultado.PartidaCriada;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Events.AlteracaoResultado.SetRegistrado;
+
+/**
+ * Diário de resultados: arquivo binário somente de acréscimo, mapeado em
+ * memória em blocos de tamanho fixo. Acrescentar registros é só uma cópia
+ * para a memória mapeada; a durabilidade vem de
+ * {@link #sincronizar(long)}, que agrupa em um único {@code force} todos os
+ * registros acrescentados até ali (group commit): quem chega enquanto outra
+ * thread sincroniza espera e, na maioria das vezes, já encontra o seu
+ * registro gravado.
+ *
+ * <pre>
+ *  Cabeçalho (início do primeiro bloco, 16 bytes):
+ *    int assinatura, int versão, int tamanho do bloco, int reservado
+ *  Registro:
+ *    int   tamanho do corpo (0 = fim do diário, -1 = fim do bloco)
+ *    long  sequência (1, 2, 3...)
+ *    long  instante (epoch em ms)
+ *    byte  tipo
+ *    int[] campos do tipo
+ *    int   CRC32C do corpo
+ * </pre>
+ *
+ * Um registro nunca atravessa dois blocos. Na abertura, o diário é percorrido
+ * até o primeiro registro incompleto, com CRC inválido ou fora de sequência
+ * (escrita interrompida), que é apagado junto com o que vier depois.
+ */
+public final class DiarioResultados implements AutoCloseable {
+
+    private static final int ASSINATURA = 0x4C564431;
+    private static final int VERSAO = 1;
+    private static final int CABECALHO = 16;
+    private static final int TAMANHO_MINIMO_BLOCO = 4096;
+    private static final int FIM_DO_BLOCO = -1;
+    /** Sequência, instante e tipo. */
+    private static final int CORPO_FIXO = 17;
+
+    private static final byte PARTIDA_CRIADA = 1;
+    private static final byte SET_REGISTRADO = 2;
+    private static final byte EQUIPE_INSCRITA = 3;
+    private static final byte EQUIPE_RECALCULADA = 4;
+
+    /**
+     * Registro lido do diário.
+     */
+    public record EntradaDiario(long sequencia, long instante, AlteracaoResultado alteracao) {
+    }
+
+    private final FileChannel canal;
+    private final int tamanhoBloco;
+    private final List<MappedByteBuffer> blocos = new CopyOnWriteArrayList<>();
+    private final CRC32C crc = new CRC32C();
+
+    private final ReentrantLock escrevendo = new ReentrantLock();
+    private final ReentrantLock sincronizando = new ReentrantLock();
+
+    private volatile long sequencia;
+    private volatile long escrito;
+    private volatile long duravel;
+    private volatile long sincronizacoes;
+
+    private DiarioResultados(FileChannel canal, int tamanhoBloco) throws IOException {
+        this.canal = canal;
+        ByteBuffer cabecalho = lerCabecalho(canal);
+        if (cabecalho.getInt(0) == 0) {
+            this.tamanhoBloco = tamanhoBloco;
+            mapear(0).putInt(0, ASSINATURA).putInt(4, VERSAO).putInt(8, tamanhoBloco);
+        } else {
+            this.tamanhoBloco = validarCabecalho(cabecalho);
+        }
+
+        long existentes = (canal.size() + this.tamanhoBloco - 1) / this.tamanhoBloco;
+        for (int i = blocos.size(); i < existentes; i++) {
+            mapear(i);
+        }
+        Fim fim = percorrer(blocos, this.tamanhoBloco, Long.MAX_VALUE, null);
+        sequencia = fim.sequencia();
+        escrito = fim.posicao();
+        apagarDepoisDe(escrito);
+        for (MappedByteBuffer bloco : blocos) {
+            bloco.force();
+        }
+        duravel = escrito;
+    }
+
+    /**
+     * Abre o diário, criando o arquivo (e a pasta) se não existir.
+     *
+     * @param arquivo Caminho do diário.
+     * @param tamanhoBloco Tamanho de cada bloco mapeado, usado só na criação;
+     * um diário existente mantém o tamanho gravado no cabeçalho.
+     * @return Diário posicionado após o último registro válido.
+     * @throws IOException Se o arquivo não puder ser aberto ou não for um
+     * diário de resultados.
+     */
+    public static DiarioResultados abrir(Path arquivo, int tamanhoBloco) throws IOException {
+        if (tamanhoBloco < TAMANHO_MINIMO_BLOCO) {
+            throw new IllegalArgumentException("Tamanho de bloco mínimo é " + TAMANHO_MINIMO_BLOCO + " bytes");
+        }
+        Path pasta = arquivo.toAbsolutePath().getParent();
+        if (pasta != null) {
+            Files.createDirectories(pasta);
+        }
+        FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            return new DiarioResultados(canal, tamanhoBloco);
+        } catch (IOException | RuntimeException e) {
+            canal.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Lê um diário do disco, sem abri-lo para escrita, parando no primeiro
+     * registro inválido.
+     *
+     * @param arquivo Caminho do diário.
+     * @param leitor Recebe cada registro, em ordem.
+     * @return Sequência do último registro lido (0 se vazio).
+     * @throws IOException Se o arquivo não puder ser lido ou não for um
+     * diário de resultados.
+     */
+    public static long ler(Path arquivo, Consumer<EntradaDiario> leitor) throws IOException {
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            ByteBuffer cabecalho = lerCabecalho(canal);
+            if (cabecalho.getInt(0) == 0) {
+                return 0;
+            }
+            int tamanhoBloco = validarCabecalho(cabecalho);
+            List<ByteBuffer> blocos = new ArrayList<>();
+            for (long inicio = 0; inicio + tamanhoBloco <= canal.size(); inicio += tamanhoBloco) {
+                blocos.add(canal.map(FileChannel.MapMode.READ_ONLY, inicio, tamanhoBloco));
+            }
+            return percorrer(blocos, tamanhoBloco, Long.MAX_VALUE, leitor).sequencia();
+        }
+    }
+
+    /**
+     * Lê os registros já acrescentados a este diário, inclusive os ainda não
+     * sincronizados.
+     *
+     * @param leitor Recebe cada registro, em ordem.
+     * @return Sequência do último registro lido (0 se vazio).
+     */
+    public long ler(Consumer<EntradaDiario> leitor) {
+        return percorrer(blocos, tamanhoBloco, escrito, leitor).sequencia();
+    }
+
+    /**
+     * Acrescenta as alterações ao fim do diário, sem esperar pelo disco.
+     *
+     * @param alteracoes Alterações a registrar, em ordem.
+     * @return Posição do fim do último registro, a informar em
+     * {@link #sincronizar(long)}.
+     * @throws IOException Se um novo bloco não puder ser mapeado.
+     */
+    public long acrescentar(List<AlteracaoResultado> alteracoes) throws IOException {
+        escrevendo.lock();
+        try {
+            long instante = System.currentTimeMillis();
+            long proxima = sequencia + 1;
+            long posicao = escrito;
+            for (AlteracaoResultado alteracao : alteracoes) {
+                int[] campos = campos(alteracao);
+                int tamanho = CORPO_FIXO + 4 * campos.length;
+                int bloco = (int) (posicao / tamanhoBloco);
+                int deslocamento = (int) (posicao % tamanhoBloco);
+                if (deslocamento + tamanho + 8 > tamanhoBloco) {
+                    if (bloco < blocos.size() && tamanhoBloco - deslocamento >= 4) {
+                        blocos.get(bloco).putInt(deslocamento, FIM_DO_BLOCO);
+                    }
+                    bloco++;
+                    deslocamento = 0;
+                }
+                ByteBuffer buffer = bloco < blocos.size() ? blocos.get(bloco) : mapear(bloco);
+
+                int corpo = deslocamento + 4;
+                buffer.putLong(corpo, proxima);
+                buffer.putLong(corpo + 8, instante);
+                buffer.put(corpo + 16, tipo(alteracao));
+                for (int i = 0; i < campos.length; i++) {
+                    buffer.putInt(corpo + CORPO_FIXO + 4 * i, campos[i]);
+                }
+                crc.reset();
+                crc.update(buffer.slice(corpo, tamanho));
+                buffer.putInt(corpo + tamanho, (int) crc.getValue());
+                buffer.putInt(deslocamento, tamanho);
+
+                proxima++;
+                posicao = (long) bloco * tamanhoBloco + deslocamento + tamanho + 8;
+            }
+            sequencia = proxima - 1;
+            escrito = posicao;
+            return posicao;
+        } finally {
+            escrevendo.unlock();
+        }
+    }
+
+    /**
+     * Garante que tudo o que foi acrescentado até a posição informada está no
+     * disco. Uma única thread sincroniza por vez, levando consigo todos os
+     * registros acrescentados até o início da sincronização.
+     *
+     * @param posicao Posição devolvida por {@link #acrescentar(List)}.
+     * @throws IOException Em caso de falha ao gravar no disco.
+     */
+    public void sincronizar(long posicao) throws IOException {
+        if (duravel >= posicao) {
+            return;
+        }
+        sincronizando.lock();
+        try {
+            if (duravel >= posicao) {
+                return;
+            }
+            long inicio = duravel;
+            long alvo = escrito;
+            int primeiro = (int) (inicio / tamanhoBloco);
+            int ultimo = (int) ((alvo - 1) / tamanhoBloco);
+            for (int i = primeiro; i <= ultimo; i++) {
+                int de = i == primeiro ? (int) (inicio - (long) i * tamanhoBloco) : 0;
+                int ate = i == ultimo ? (int) (alvo - (long) i * tamanhoBloco) : tamanhoBloco;
+                blocos.get(i).force(de, ate - de);
+            }
+            sincronizacoes++;
+            duravel = alvo;
+        } finally {
+            sincronizando.unlock();
+        }
+    }
+
+    /**
+     * @return Sequência do último registro acrescentado (0 se vazio).
+     */
+    public long sequencia() {
+        return sequencia;
+    }
+
+    /**
+     * @return Posição do fim do último registro acrescentado.
+     */
+    public long tamanho() {
+        return escrito;
+    }
+
+    /**
+     * @return Quantidade de sincronizações com o disco desde a abertura.
+     */
+    public long sincronizacoes() {
+        return sincronizacoes;
+    }
+
+    @Override
+    public void close() throws IOException {
+        sincronizar(escrito);
+        blocos.clear();
+        canal.close();
+    }
+
+    private MappedByteBuffer mapear(int bloco) throws IOException {
+        MappedByteBuffer buffer = canal.map(FileChannel.MapMode.READ_WRITE, (long) bloco * tamanhoBloco, tamanhoBloco);
+        blocos.add(buffer);
+        return buffer;
+    }
+
+    /**
+     * Zera o restante do diário a partir da posição, para que restos de uma
+     * escrita interrompida não sejam lidos como registros depois dos novos.
+     */
+    private void apagarDepoisDe(long posicao) {
+        for (int i = (int) (posicao / tamanhoBloco); i < blocos.size(); i++) {
+            MappedByteBuffer bloco = blocos.get(i);
+            int inicio = i == posicao / tamanhoBloco ? (int) (posicao % tamanhoBloco) : 0;
+            for (int j = inicio; j < tamanhoBloco; j++) {
+                if (bloco.get(j) != 0) {
+                    bloco.put(j, (byte) 0);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return Cabeçalho lido; zerado se o arquivo for menor que o cabeçalho.
+     */
+    private static ByteBuffer lerCabecalho(FileChannel canal) throws IOException {
+        ByteBuffer cabecalho = ByteBuffer.allocate(CABECALHO);
+        while (cabecalho.hasRemaining()) {
+            if (canal.read(cabecalho, cabecalho.position()) < 0) {
+                return ByteBuffer.allocate(CABECALHO);
+            }
+        }
+        return cabecalho;
+    }
+
+    private static int validarCabecalho(ByteBuffer cabecalho) throws IOException {
+        int tamanhoBloco = cabecalho.getInt(8);
+        if (cabecalho.getInt(0) != ASSINATURA || cabecalho.getInt(4) != VERSAO || tamanhoBloco < TAMANHO_MINIMO_BLOCO) {
+            throw new IOException("Arquivo não é um diário de resultados na versão " + VERSAO);
+        }
+        return tamanhoBloco;
+    }
+
+    private record Fim(long posicao, long sequencia) {
+    }
+
+    private static Fim percorrer(List<? extends ByteBuffer> blocos, int tamanhoBloco, long limite,
+            Consumer<EntradaDiario> leitor) {
+        CRC32C crc = new CRC32C();
+        int bloco = 0;
+        int deslocamento = CABECALHO;
+        long ultima = 0;
+
+        while (bloco < blocos.size() && (long) bloco * tamanhoBloco + deslocamento < limite) {
+            ByteBuffer buffer = blocos.get(bloco);
+            int tamanho = tamanhoBloco - deslocamento >= 4 ? buffer.getInt(deslocamento) : FIM_DO_BLOCO;
+            if (tamanho == FIM_DO_BLOCO) {
+                bloco++;
+                deslocamento = 0;
+                continue;
+            }
+            if (tamanho < CORPO_FIXO || deslocamento + tamanho + 8 > tamanhoBloco) {
+                break;
+            }
+            int corpo = deslocamento + 4;
+            crc.reset();
+            crc.update(buffer.slice(corpo, tamanho));
+            long numero = buffer.getLong(corpo);
+            if ((int) crc.getValue() != buffer.getInt(corpo + tamanho) || numero != ultima + 1) {
+                break;
+            }
+            AlteracaoResultado alteracao = decodificar(buffer, corpo + 16, tamanho);
+            if (alteracao == null) {
+                break;
+            }
+            if (leitor != null) {
+                leitor.accept(new EntradaDiario(numero, buffer.getLong(corpo + 8), alteracao));
+            }
+            ultima = numero;
+            deslocamento += tamanho + 8;
+        }
+        return new Fim((long) bloco * tamanhoBloco + deslocamento, ultima);
+    }
+
+    private static byte tipo(AlteracaoResultado alteracao) {
+        return switch (alteracao) {
+            case PartidaCriada p -> PARTIDA_CRIADA;
+            case SetRegistrado s -> SET_REGISTRADO;
+            case EquipeInscrita e -> EQUIPE_INSCRITA;
+            case EquipeRecalculada r -> EQUIPE_RECALCULADA;
+        };
+    }
+
+    private static int[] campos(AlteracaoResultado alteracao) {
+        return switch (alteracao) {
+            case PartidaCriada p -> new int[] {p.partida(), p.mandante(), p.visitante()};
+            case SetRegistrado s -> new int[] {s.partida(), s.set(), s.pontosMandante(), s.pontosVisitante()};
+            case EquipeInscrita e -> new int[] {e.temporada(), e.equipe()};
+            case EquipeRecalculada r -> new int[] {r.equipe()};
+        };
+    }
+
+    /**
+     * @param inicio Posição do byte de tipo.
+     * @return Alteração lida, ou null se o tipo for desconhecido ou o tamanho
+     * não corresponder a ele.
+     */
+    private static AlteracaoResultado decodificar(ByteBuffer buffer, int inicio, int tamanho) {
+        int c = inicio + 1;
+        byte tipo = buffer.get(inicio);
+        if (tipo == PARTIDA_CRIADA && tamanho == CORPO_FIXO + 12) {
+            return new PartidaCriada(buffer.getInt(c), buffer.getInt(c + 4), buffer.getInt(c + 8));
+        }
+        if (tipo == SET_REGISTRADO && tamanho == CORPO_FIXO + 16) {
+            return new SetRegistrado(buffer.getInt(c), buffer.getInt(c + 4), buffer.getInt(c + 8), buffer.getInt(c + 12));
+        }
+        if (tipo == EQUIPE_INSCRITA && tamanho == CORPO_FIXO + 8) {
+            return new EquipeInscrita(buffer.getInt(c), buffer.getInt(c + 4));
+        }
+        if (tipo == EQUIPE_RECALCULADA && tamanho == CORPO_FIXO + 4) {
+            return new EquipeRecalculada(buffer.getInt(c));
+        }
+        return null;
+    }
+}
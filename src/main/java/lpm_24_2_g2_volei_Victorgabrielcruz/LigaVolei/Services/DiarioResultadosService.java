@@ -0,0 +1,311 @@
+package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Services;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.DTO.PlacarAoVivoDTO;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.DTO.VerificacaoDiarioDTO;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Events.AlteracaoResultado.EquipeInscrita;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Events.AlteracaoResultado.EquipeRecalculada;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Events.AlteracaoResultado.PartidaCriada;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Events.AlteracaoResultado.SetRegistrado;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Events.ResultadosAlteradosEvent;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Models.PartidaDeVolei;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Services.DiarioResultados.EntradaDiario;
+
+/**
+ * Grava no {@link DiarioResultados} cada alteração de resultado (partida
+ * criada, set registrado, equipe inscrita em temporada, recálculo de equipe)
+ * logo antes do commit: o registro já está no disco quando o banco confirma a
+ * escrita, e uma falha de gravação desfaz a transação em vez de responder erro
+ * a uma escrita já confirmada. As alterações de uma mesma transação vão em um
+ * único acréscimo, e transações simultâneas compartilham a mesma
+ * sincronização. Se o processo cair, ou o commit falhar, depois do acréscimo,
+ * o diário fica com um registro que o banco não tem; a escrita não foi
+ * confirmada ao cliente, e {@link #verificar()} aponta a divergência.
+ *
+ * Como a classificação em memória só é atualizada após o commit,
+ * {@link #sequenciaAplicada()} informa até onde o diário já está refletido
+ * nela, descontando os acréscimos cujas transações ainda não terminaram.
+ *
+ * O diário pode ser relido do início para reconstruir qualquer projeção dos
+ * resultados, e {@link #verificar()} confere essa reconstrução com o banco.
+ */
+@Service
+public class DiarioResultadosService {
+
+    private static final int MAX_DIVERGENCIAS = 100;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    private final TransactionTemplate leitura;
+    private final DiarioResultados diario;
+    private final Path arquivo;
+    private final boolean apagarAoEncerrar;
+
+    /**
+     * Protege os acréscimos junto com o registro das transações em
+     * andamento, para que {@link #sequenciaAplicada()} nunca veja um sem o
+     * outro.
+     */
+    private final ReentrantLock confirmacao = new ReentrantLock();
+    private final TreeSet<Long> pendentes = new TreeSet<>();
+    private final Map<ResultadosAlteradosEvent, Long> emAndamento = new IdentityHashMap<>();
+
+    public DiarioResultadosService(PlatformTransactionManager gerenciadorTransacoes,
+            @Value("${liga.diario.arquivo:dados/diario-resultados.bin}") Path arquivo,
+            @Value("${liga.diario.bloco:16MB}") DataSize bloco,
+            @Value("${liga.diario.apagar-ao-encerrar:false}") boolean apagarAoEncerrar,
+            MeterRegistry registro) throws IOException {
+        this.leitura = new TransactionTemplate(gerenciadorTransacoes);
+        this.leitura.setReadOnly(true);
+        this.arquivo = arquivo;
+        this.apagarAoEncerrar = apagarAoEncerrar;
+        this.diario = DiarioResultados.abrir(arquivo, Math.toIntExact(bloco.toBytes()));
+        registro.gauge("liga.diario.bytes", diario, DiarioResultados::tamanho);
+        FunctionCounter.builder("liga.diario.sincronizacoes", diario, DiarioResultados::sincronizacoes)
+                .description("Sincronizações do diário de resultados com o disco")
+                .register(registro);
+    }
+
+    /**
+     * Acrescenta ao diário as alterações de uma transação prestes a ser
+     * confirmada e espera até que estejam no disco. O contexto de persistência
+     * é descarregado antes, para que um conflito de versão desfaça a
+     * transação sem deixar registro no diário.
+     *
+     * @param evento Evento com as alterações, na ordem em que foram aplicadas.
+     * @throws UncheckedIOException Se o diário não puder ser gravado; a
+     * transação é desfeita.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void resultadosAlterados(ResultadosAlteradosEvent evento) {
+        if (evento.alteracoes().isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            em.flush();
+        }
+        long posicao;
+        confirmacao.lock();
+        try {
+            long primeira = diario.sequencia() + 1;
+            posicao = diario.acrescentar(evento.alteracoes());
+            pendentes.add(primeira);
+            emAndamento.put(evento, primeira);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao gravar no diário de resultados", e);
+        } finally {
+            confirmacao.unlock();
+        }
+        try {
+            diario.sincronizar(posicao);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao gravar no diário de resultados", e);
+        }
+    }
+
+    /**
+     * Dá por terminada a transação de um acréscimo, confirmada ou desfeita.
+     * Os eventos das equipes da mesma transação são publicados antes deste, e
+     * por isso já foram aplicados à classificação quando ele chega.
+     *
+     * @param evento O mesmo evento recebido por
+     * {@link #resultadosAlterados(ResultadosAlteradosEvent)}.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+    public void resultadosConcluidos(ResultadosAlteradosEvent evento) {
+        confirmacao.lock();
+        try {
+            Long primeira = emAndamento.remove(evento);
+            if (primeira != null) {
+                pendentes.remove(primeira);
+            }
+        } finally {
+            confirmacao.unlock();
+        }
+    }
+
+    /**
+     * @return Sequência do último registro acrescentado ao diário.
+     */
+    public long sequencia() {
+        return diario.sequencia();
+    }
+
+    /**
+     * @return Maior sequência tal que todos os registros até ela pertencem a
+     * transações já terminadas.
+     */
+    public long sequenciaAplicada() {
+        confirmacao.lock();
+        try {
+            return pendentes.isEmpty() ? diario.sequencia() : pendentes.first() - 1;
+        } finally {
+            confirmacao.unlock();
+        }
+    }
+
+    /**
+     * Relê o diário a partir de uma sequência.
+     *
+     * @param aPartirDe Sequência do último registro já conhecido (0 para ler
+     * desde o início).
+     * @param leitor Recebe cada registro posterior, em ordem.
+     */
+    public void ler(long aPartirDe, Consumer<EntradaDiario> leitor) {
+        diario.ler(entrada -> {
+            if (entrada.sequencia() > aPartirDe) {
+                leitor.accept(entrada);
+            }
+        });
+    }
+
+    /**
+     * Reconstrói partidas, sets e inscrições a partir do diário e confere o
+     * resultado com o banco, nos dois sentidos.
+     *
+     * @return Totais reconstruídos e divergências encontradas.
+     */
+    public VerificacaoDiarioDTO verificar() {
+        Map<Integer, int[]> equipesPorPartida = new HashMap<>();
+        Map<Integer, List<int[]>> setsPorPartida = new HashMap<>();
+        Map<Long, Integer> inscricoes = new HashMap<>();
+        Divergencias divergencias = new Divergencias();
+        int[] totais = new int[2];
+
+        long registros = diario.ler(entrada -> {
+            switch (entrada.alteracao()) {
+                case PartidaCriada p -> equipesPorPartida.put(p.partida(), new int[] {p.mandante(), p.visitante()});
+                case SetRegistrado s -> {
+                    List<int[]> sets = setsPorPartida.computeIfAbsent(s.partida(), id -> new ArrayList<>());
+                    if (s.set() != sets.size() + 1) {
+                        divergencias.registrar("Diário: set " + s.set() + " da partida " + s.partida() + " fora de ordem");
+                    }
+                    sets.add(new int[] {s.pontosMandante(), s.pontosVisitante()});
+                    totais[0]++;
+                }
+                case EquipeInscrita e -> {
+                    inscricoes.merge(inscricao(e.temporada(), e.equipe()), 1, Integer::sum);
+                    totais[1]++;
+                }
+                // Os contadores das equipes não são conferidos pelo diário.
+                case EquipeRecalculada r -> {
+                }
+            }
+        });
+        int partidas = equipesPorPartida.size();
+
+        leitura.executeWithoutResult(status -> {
+            for (PartidaDeVolei partida : em.createQuery(
+                    "SELECT DISTINCT p FROM PartidaDeVolei p JOIN FETCH p.equipes", PartidaDeVolei.class).getResultList()) {
+                conferirPartida(partida.placarAoVivo(), equipesPorPartida.remove(partida.getId()),
+                        setsPorPartida.remove(partida.getId()), divergencias);
+            }
+            for (Object[] linha : em.createQuery(
+                    "SELECT t.id, e.idEquipe FROM Temporadas t JOIN t.equipes e", Object[].class).getResultList()) {
+                long chave = inscricao((Integer) linha[0], (Integer) linha[1]);
+                if (inscricoes.merge(chave, -1, Integer::sum) < 0) {
+                    divergencias.registrar("Equipe " + linha[1] + " inscrita na temporada " + linha[0] + " não consta no diário");
+                }
+            }
+        });
+
+        for (Integer id : equipesPorPartida.keySet()) {
+            divergencias.registrar("Partida " + id + " consta no diário e não no banco");
+        }
+        for (Integer id : setsPorPartida.keySet()) {
+            if (!equipesPorPartida.containsKey(id)) {
+                divergencias.registrar("Sets da partida " + id + " constam no diário sem a criação da partida");
+            }
+        }
+        for (Map.Entry<Long, Integer> inscricao : inscricoes.entrySet()) {
+            if (inscricao.getValue() > 0) {
+                divergencias.registrar("Equipe " + (int) (long) inscricao.getKey() + " inscrita na temporada "
+                        + (int) (inscricao.getKey() >>> 32) + " no diário e não no banco");
+            }
+        }
+
+        return new VerificacaoDiarioDTO(registros, partidas, totais[0], totais[1], divergencias.total == 0,
+                divergencias.total, divergencias.lista);
+    }
+
+    private static void conferirPartida(PlacarAoVivoDTO placar, int[] equipes, List<int[]> sets, Divergencias divergencias) {
+        if (equipes == null) {
+            divergencias.registrar("Partida " + placar.partida() + " não consta no diário");
+            return;
+        }
+        if (equipes[0] != placar.mandante() || equipes[1] != placar.visitante()) {
+            divergencias.registrar("Partida " + placar.partida() + ": equipes " + equipes[0] + " x " + equipes[1]
+                    + " no diário e " + placar.mandante() + " x " + placar.visitante() + " no banco");
+        }
+        int noDiario = sets == null ? 0 : sets.size();
+        if (noDiario != placar.pontosMandante().length) {
+            divergencias.registrar("Partida " + placar.partida() + ": " + noDiario + " sets no diário e "
+                    + placar.pontosMandante().length + " no banco");
+            return;
+        }
+        for (int i = 0; i < noDiario; i++) {
+            int[] set = sets.get(i);
+            if (set[0] != placar.pontosMandante()[i] || set[1] != placar.pontosVisitante()[i]) {
+                divergencias.registrar("Partida " + placar.partida() + ", set " + (i + 1) + ": " + set[0] + "-" + set[1]
+                        + " no diário e " + placar.pontosMandante()[i] + "-" + placar.pontosVisitante()[i] + " no banco");
+            }
+        }
+    }
+
+    private static long inscricao(int temporada, int equipe) {
+        return ((long) temporada << 32) | (equipe & 0xFFFFFFFFL);
+    }
+
+    @PreDestroy
+    void encerrar() throws IOException {
+        diario.close();
+        if (apagarAoEncerrar) {
+            Files.deleteIfExists(arquivo);
+        }
+    }
+
+    /**
+     * Conta todas as divergências, guardando a descrição só das primeiras.
+     */
+    private static final class Divergencias {
+
+        private final List<String> lista = new ArrayList<>();
+        private int total;
+
+        private void registrar(String divergencia) {
+            if (total++ < MAX_DIVERGENCIAS) {
+                lista.add(divergencia);
+            }
+        }
+    }
+}
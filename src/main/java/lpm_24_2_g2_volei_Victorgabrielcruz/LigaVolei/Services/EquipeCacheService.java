@@ -0,0 +1,107 @@
+package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Services;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.DTO.EquipeDTO;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.DTO.EstatisticasCacheDTO;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Events.EquipeAtualizadaEvent;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Models.Equipe;
+
+/**
+ * Cache dos DTOs e relatórios das equipes. As entradas de uma equipe são
+ * invalidadas sempre que um {@link EquipeAtualizadaEvent} é publicado para ela,
+ * depois do commit da transação que a alterou. Uma falha de cache abre uma
+ * transação somente leitura curta; um acerto não toca no banco.
+ *
+ * <p>
+ * Cada relatório carregado recebe uma versão nova, guardada junto do texto na
+ * entrada do cache. O ETag do relatório vem dessa versão, e não da coluna de
+ * versão da equipe, para que nunca identifique um texto diferente do que está
+ * sendo servido, mesmo antes da invalidação pós-commit.
+ */
+@Service
+public class EquipeCacheService {
+
+    private static final AtomicLong VERSOES = new AtomicLong(
+            TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis()));
+
+    /**
+     * Relatório de uma equipe junto da versão da entrada do cache.
+     *
+     * @param versao versão do relatório.
+     * @param texto relatório da equipe.
+     */
+    public record Relatorio(long versao, String texto) {
+
+    }
+
+    @PersistenceContext
+    private EntityManager manager;
+
+    private final TransactionTemplate leitura;
+
+    private final CacheLimitado<Integer, EquipeDTO> dtos;
+    private final CacheLimitado<Integer, Relatorio> relatorios;
+
+    public EquipeCacheService(@Value("${liga.cache.equipes.tamanho:10000}") int tamanho,
+            @Value("${liga.cache.equipes.ttl:PT5M}") Duration tempoDeVida, PlatformTransactionManager gerenciadorTransacoes) {
+        leitura = new TransactionTemplate(gerenciadorTransacoes);
+        leitura.setReadOnly(true);
+        dtos = new CacheLimitado<>(tamanho, tempoDeVida);
+        relatorios = new CacheLimitado<>(tamanho, tempoDeVida);
+    }
+
+    /**
+     * @param id O ID da equipe.
+     * @return DTO da equipe ou null se não encontrada.
+     */
+    public EquipeDTO dto(int id) {
+        return dtos.obter(id, chave -> carregar(chave, Equipe::getDTO));
+    }
+
+    /**
+     * @param id O ID da equipe.
+     * @return Relatório da equipe e sua versão ou null se não encontrada.
+     */
+    public Relatorio relatorio(int id) {
+        return relatorios.obter(id, chave -> carregar(chave,
+                equipe -> new Relatorio(VERSOES.incrementAndGet(), equipe.relatorio())));
+    }
+
+    private <T> T carregar(int id, Function<Equipe, T> conversor) {
+        return leitura.execute(status -> {
+            Equipe equipe = manager.find(Equipe.class, id);
+            return equipe == null ? null : conversor.apply(equipe);
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void equipeAtualizada(EquipeAtualizadaEvent evento) {
+        int id = evento.equipe().getIdEquipe();
+        dtos.invalidar(id);
+        relatorios.invalidar(id);
+    }
+
+    /**
+     * @return Estatísticas de cada cache, por nome.
+     */
+    public Map<String, EstatisticasCacheDTO> estatisticas() {
+        Map<String, EstatisticasCacheDTO> estatisticas = new LinkedHashMap<>();
+        estatisticas.put("dtos", dtos.estatisticas());
+        estatisticas.put("relatorios", relatorios.estatisticas());
+        return estatisticas;
+    }
+}
@@ -0,0 +1,44 @@
+package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Services;
+
+import java.util.List;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Gera ETags fortes a partir dos contadores de versão das entidades, usando
+ * consultas escalares que não carregam as entidades. Um ETag inalterado
+ * permite responder 304 sem montar o placar. As consultas participam da
+ * transação do chamador, quando houver.
+ *
+ * <p>
+ * Só serve para respostas montadas do banco na mesma requisição. A tabela da
+ * temporada e o relatório da equipe vêm de estruturas em memória atualizadas
+ * depois do commit e usam as versões dessas estruturas.
+ */
+@Service
+@Transactional(readOnly = true)
+public class EtagService {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    /**
+     * @param id O ID da partida.
+     * @return ETag do placar da partida ou null se não encontrada.
+     */
+    public String etagPartida(int id) {
+        Long versao = versao("SELECT p.versao FROM PartidaDeVolei p WHERE p.id = :id", id);
+        return versao == null ? null : "\"partida-" + id + "-" + versao + "\"";
+    }
+
+    private Long versao(String consulta, int id) {
+        List<Long> resultado = em.createQuery(consulta, Long.class)
+                .setParameter("id", id)
+                .getResultList();
+        return resultado.isEmpty() ? null : resultado.get(0);
+    }
+}
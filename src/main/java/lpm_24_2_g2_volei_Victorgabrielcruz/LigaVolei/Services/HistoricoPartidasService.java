@@ -0,0 +1,61 @@
+package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Services;
+
+import java.util.List;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.DTO.PaginaPartidasDTO;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.DTO.PartidaResumoDTO;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Models.PartidaDeVolei;
+
+/**
+ * Histórico de partidas de uma equipe paginado por cursor (keyset) no ID da
+ * partida. Cada página custa uma consulta, que projeta as colunas do resumo
+ * diretamente em {@link PartidaResumoDTO} (nomes de mandante e visitante pelas
+ * colunas {@code id_mandante} e {@code id_visitante}), sem carregar partidas
+ * nem equipes no contexto de persistência.
+ */
+@Service
+public class HistoricoPartidasService {
+
+    public static final int LIMITE_MAXIMO = 1000;
+
+    private static final String CONSULTA_PAGINA = "SELECT new " + PartidaResumoDTO.class.getName()
+            + "(p.id, m.nome, v.nome, CAST(p.pontuacoes.setsEquipe1 AS Integer), "
+            + "CAST(p.pontuacoes.setsEquipe2 AS Integer), CAST(p.pontuacoes.setsDisputados AS Integer), "
+            + "CASE p.pontuacoes.vencedor WHEN 0 THEN m.nome WHEN 1 THEN v.nome "
+            + "ELSE '" + PartidaDeVolei.EM_ANDAMENTO + "' END) "
+            + "FROM PartidaDeVolei p JOIN Equipe m ON m.idEquipe = p.idMandante "
+            + "JOIN Equipe v ON v.idEquipe = p.idVisitante "
+            + "WHERE (p.idMandante = :idEquipe OR p.idVisitante = :idEquipe) AND p.id > :apos ORDER BY p.id";
+
+    @PersistenceContext
+    private EntityManager em;
+
+    /**
+     * Retorna a página de partidas da equipe com ID maior que o cursor, em
+     * uma transação própria e curta: quem percorre várias páginas só ocupa
+     * uma conexão enquanto cada página é lida.
+     *
+     * @param idEquipe O ID da equipe.
+     * @param apos Cursor: ID da última partida já recebida (0 para começar).
+     * @param limite Quantidade máxima de partidas da página.
+     * @return A página e o cursor da próxima. Quando a página não vem cheia,
+     * o cursor é null; uma página cheia que termina exatamente na última
+     * partida é seguida por uma página vazia, também com cursor null.
+     */
+    @Transactional(readOnly = true)
+    public PaginaPartidasDTO pagina(int idEquipe, int apos, int limite) {
+        int tamanho = Math.max(1, Math.min(limite, LIMITE_MAXIMO));
+        List<PartidaResumoDTO> partidas = em.createQuery(CONSULTA_PAGINA, PartidaResumoDTO.class)
+                .setParameter("idEquipe", idEquipe)
+                .setParameter("apos", apos)
+                .setMaxResults(tamanho)
+                .getResultList();
+        Integer proximo = partidas.size() == tamanho ? partidas.get(partidas.size() - 1).id() : null;
+        return new PaginaPartidasDTO(partidas, proximo);
+    }
+}
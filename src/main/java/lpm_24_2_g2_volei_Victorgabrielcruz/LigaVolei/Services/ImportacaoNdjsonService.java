@@ -0,0 +1,97 @@
+package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Services;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BiFunction;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.DTO.ResultadoLinhaDTO;
+
+/**
+ * Importação incremental de arquivos NDJSON (um objeto JSON por linha). As
+ * linhas são lidas e processadas em lotes de tamanho fixo
+ * ({@code liga.importacao.lote}), cada lote com sua própria transação, e o
+ * resultado de cada linha é escrito na saída assim que o lote termina. A
+ * memória usada não depende do tamanho do arquivo.
+ */
+@Service
+public class ImportacaoNdjsonService {
+
+    public static final String NDJSON = "application/x-ndjson";
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${liga.importacao.lote:1000}")
+    private int tamanhoLote;
+
+    /**
+     * Lê a entrada linha a linha, convertendo cada linha para o tipo informado
+     * e repassando os lotes ao processador. Linhas em branco são ignoradas e
+     * linhas com JSON inválido são rejeitadas sem interromper a importação.
+     *
+     * @param <T> Tipo de cada linha.
+     * @param entrada Corpo da requisição em NDJSON.
+     * @param saida Saída onde os resultados são escritos, também em NDJSON.
+     * @param tipo Classe de cada linha.
+     * @param processador Processa um lote e devolve um resultado por item, na
+     * mesma ordem, usando os números de linha recebidos.
+     * @throws IOException Em caso de falha de leitura ou escrita.
+     */
+    public <T> void importar(InputStream entrada, OutputStream saida, Class<T> tipo,
+            BiFunction<List<T>, long[], List<ResultadoLinhaDTO>> processador) throws IOException {
+        BufferedReader leitor = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8));
+        List<T> lote = new ArrayList<>(tamanhoLote);
+        long[] linhas = new long[tamanhoLote];
+        long numeroLinha = 0;
+        String linha;
+
+        while ((linha = leitor.readLine()) != null) {
+            numeroLinha++;
+            if (linha.isBlank()) {
+                continue;
+            }
+            try {
+                T item = objectMapper.readValue(linha, tipo);
+                linhas[lote.size()] = numeroLinha;
+                lote.add(item);
+            } catch (JsonProcessingException e) {
+                escrever(saida, new ResultadoLinhaDTO(numeroLinha, false, null, "JSON inválido: " + e.getOriginalMessage()));
+            }
+            if (lote.size() == tamanhoLote) {
+                processarLote(saida, lote, linhas, processador);
+            }
+        }
+        if (!lote.isEmpty()) {
+            processarLote(saida, lote, linhas, processador);
+        }
+        saida.flush();
+    }
+
+    private <T> void processarLote(OutputStream saida, List<T> lote, long[] linhas,
+            BiFunction<List<T>, long[], List<ResultadoLinhaDTO>> processador) throws IOException {
+        for (ResultadoLinhaDTO resultado : processador.apply(lote, Arrays.copyOf(linhas, lote.size()))) {
+            escrever(saida, resultado);
+        }
+        saida.flush();
+        lote.clear();
+    }
+
+    private void escrever(OutputStream saida, ResultadoLinhaDTO resultado) throws IOException {
+        saida.write(objectMapper.writeValueAsBytes(resultado));
+        saida.write('\n');
+    }
+}
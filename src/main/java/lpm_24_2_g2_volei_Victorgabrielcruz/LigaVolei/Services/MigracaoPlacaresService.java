@@ -0,0 +1,250 @@
+package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Services;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.hibernate.Session;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Events.AlteracaoResultado;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Events.AlteracaoResultado.EquipeRecalculada;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Events.EquipeAtualizadaEvent;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Events.ResultadosAlteradosEvent;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Models.Equipe;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Models.PartidaDeVolei;
+
+/**
+ * Migrações das partidas gravadas em versões anteriores, executadas na
+ * inicialização antes da montagem da classificação.
+ *
+ * Primeiro preenche as colunas {@code id_mandante} e {@code id_visitante} das
+ * partidas gravadas antes da existência delas, a partir da tabela de junção
+ * {@code partidas_equipes}. As consultas agregadas da classificação, dos
+ * placares da temporada e do cadastro de partidas juntam as partidas às
+ * equipes por essas colunas, sem depender de um recálculo manual. Como na
+ * tabela antiga de pontos, a junção não tem coluna de ordem: as duas linhas de
+ * cada partida foram gravadas na ordem mandante, visitante, e é essa ordem
+ * física que é lida.
+ *
+ * Depois copia para o placar compacto os pontos gravados na tabela da antiga
+ * lista de pontuações ({@code partida_de_volei_pontuacoes}), que deixou de
+ * ser mapeada, e recalcula os contadores das equipes dessas partidas. Roda
+ * uma única vez: ao final, a tabela antiga é renomeada para
+ * {@code partida_de_volei_pontuacoes_migrada}, onde ficam também as partidas
+ * que não puderam ser copiadas (registradas em log).
+ *
+ * A tabela antiga não tem coluna de ordem: as duas linhas de cada partida
+ * foram gravadas na ordem das equipes, e é essa ordem física que é lida. Como
+ * a classificação em memória é montada a partir dos contadores, o snapshot
+ * dela é apagado quando algo é copiado, e a classificação só é montada depois
+ * desta migração.
+ */
+@Service
+public class MigracaoPlacaresService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MigracaoPlacaresService.class);
+
+    static final String TABELA_ANTIGA = "partida_de_volei_pontuacoes";
+    private static final int MAX_PARAMETROS_IN = 1000;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    private final ApplicationEventPublisher eventos;
+    private final Path arquivoSnapshot;
+    private final TransactionTemplate escrita;
+
+    public MigracaoPlacaresService(PlatformTransactionManager gerenciadorTransacoes, ApplicationEventPublisher eventos,
+            @Value("${liga.classificacao.snapshot.arquivo:dados/classificacao.snapshot}") Path arquivoSnapshot) {
+        this.escrita = new TransactionTemplate(gerenciadorTransacoes);
+        this.eventos = eventos;
+        this.arquivoSnapshot = arquivoSnapshot;
+    }
+
+    @PostConstruct
+    void migrar() {
+        escrita.executeWithoutResult(status -> preencherMandanteVisitante());
+        escrita.executeWithoutResult(status -> {
+            Number tabelas = (Number) em.createNativeQuery("SELECT COUNT(*) FROM information_schema.tables "
+                    + "WHERE LOWER(table_name) = '" + TABELA_ANTIGA + "'").getSingleResult();
+            if (tabelas.longValue() == 0) {
+                return;
+            }
+            Map<Integer, List<List<Integer>>> antigas = lerTabelaAntiga();
+            Set<Integer> equipes = copiar(antigas);
+            if (!equipes.isEmpty()) {
+                recalcular(equipes);
+                try {
+                    Files.deleteIfExists(arquivoSnapshot);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Falha ao apagar o snapshot de classificação", e);
+                }
+            }
+            em.createNativeQuery("ALTER TABLE " + TABELA_ANTIGA + " RENAME TO " + TABELA_ANTIGA + "_migrada")
+                    .executeUpdate();
+            LOG.info("Placares antigos migrados: {} partidas lidas, {} equipes recalculadas", antigas.size(),
+                    equipes.size());
+        });
+    }
+
+    /**
+     * Preenche mandante e visitante das partidas que ainda não os têm com as
+     * duas equipes da tabela de junção, na ordem em que foram gravadas.
+     * Partidas sem exatamente duas equipes ficam como estão (registradas em
+     * log).
+     */
+    private void preencherMandanteVisitante() {
+        String ordemFisica = ordemFisica();
+        int[] contagem = em.unwrap(Session.class).doReturningWork(conexao -> {
+            Map<Integer, List<Integer>> equipes = new LinkedHashMap<>();
+            try (Statement comando = conexao.createStatement();
+                    ResultSet linhas = comando.executeQuery("SELECT pe.partidas_id, pe.equipes_id_equipe "
+                            + "FROM partidas_equipes pe JOIN partidas p ON p.id = pe.partidas_id "
+                            + "WHERE COALESCE(p.id_mandante, 0) = 0 OR COALESCE(p.id_visitante, 0) = 0 "
+                            + "ORDER BY pe.partidas_id, pe." + ordemFisica)) {
+                while (linhas.next()) {
+                    equipes.computeIfAbsent(linhas.getInt(1), id -> new ArrayList<>(2)).add(linhas.getInt(2));
+                }
+            }
+            int preenchidas = 0;
+            try (PreparedStatement atualizacao = conexao.prepareStatement(
+                    "UPDATE partidas SET id_mandante = ?, id_visitante = ? WHERE id = ?")) {
+                for (Map.Entry<Integer, List<Integer>> partida : equipes.entrySet()) {
+                    if (partida.getValue().size() != 2) {
+                        LOG.warn("Partida {} sem mandante e visitante não preenchida: equipes {}", partida.getKey(),
+                                partida.getValue());
+                        continue;
+                    }
+                    atualizacao.setInt(1, partida.getValue().get(0));
+                    atualizacao.setInt(2, partida.getValue().get(1));
+                    atualizacao.setInt(3, partida.getKey());
+                    atualizacao.addBatch();
+                    if (++preenchidas % MAX_PARAMETROS_IN == 0) {
+                        atualizacao.executeBatch();
+                    }
+                }
+                atualizacao.executeBatch();
+            }
+            return new int[]{equipes.size(), preenchidas};
+        });
+        if (contagem[0] > 0) {
+            LOG.info("Mandante e visitante preenchidos em {} de {} partidas antigas", contagem[1], contagem[0]);
+        }
+    }
+
+    /**
+     * @return Listas de pontos de cada partida, na ordem em que foram
+     * gravadas (mandante e visitante).
+     */
+    private Map<Integer, List<List<Integer>>> lerTabelaAntiga() {
+        String ordemFisica = ordemFisica();
+        return em.unwrap(Session.class).doReturningWork(conexao -> {
+            Map<Integer, List<List<Integer>>> antigas = new LinkedHashMap<>();
+            try (Statement comando = conexao.createStatement();
+                    ResultSet linhas = comando.executeQuery("SELECT partida_de_volei_id, pontuacoes FROM " + TABELA_ANTIGA
+                            + " ORDER BY partida_de_volei_id, " + ordemFisica)) {
+                while (linhas.next()) {
+                    Array pontos = linhas.getArray(2);
+                    List<Integer> lista = new ArrayList<>();
+                    if (pontos != null) {
+                        for (Object ponto : (Object[]) pontos.getArray()) {
+                            lista.add(ponto == null ? null : ((Number) ponto).intValue());
+                        }
+                    }
+                    antigas.computeIfAbsent(linhas.getInt(1), id -> new ArrayList<>()).add(lista);
+                }
+            }
+            return antigas;
+        });
+    }
+
+    /**
+     * @return Pseudocoluna com a posição física da linha, que segue a ordem
+     * de inserção nas tabelas sem coluna de ordem.
+     */
+    private String ordemFisica() {
+        boolean postgres = em.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect() instanceof PostgreSQLDialect;
+        return postgres ? "ctid" : "_ROWID_";
+    }
+
+    /**
+     * Restaura o placar das partidas ainda sem sets.
+     *
+     * @return IDs das equipes das partidas restauradas.
+     */
+    private Set<Integer> copiar(Map<Integer, List<List<Integer>>> antigas) {
+        Set<Integer> equipes = new HashSet<>();
+        List<Integer> ids = new ArrayList<>(antigas.keySet());
+        for (int inicio = 0; inicio < ids.size(); inicio += MAX_PARAMETROS_IN) {
+            List<Integer> bloco = ids.subList(inicio, Math.min(inicio + MAX_PARAMETROS_IN, ids.size()));
+            for (PartidaDeVolei partida : em.createQuery(
+                    "SELECT DISTINCT p FROM PartidaDeVolei p JOIN FETCH p.equipes WHERE p.id IN :ids", PartidaDeVolei.class)
+                    .setParameter("ids", bloco)
+                    .getResultList()) {
+                List<List<Integer>> pontos = antigas.get(partida.getId());
+                if (partida.setsDisputados() != 0) {
+                    continue;
+                }
+                if (pontos.size() != 2 || !partida.restaurarPlacar(pontos.get(0), pontos.get(1))) {
+                    LOG.warn("Placar antigo da partida {} não migrado: {}", partida.getId(), pontos);
+                    continue;
+                }
+                equipes.add(partida.equipe(0).getIdEquipe());
+                equipes.add(partida.equipe(1).getIdEquipe());
+            }
+        }
+        return equipes;
+    }
+
+    /**
+     * Recalcula os contadores das equipes a partir de todas as suas partidas,
+     * como {@code POST /equipes/recalcular}.
+     */
+    private void recalcular(Set<Integer> equipes) {
+        em.flush();
+        em.clear();
+        List<AlteracaoResultado> corrigidas = new ArrayList<>();
+        List<Integer> ids = new ArrayList<>(equipes);
+        for (int inicio = 0; inicio < ids.size(); inicio += MAX_PARAMETROS_IN) {
+            List<Integer> bloco = ids.subList(inicio, Math.min(inicio + MAX_PARAMETROS_IN, ids.size()));
+            em.createQuery("SELECT DISTINCT p FROM PartidaDeVolei p JOIN FETCH p.equipes "
+                    + "WHERE p IN (SELECT pe FROM Equipe e JOIN e.partidas pe WHERE e.idEquipe IN :ids)", PartidaDeVolei.class)
+                    .setParameter("ids", bloco)
+                    .getResultList();
+            for (Equipe equipe : em.createQuery(
+                    "SELECT DISTINCT e FROM Equipe e LEFT JOIN FETCH e.partidas WHERE e.idEquipe IN :ids", Equipe.class)
+                    .setParameter("ids", bloco)
+                    .getResultList()) {
+                if (equipe.recalcularEstatisticas()) {
+                    corrigidas.add(new EquipeRecalculada(equipe.getIdEquipe()));
+                }
+                eventos.publishEvent(new EquipeAtualizadaEvent(equipe));
+            }
+        }
+        eventos.publishEvent(new ResultadosAlteradosEvent(corrigidas));
+    }
+}
@@ -0,0 +1,241 @@
+package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Services;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.DTO.PontoAoVivoDTO;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.DTO.RegistroSetDTO;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.DTO.ResultadoSetDTO;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Models.PartidaAoVivo;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Models.PartidaDeVolei;
+
+/**
+ * Pontuação ao vivo, rali a rali. O estado de cada partida em andamento fica
+ * em memória ({@link PartidaAoVivo}) e cada ponto é aplicado e transmitido aos
+ * assinantes sem tocar no banco; só o primeiro ponto de uma partida a carrega.
+ *
+ * Os sets encerrados entram em uma fila de gravação (write-behind) que é
+ * descarregada periodicamente ({@code liga.aovivo.gravacao.intervalo}) em
+ * lotes pelo {@link RegistroSetsService}, que revalida cada set pelas regras
+ * da partida. Um set recusado na gravação (por exemplo, registrado por outra
+ * via nesse meio tempo) descarta o estado em memória da partida, que é
+ * recarregado do banco no ponto seguinte. O estado de uma partida decidida só
+ * é descartado depois que o set final é gravado, para que um ponto tardio não
+ * a recarregue do banco ainda sem esse set.
+ *
+ * Partidas já decididas no banco não ficam em memória: o ponto é recusado sem
+ * guardar o estado. O estado de uma partida sem pontos há mais de
+ * {@code liga.aovivo.ociosa} é descartado por uma varredura periódica
+ * ({@code liga.aovivo.ociosa.varredura}), junto com os pontos do set em
+ * disputa, que nunca chegam ao banco; partidas com sets na fila de gravação
+ * são mantidas até a gravação.
+ */
+@Service
+public class PartidaAoVivoService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PartidaAoVivoService.class);
+
+    @PersistenceContext
+    private EntityManager em;
+
+    private final TransactionTemplate leitura;
+    private final RegistroSetsService registroSetsService;
+    private final PlacarAoVivoService placarAoVivoService;
+    private final int tamanhoLote;
+
+    /**
+     * Estado de uma partida em memória e o instante do último ponto marcado,
+     * em {@link System#nanoTime()}.
+     */
+    private static final class EmAndamento {
+
+        private final PartidaAoVivo partida;
+        private volatile long ultimoPonto = System.nanoTime();
+
+        private EmAndamento(PartidaAoVivo partida) {
+            this.partida = partida;
+        }
+    }
+
+    private final long tempoOciosa;
+    private final Map<Integer, EmAndamento> partidas = new ConcurrentHashMap<>();
+    private final BlockingDeque<RegistroSetDTO> gravacao = new LinkedBlockingDeque<>();
+
+    /**
+     * Serializa as descargas da fila, que podem partir do agendador ou do
+     * encerramento da aplicação.
+     */
+    private final ReentrantLock gravando = new ReentrantLock();
+
+    public PartidaAoVivoService(PlatformTransactionManager gerenciadorTransacoes, RegistroSetsService registroSetsService,
+            PlacarAoVivoService placarAoVivoService, @Value("${liga.aovivo.gravacao.lote:500}") int tamanhoLote,
+            @Value("${liga.aovivo.ociosa:PT30M}") Duration tempoOciosa, MeterRegistry registro) {
+        this.leitura = new TransactionTemplate(gerenciadorTransacoes);
+        this.leitura.setReadOnly(true);
+        this.registroSetsService = registroSetsService;
+        this.placarAoVivoService = placarAoVivoService;
+        this.tamanhoLote = tamanhoLote;
+        this.tempoOciosa = tempoOciosa.toNanos();
+        registro.gaugeCollectionSize("liga.aovivo.gravacao.pendentes", List.of(), gravacao);
+        registro.gaugeMapSize("liga.aovivo.partidas", List.of(), partidas);
+    }
+
+    /**
+     * Marca um ponto para uma equipe na partida. Se o ponto encerra o set, o
+     * set é enfileirado para gravação.
+     *
+     * @param idPartida ID da partida.
+     * @param time Equipe que venceu o rali (0-mandante, 1-visitante).
+     * @return Andamento após o ponto, ou null se a partida não existir, já
+     * estiver decidida ou o time for inválido.
+     */
+    public PontoAoVivoDTO marcarPonto(int idPartida, int time) {
+        EmAndamento emAndamento = partidas.get(idPartida);
+        if (emAndamento == null) {
+            emAndamento = carregar(idPartida);
+            if (emAndamento == null) {
+                return null;
+            }
+        }
+        emAndamento.ultimoPonto = System.nanoTime();
+
+        PontoAoVivoDTO ponto = emAndamento.partida.marcarPonto(time);
+        if (ponto == null) {
+            return null;
+        }
+        if (ponto.setEncerrado()) {
+            gravacao.offer(new RegistroSetDTO(idPartida, ponto.set(), ponto.pontosMandante(), ponto.pontosVisitante()));
+        }
+        placarAoVivoService.pontoMarcado(ponto);
+        return ponto;
+    }
+
+    /**
+     * Carrega a partida do banco fora de qualquer trava do mapa, para que a
+     * consulta não segure as demais partidas; se duas requisições carregarem
+     * ao mesmo tempo, vale o primeiro estado registrado.
+     *
+     * @return O estado em memória, ou null se a partida não existir ou já
+     * estiver decidida.
+     */
+    private EmAndamento carregar(int idPartida) {
+        PartidaAoVivo carregada = leitura.execute(status -> {
+            List<PartidaDeVolei> encontradas = em.createQuery(
+                    "SELECT p FROM PartidaDeVolei p JOIN FETCH p.equipes WHERE p.id = :id", PartidaDeVolei.class)
+                    .setParameter("id", idPartida)
+                    .getResultList();
+            return encontradas.isEmpty() ? null : encontradas.get(0).aoVivo();
+        });
+        if (carregada == null || carregada.estado().vencedor() != -1) {
+            return null;
+        }
+        EmAndamento nova = new EmAndamento(carregada);
+        EmAndamento existente = partidas.putIfAbsent(idPartida, nova);
+        return existente != null ? existente : nova;
+    }
+
+    /**
+     * Grava em lotes os sets encerrados que aguardam na fila. Em caso de
+     * falha, os sets do lote voltam para o início da fila, na mesma ordem, e
+     * são tentados de novo na próxima descarga.
+     */
+    @Scheduled(fixedDelayString = "${liga.aovivo.gravacao.intervalo:PT0.5S}")
+    public void gravarPendentes() {
+        gravando.lock();
+        try {
+            List<RegistroSetDTO> lote = new ArrayList<>(tamanhoLote);
+            while (gravacao.drainTo(lote, tamanhoLote) > 0) {
+                try {
+                    for (ResultadoSetDTO resultado : registroSetsService.registrarSets(lote)) {
+                        if (!resultado.aceito()) {
+                            LOG.warn("Set {} da partida {} pontuado ao vivo foi recusado na gravação: {}",
+                                    resultado.set(), resultado.id(), resultado.motivo());
+                            partidas.remove(resultado.id());
+                        } else {
+                            descartarSeDecidida(resultado);
+                        }
+                    }
+                } catch (RuntimeException e) {
+                    for (int i = lote.size() - 1; i >= 0; i--) {
+                        gravacao.offerFirst(lote.get(i));
+                    }
+                    LOG.warn("Falha ao gravar {} sets pontuados ao vivo; nova tentativa na próxima descarga", lote.size(), e);
+                    return;
+                }
+                lote.clear();
+            }
+        } finally {
+            gravando.unlock();
+        }
+    }
+
+    private void descartarSeDecidida(ResultadoSetDTO gravado) {
+        EmAndamento emAndamento = partidas.get(gravado.id());
+        if (emAndamento != null) {
+            PontoAoVivoDTO estado = emAndamento.partida.estado();
+            if (estado.vencedor() != -1 && estado.set() == gravado.set() + 1) {
+                partidas.remove(gravado.id(), emAndamento);
+            }
+        }
+    }
+
+    /**
+     * Descarta o estado das partidas sem pontos há mais de
+     * {@code liga.aovivo.ociosa}, exceto as que ainda têm sets na fila de
+     * gravação. O ponto seguinte de uma partida descartada a recarrega do
+     * banco.
+     */
+    @Scheduled(fixedDelayString = "${liga.aovivo.ociosa.varredura:PT1M}",
+            initialDelayString = "${liga.aovivo.ociosa.varredura:PT1M}")
+    public void descartarOciosas() {
+        Set<Integer> pendentes = new HashSet<>();
+        for (RegistroSetDTO set : gravacao) {
+            pendentes.add(set.id());
+        }
+        long agora = System.nanoTime();
+        for (Map.Entry<Integer, EmAndamento> entrada : partidas.entrySet()) {
+            EmAndamento emAndamento = entrada.getValue();
+            if (agora - emAndamento.ultimoPonto > tempoOciosa && !pendentes.contains(entrada.getKey())
+                    && partidas.remove(entrada.getKey(), emAndamento)) {
+                PontoAoVivoDTO estado = emAndamento.partida.estado();
+                if (estado.pontosMandante() + estado.pontosVisitante() > 0) {
+                    LOG.warn("Partida {} ociosa descartada com o set {} em {}x{}", entrada.getKey(), estado.set(),
+                            estado.pontosMandante(), estado.pontosVisitante());
+                }
+            }
+        }
+    }
+
+    /**
+     * @param idPartida ID da partida.
+     * @return TRUE se o estado da partida está em memória.
+     */
+    boolean emMemoria(int idPartida) {
+        return partidas.containsKey(idPartida);
+    }
+
+    @PreDestroy
+    void encerrar() {
+        gravarPendentes();
+    }
+}
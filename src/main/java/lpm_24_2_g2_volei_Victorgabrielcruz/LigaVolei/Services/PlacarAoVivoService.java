@@ -0,0 +1,294 @@
+package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Services;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.DTO.PlacarAoVivoDTO;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.DTO.PontoAoVivoDTO;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Events.EquipeCadastradaEvent;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Events.PlacarAtualizadoEvent;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Models.PartidaDeVolei;
+
+/**
+ * Transmissão ao vivo de placares por Server-Sent Events, por partida ou por
+ * temporada (partidas de qualquer equipe da temporada). Cada atualização é
+ * serializada uma única vez e entregue a todos os assinantes interessados.
+ * Há dois tipos de evento: "placar", com os sets registrados, e "ponto", com
+ * o andamento do set em disputa na pontuação ao vivo.
+ *
+ * Quem publica nunca espera por um assinante: a atualização é deixada na
+ * caixa do assinante, que guarda só a mais recente de cada partida e tipo, e
+ * o envio é feito por uma thread virtual própria do assinante. Um assinante
+ * lento recebe apenas a última mensagem de cada partida; se acumular mais de
+ * {@code liga.aovivo.pendentes} mensagens sem conseguir enviar, é desligado.
+ */
+@Service
+public class PlacarAoVivoService {
+
+    private static final String PLACAR = "placar";
+    private static final String PONTO = "ponto";
+
+    @PersistenceContext
+    private EntityManager em;
+
+    private final TransactionTemplate leitura;
+    private final ObjectMapper json;
+    private final int maxPendentes;
+    private final long tempoLimite;
+    private final Counter descartados;
+
+    private final Map<Integer, Set<Assinante>> porPartida = new ConcurrentHashMap<>();
+    private final Map<Integer, Set<Assinante>> porTemporada = new ConcurrentHashMap<>();
+    private final Map<Integer, Set<Integer>> equipesDaTemporada = new ConcurrentHashMap<>();
+    private final ExecutorService envio = Executors.newVirtualThreadPerTaskExecutor();
+
+    public PlacarAoVivoService(PlatformTransactionManager gerenciadorTransacoes, ObjectMapper json,
+            @Value("${liga.aovivo.pendentes:64}") int maxPendentes,
+            @Value("${liga.aovivo.tempo-limite:PT30M}") Duration tempoLimite, MeterRegistry registro) {
+        this.leitura = new TransactionTemplate(gerenciadorTransacoes);
+        this.leitura.setReadOnly(true);
+        this.json = json;
+        this.maxPendentes = maxPendentes;
+        this.tempoLimite = tempoLimite.toMillis();
+        this.descartados = Counter.builder("liga.aovivo.descartados")
+                .description("Assinantes ao vivo desligados por não acompanharem as atualizações")
+                .register(registro);
+        registro.gauge("liga.aovivo.assinantes", this, PlacarAoVivoService::assinantes);
+    }
+
+    /**
+     * Assina as atualizações de uma partida. O placar atual é enviado logo na
+     * assinatura.
+     *
+     * @param idPartida ID da partida.
+     * @return Emissor SSE da assinatura, ou null se a partida não existir.
+     */
+    public SseEmitter assinarPartida(int idPartida) {
+        PlacarAoVivoDTO atual = leitura.execute(status -> {
+            List<PartidaDeVolei> encontradas = em.createQuery(
+                    "SELECT p FROM PartidaDeVolei p JOIN FETCH p.equipes WHERE p.id = :id", PartidaDeVolei.class)
+                    .setParameter("id", idPartida)
+                    .getResultList();
+            return encontradas.isEmpty() ? null : encontradas.get(0).placarAoVivo();
+        });
+        if (atual == null) {
+            return null;
+        }
+        Assinante assinante = assinar(porPartida, idPartida);
+        assinante.oferecer(chave(idPartida, PLACAR), new Mensagem(PLACAR, serializar(atual, idPartida)));
+        return assinante.emissor;
+    }
+
+    /**
+     * Assina as atualizações das partidas de todas as equipes de uma
+     * temporada, inclusive das cadastradas depois da assinatura.
+     *
+     * @param idTemporada ID da temporada.
+     * @return Emissor SSE da assinatura, ou null se a temporada não existir.
+     */
+    public SseEmitter assinarTemporada(int idTemporada) {
+        if (!equipesDaTemporada.containsKey(idTemporada)) {
+            List<Integer> equipes = leitura.execute(status -> em.createQuery(
+                    "SELECT e.idEquipe FROM Temporadas t LEFT JOIN t.equipes e WHERE t.id = :id", Integer.class)
+                    .setParameter("id", idTemporada)
+                    .getResultList());
+            if (equipes.isEmpty()) {
+                return null;
+            }
+            Set<Integer> ids = ConcurrentHashMap.newKeySet();
+            for (Integer equipe : equipes) {
+                if (equipe != null) {
+                    ids.add(equipe);
+                }
+            }
+            equipesDaTemporada.putIfAbsent(idTemporada, ids);
+        }
+        SseEmitter emissor = assinar(porTemporada, idTemporada).emissor;
+        try {
+            // Um comentário inicial confirma a assinatura e envia os cabeçalhos
+            // antes do primeiro placar.
+            emissor.send(SseEmitter.event().comment("temporada " + idTemporada));
+        } catch (IOException e) {
+            emissor.completeWithError(e);
+        }
+        return emissor;
+    }
+
+    private Assinante assinar(Map<Integer, Set<Assinante>> assinaturas, int id) {
+        Set<Assinante> assinantes = assinaturas.computeIfAbsent(id, chave -> ConcurrentHashMap.newKeySet());
+        Assinante assinante = new Assinante(new SseEmitter(tempoLimite), assinantes);
+        assinantes.add(assinante);
+        assinante.emissor.onCompletion(assinante::remover);
+        assinante.emissor.onTimeout(assinante::remover);
+        assinante.emissor.onError(erro -> assinante.remover());
+        return assinante;
+    }
+
+    /**
+     * Entrega um placar atualizado aos assinantes da partida e das temporadas
+     * de suas equipes.
+     *
+     * @param evento Evento com o placar resultante.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void placarAtualizado(PlacarAtualizadoEvent evento) {
+        PlacarAoVivoDTO placar = evento.placar();
+        entregar(PLACAR, placar.partida(), placar.mandante(), placar.visitante(), placar);
+    }
+
+    /**
+     * Entrega o andamento do set em disputa aos assinantes da partida e das
+     * temporadas de suas equipes.
+     *
+     * @param ponto Estado do set após o ponto marcado.
+     */
+    public void pontoMarcado(PontoAoVivoDTO ponto) {
+        entregar(PONTO, ponto.partida(), ponto.mandante(), ponto.visitante(), ponto);
+    }
+
+    private void entregar(String evento, int idPartida, int mandante, int visitante, Object dados) {
+        long chave = chave(idPartida, evento);
+        Mensagem mensagem = null;
+
+        Set<Assinante> daPartida = porPartida.get(idPartida);
+        if (daPartida != null && !daPartida.isEmpty()) {
+            mensagem = new Mensagem(evento, serializar(dados, idPartida));
+            for (Assinante assinante : daPartida) {
+                assinante.oferecer(chave, mensagem);
+            }
+        }
+        for (Map.Entry<Integer, Set<Assinante>> temporada : porTemporada.entrySet()) {
+            Set<Integer> equipes = equipesDaTemporada.get(temporada.getKey());
+            if (temporada.getValue().isEmpty() || equipes == null
+                    || !(equipes.contains(mandante) || equipes.contains(visitante))) {
+                continue;
+            }
+            if (mensagem == null) {
+                mensagem = new Mensagem(evento, serializar(dados, idPartida));
+            }
+            for (Assinante assinante : temporada.getValue()) {
+                assinante.oferecer(chave, mensagem);
+            }
+        }
+    }
+
+    private static long chave(int idPartida, String evento) {
+        return ((long) idPartida << 1) | (PONTO.equals(evento) ? 1 : 0);
+    }
+
+    /**
+     * Inclui a equipe cadastrada nas temporadas já acompanhadas ao vivo.
+     *
+     * @param evento Evento com o ID da temporada e a equipe cadastrada.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void equipeCadastrada(EquipeCadastradaEvent evento) {
+        Set<Integer> equipes = equipesDaTemporada.get(evento.idTemporada());
+        if (equipes != null) {
+            equipes.add(evento.equipe().getIdEquipe());
+        }
+    }
+
+    private String serializar(Object dados, int idPartida) {
+        try {
+            return json.writeValueAsString(dados);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Falha ao serializar placar da partida " + idPartida, e);
+        }
+    }
+
+    private double assinantes() {
+        int total = 0;
+        for (Set<Assinante> assinantes : porPartida.values()) {
+            total += assinantes.size();
+        }
+        for (Set<Assinante> assinantes : porTemporada.values()) {
+            total += assinantes.size();
+        }
+        return total;
+    }
+
+    @PreDestroy
+    void encerrar() {
+        envio.shutdownNow();
+    }
+
+    private record Mensagem(String evento, String dados) {
+    }
+
+    /**
+     * Um cliente conectado. Guarda, por partida e tipo de evento, a última
+     * mensagem ainda não enviada; no máximo uma thread de envio por assinante
+     * fica ativa.
+     */
+    private final class Assinante {
+
+        private final SseEmitter emissor;
+        private final Set<Assinante> assinantes;
+        private final Map<Long, Mensagem> pendentes = new ConcurrentHashMap<>();
+        private final AtomicBoolean enviando = new AtomicBoolean();
+
+        private Assinante(SseEmitter emissor, Set<Assinante> assinantes) {
+            this.emissor = emissor;
+            this.assinantes = assinantes;
+        }
+
+        private void oferecer(long chave, Mensagem mensagem) {
+            if (pendentes.put(chave, mensagem) == null && pendentes.size() > maxPendentes) {
+                descartados.increment();
+                remover();
+                emissor.complete();
+                return;
+            }
+            if (enviando.compareAndSet(false, true)) {
+                envio.execute(this::enviar);
+            }
+        }
+
+        private void enviar() {
+            try {
+                do {
+                    for (Map.Entry<Long, Mensagem> pendente : pendentes.entrySet()) {
+                        Mensagem mensagem = pendente.getValue();
+                        if (pendentes.remove(pendente.getKey(), mensagem)) {
+                            emissor.send(SseEmitter.event().name(mensagem.evento())
+                                    .data(mensagem.dados(), MediaType.APPLICATION_JSON));
+                        }
+                    }
+                    enviando.set(false);
+                } while (!pendentes.isEmpty() && enviando.compareAndSet(false, true));
+            } catch (IOException | IllegalStateException e) {
+                remover();
+                emissor.completeWithError(e);
+            }
+        }
+
+        private void remover() {
+            assinantes.remove(this);
+            pendentes.clear();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Services;
+
+import java.util.List;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Consulta dos placares em sets das partidas de uma temporada, usada pela
+ * classificação (partidas decididas) e pela simulação (partidas pendentes).
+ */
+final class PlacaresTemporada {
+
+    private PlacaresTemporada() {
+    }
+
+    /**
+     * Lê, em uma consulta, os placares das partidas da temporada. As equipes
+     * de uma partida da temporada são ambas da temporada, então basta juntar
+     * as inscrições pelo mandante.
+     *
+     * @param em EntityManager da transação corrente.
+     * @param idTemporada ID da temporada.
+     * @param decididas TRUE para as partidas com vencedor, FALSE para as
+     * pendentes.
+     * @return Linhas {@code [idMandante, idVisitante, setsMandante,
+     * setsVisitante]}, em ordem de ID da partida.
+     */
+    static List<Object[]> ler(EntityManager em, int idTemporada, boolean decididas) {
+        return em.createQuery("SELECT p.idMandante, p.idVisitante, p.pontuacoes.setsEquipe1, p.pontuacoes.setsEquipe2 "
+                + "FROM Temporadas t JOIN t.equipes e, PartidaDeVolei p WHERE t.id = :id AND p.idMandante = e.idEquipe "
+                + "AND " + (decididas ? "p.pontuacoes.vencedor <> -1" : "p.pontuacoes.vencedor = -1") + " ORDER BY p.id",
+                Object[].class)
+                .setParameter("id", idTemporada)
+                .getResultList();
+    }
+}
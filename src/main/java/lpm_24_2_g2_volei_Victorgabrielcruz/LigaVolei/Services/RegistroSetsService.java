@@ -0,0 +1,136 @@
+package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Services;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.DTO.PlacarAoVivoDTO;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.DTO.RegistroSetDTO;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.DTO.ResultadoSetDTO;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Events.AlteracaoResultado;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Events.AlteracaoResultado.SetRegistrado;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Events.EquipeAtualizadaEvent;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Events.PlacarAtualizadoEvent;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Events.ResultadosAlteradosEvent;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Models.Equipe;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Models.PartidaDeVolei;
+
+/**
+ * Registro de placares de sets em lote. Os registros são agrupados por
+ * partida, as partidas de cada lote são carregadas em uma única consulta e os
+ * sets de cada partida são aplicados em ordem, com um commit por lote. Um
+ * lote em conflito de versão com outra escrita é refeito por inteiro.
+ *
+ * Os eventos de cada lote são publicados dentro da sua transação: os sets
+ * entram no diário de resultados antes do commit, e os ouvintes de
+ * classificação e placar só os recebem se o commit acontecer.
+ */
+@Service
+public class RegistroSetsService {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Autowired
+    private ApplicationEventPublisher eventos;
+
+    @Autowired
+    private ConcorrenciaOtimistaService concorrencia;
+
+    @Value("${liga.partidas.lote:500}")
+    private int tamanhoLote;
+
+    /**
+     * Registra os sets informados através de
+     * {@link PartidaDeVolei#registrarPlacarSet(int, int, int)}.
+     *
+     * @param registros Sets a registrar.
+     * @return Resultado de cada registro, na ordem recebida.
+     */
+    public List<ResultadoSetDTO> registrarSets(List<RegistroSetDTO> registros) {
+        ResultadoSetDTO[] resultados = new ResultadoSetDTO[registros.size()];
+        Map<Integer, List<Integer>> indicesPorPartida = new LinkedHashMap<>();
+
+        for (int i = 0; i < registros.size(); i++) {
+            RegistroSetDTO registro = registros.get(i);
+            if (registro.id() == null || registro.set() == null || registro.placar1() == null || registro.placar2() == null) {
+                resultados[i] = new ResultadoSetDTO(i, registro.id(), registro.set(), false, "Campos id, set, placar1 e placar2 são obrigatórios");
+            } else {
+                indicesPorPartida.computeIfAbsent(registro.id(), id -> new ArrayList<>()).add(i);
+            }
+        }
+
+        List<Integer> ids = new ArrayList<>(indicesPorPartida.keySet());
+        for (int inicio = 0; inicio < ids.size(); inicio += tamanhoLote) {
+            List<Integer> lote = ids.subList(inicio, Math.min(inicio + tamanhoLote, ids.size()));
+            registrarLote(lote, indicesPorPartida, registros, resultados);
+        }
+        return Arrays.asList(resultados);
+    }
+
+    private void registrarLote(List<Integer> ids, Map<Integer, List<Integer>> indicesPorPartida,
+            List<RegistroSetDTO> registros, ResultadoSetDTO[] resultados) {
+        concorrencia.executar(status -> {
+            Set<Equipe> alteradas = new LinkedHashSet<>();
+            List<PlacarAoVivoDTO> placares = new ArrayList<>();
+            List<AlteracaoResultado> sets = new ArrayList<>();
+            Map<Integer, PartidaDeVolei> partidas = new LinkedHashMap<>();
+            for (PartidaDeVolei partida : em.createQuery(
+                    "SELECT DISTINCT p FROM PartidaDeVolei p JOIN FETCH p.equipes WHERE p.id IN :ids", PartidaDeVolei.class)
+                    .setParameter("ids", ids)
+                    .getResultList()) {
+                partidas.put(partida.getId(), partida);
+            }
+
+            for (Integer id : ids) {
+                List<Integer> indices = indicesPorPartida.get(id);
+                PartidaDeVolei partida = partidas.get(id);
+                if (partida == null) {
+                    for (int i : indices) {
+                        resultados[i] = new ResultadoSetDTO(i, id, registros.get(i).set(), false, "Partida não encontrada");
+                    }
+                    continue;
+                }
+
+                indices.sort(Comparator.comparingInt(i -> registros.get(i).set()));
+                boolean alterada = false;
+                for (int i : indices) {
+                    RegistroSetDTO registro = registros.get(i);
+                    boolean aceito = partida.registrarPlacarSet(registro.set(), registro.placar1(), registro.placar2());
+                    resultados[i] = new ResultadoSetDTO(i, id, registro.set(), aceito,
+                            aceito ? null : "Placar inválido, set fora de ordem ou partida encerrada");
+                    alterada |= aceito;
+                    if (aceito) {
+                        sets.add(new SetRegistrado(id, registro.set(), registro.placar1(), registro.placar2()));
+                    }
+                }
+                if (alterada) {
+                    alteradas.add(partida.equipe(0));
+                    alteradas.add(partida.equipe(1));
+                    placares.add(partida.placarAoVivo());
+                }
+            }
+
+            for (Equipe equipe : alteradas) {
+                eventos.publishEvent(new EquipeAtualizadaEvent(equipe));
+            }
+            for (PlacarAoVivoDTO placar : placares) {
+                eventos.publishEvent(new PlacarAtualizadoEvent(placar));
+            }
+            eventos.publishEvent(new ResultadosAlteradosEvent(sets));
+            return null;
+        });
+    }
+}
@@ -0,0 +1,293 @@
+package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Services;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Models.CriterioClassificacao;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Models.RankingTemporada;
+
+/**
+ * Simulação de Monte Carlo do restante de uma temporada. Cada simulação
+ * disputa, set a set, as partidas ainda sem vencedor (continuando do placar
+ * de sets atual), soma os resultados aos contadores das equipes e ordena a
+ * tabela final pelos mesmos critérios da classificação. Os pontos dos ralis
+ * não são simulados: a razão de pontos usa os pontos já registrados.
+ *
+ * A chance de uma equipe vencer um rali vem dos seus pontos feitos e
+ * sofridos, suavizados com {@link #PONTOS_A_PRIORI} pontos para cada lado. A
+ * chance de vencer um set é calculada uma única vez por partida a partir da
+ * chance do rali, com as regras de {@code PartidaDeVolei.validarPlacarSet}
+ * (25 pontos, ou 15 no 5º set, e 2 de vantagem); cada set simulado custa um
+ * único sorteio.
+ *
+ * As simulações são divididas em lotes executados em um {@link ForkJoinPool}
+ * recebido do chamador. Cada lote tem seu próprio {@link SplittableRandom}, derivado da
+ * semente pela mesma árvore de divisões, de modo que a mesma semente produz
+ * o mesmo resultado em qualquer quantidade de núcleos. Os vetores de trabalho
+ * são alocados uma vez por lote e reaproveitados em todas as simulações.
+ */
+final class SimulacaoTemporada {
+
+    /**
+     * Pontos somados a favor e contra de cada equipe antes de estimar sua
+     * chance de vencer um rali, para que equipes com poucos sets não fiquem
+     * com chances extremas.
+     */
+    static final int PONTOS_A_PRIORI = 25;
+
+    private static final int SIMULACOES_POR_LOTE = 2048;
+
+    private final int[] ids;
+    private final String[] nomes;
+    private final int[] partidas;
+    private final int[] vitorias;
+    private final int[] setsVencidos;
+    private final int[] setsDisputados;
+    private final int[] pontosPro;
+    private final int[] pontosContra;
+    private final double[] forca;
+    private final CriterioClassificacao[] criterios;
+    private final Map<Integer, Integer> indicePorId;
+    private int equipes;
+
+    private final int[] mandante;
+    private final int[] visitante;
+    private final int[] setsMandante;
+    private final int[] setsVisitante;
+    private final double[] chanceSet;
+    private final double[] chanceSetDesempate;
+    private int pendentes;
+
+    /**
+     * @param equipes Quantidade máxima de equipes.
+     * @param partidas Quantidade máxima de partidas pendentes.
+     * @param ranking Critérios da classificação, só sobre os contadores.
+     */
+    SimulacaoTemporada(int equipes, int partidas, RankingTemporada ranking) {
+        this.ids = new int[equipes];
+        this.nomes = new String[equipes];
+        this.partidas = new int[equipes];
+        this.vitorias = new int[equipes];
+        this.setsVencidos = new int[equipes];
+        this.setsDisputados = new int[equipes];
+        this.pontosPro = new int[equipes];
+        this.pontosContra = new int[equipes];
+        this.forca = new double[equipes];
+        this.criterios = ranking.criterios().toArray(new CriterioClassificacao[0]);
+        this.indicePorId = new HashMap<>(equipes * 2);
+        this.mandante = new int[partidas];
+        this.visitante = new int[partidas];
+        this.setsMandante = new int[partidas];
+        this.setsVisitante = new int[partidas];
+        this.chanceSet = new double[partidas];
+        this.chanceSetDesempate = new double[partidas];
+    }
+
+    /**
+     * Inclui uma equipe com seus contadores atuais. As partidas pendentes já
+     * estão contadas em {@code partidas}.
+     */
+    void adicionarEquipe(int id, String nome, int partidas, int vitorias, int setsVencidos, int setsDisputados,
+            int pontosPro, int pontosContra) {
+        int i = equipes++;
+        ids[i] = id;
+        nomes[i] = nome;
+        this.partidas[i] = partidas;
+        this.vitorias[i] = vitorias;
+        this.setsVencidos[i] = setsVencidos;
+        this.setsDisputados[i] = setsDisputados;
+        this.pontosPro[i] = pontosPro;
+        this.pontosContra[i] = pontosContra;
+        forca[i] = (pontosPro + PONTOS_A_PRIORI) / (double) (pontosPro + pontosContra + 2 * PONTOS_A_PRIORI);
+        indicePorId.put(id, i);
+    }
+
+    /**
+     * Inclui uma partida sem vencedor. Deve ser chamado depois de incluídas
+     * as equipes.
+     *
+     * @return FALSE se alguma das equipes não faz parte da temporada (a
+     * partida é ignorada).
+     */
+    boolean adicionarPartida(int idMandante, int idVisitante, int setsMandante, int setsVisitante) {
+        Integer m = indicePorId.get(idMandante);
+        Integer v = indicePorId.get(idVisitante);
+        if (m == null || v == null) {
+            return false;
+        }
+        int k = pendentes++;
+        mandante[k] = m;
+        visitante[k] = v;
+        this.setsMandante[k] = setsMandante;
+        this.setsVisitante[k] = setsVisitante;
+        double rali = chanceRali(forca[m], forca[v]);
+        chanceSet[k] = chanceSet(rali, 25);
+        chanceSetDesempate[k] = chanceSet(rali, 15);
+        return true;
+    }
+
+    int equipes() {
+        return equipes;
+    }
+
+    int pendentes() {
+        return pendentes;
+    }
+
+    int id(int indice) {
+        return ids[indice];
+    }
+
+    String nome(int indice) {
+        return nomes[indice];
+    }
+
+    /**
+     * Chance de a equipe A vencer um rali contra a B, combinando as chances
+     * de cada uma contra um adversário médio (log5).
+     */
+    static double chanceRali(double forcaA, double forcaB) {
+        double a = forcaA * (1 - forcaB);
+        double b = forcaB * (1 - forcaA);
+        return a + b == 0 ? 0.5 : a / (a + b);
+    }
+
+    /**
+     * Chance de vencer um set disputado até {@code pontos}, com 2 pontos de
+     * vantagem, sendo {@code rali} a chance de vencer cada rali: soma das
+     * vitórias por pontos - 2 ou menos do adversário, mais a chance de chegar
+     * ao empate em pontos - 1 e vencer a disputa por 2 de vantagem a partir
+     * dele.
+     *
+     * @param rali Chance de vencer um rali.
+     * @param pontos Pontos mínimos do set (25, ou 15 no 5º set).
+     * @return Chance de vencer o set.
+     */
+    static double chanceSet(double rali, int pontos) {
+        double perde = 1 - rali;
+        double vence = Math.pow(rali, pontos);
+        double combinacoes = 1;
+        double chance = 0;
+        for (int k = 0; k <= pontos - 2; k++) {
+            chance += combinacoes * vence * Math.pow(perde, k);
+            combinacoes = combinacoes * (pontos + k) / (k + 1);
+        }
+        double empate = 1;
+        for (int k = 1; k <= pontos - 1; k++) {
+            empate = empate * (pontos - 1 + k) / k * rali * perde;
+        }
+        return chance + empate * rali * rali / (rali * rali + perde * perde);
+    }
+
+    /**
+     * Executa as simulações.
+     *
+     * @param pool Pool onde os lotes são executados.
+     * @param simulacoes Quantidade de simulações.
+     * @param topo Quantidade de posições do topo da tabela contadas.
+     * @param semente Semente dos sorteios.
+     * @return Vetor com 2 posições por equipe (na ordem de inclusão): vezes em
+     * que terminou em 1º e vezes em que terminou entre as {@code topo}
+     * primeiras.
+     */
+    long[] simular(ForkJoinPool pool, int simulacoes, int topo, long semente) {
+        return pool.invoke(new Lote(0, simulacoes, topo, new SplittableRandom(semente)));
+    }
+
+    private long[] simularLote(int simulacoes, int topo, SplittableRandom aleatorio) {
+        int n = equipes;
+        int[] vit = new int[n];
+        int[] sv = new int[n];
+        int[] sd = new int[n];
+        double[][] chaves = new double[criterios.length][n];
+        int[] ordem = new int[n];
+        for (int i = 0; i < n; i++) {
+            ordem[i] = i;
+        }
+        long[] contagem = new long[2 * n];
+
+        for (int s = 0; s < simulacoes; s++) {
+            System.arraycopy(vitorias, 0, vit, 0, n);
+            System.arraycopy(setsVencidos, 0, sv, 0, n);
+            System.arraycopy(setsDisputados, 0, sd, 0, n);
+
+            for (int k = 0; k < pendentes; k++) {
+                int m = setsMandante[k];
+                int v = setsVisitante[k];
+                while (m < 3 && v < 3) {
+                    double chance = m + v == 4 ? chanceSetDesempate[k] : chanceSet[k];
+                    if (aleatorio.nextDouble() < chance) {
+                        m++;
+                    } else {
+                        v++;
+                    }
+                }
+                int novos = m + v - setsMandante[k] - setsVisitante[k];
+                sd[mandante[k]] += novos;
+                sd[visitante[k]] += novos;
+                sv[mandante[k]] += m - setsMandante[k];
+                sv[visitante[k]] += v - setsVisitante[k];
+                vit[m == 3 ? mandante[k] : visitante[k]]++;
+            }
+
+            for (int c = 0; c < criterios.length; c++) {
+                for (int i = 0; i < n; i++) {
+                    chaves[c][i] = criterios[c].valor(partidas[i], vit[i], sv[i], sd[i], pontosPro[i],
+                            pontosContra[i], 0);
+                }
+            }
+            // A ordem da simulação anterior costuma estar quase certa, então a
+            // ordenação por inserção parte dela.
+            for (int i = 1; i < n; i++) {
+                int atual = ordem[i];
+                int j = i - 1;
+                while (j >= 0 && RankingTemporada.comparar(chaves, ids, atual, ordem[j]) < 0) {
+                    ordem[j + 1] = ordem[j];
+                    j--;
+                }
+                ordem[j + 1] = atual;
+            }
+
+            contagem[2 * ordem[0]]++;
+            for (int p = 0; p < topo; p++) {
+                contagem[2 * ordem[p] + 1]++;
+            }
+        }
+        return contagem;
+    }
+
+    private final class Lote extends RecursiveTask<long[]> {
+
+        private final int inicio;
+        private final int fim;
+        private final int topo;
+        private final SplittableRandom aleatorio;
+
+        private Lote(int inicio, int fim, int topo, SplittableRandom aleatorio) {
+            this.inicio = inicio;
+            this.fim = fim;
+            this.topo = topo;
+            this.aleatorio = aleatorio;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (fim - inicio <= SIMULACOES_POR_LOTE) {
+                return simularLote(fim - inicio, topo, aleatorio);
+            }
+            int meio = (inicio + fim) >>> 1;
+            Lote primeira = new Lote(inicio, meio, topo, aleatorio.split());
+            Lote segunda = new Lote(meio, fim, topo, aleatorio);
+            primeira.fork();
+            long[] contagem = segunda.compute();
+            long[] outra = primeira.join();
+            for (int i = 0; i < contagem.length; i++) {
+                contagem[i] += outra[i];
+            }
+            return contagem;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Services;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.DTO.ProbabilidadeEquipeDTO;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.DTO.SimulacaoTemporadaDTO;
+
+/**
+ * Estima, por simulação de Monte Carlo das partidas ainda sem vencedor, a
+ * chance de cada equipe de uma temporada terminar em 1º e entre as primeiras
+ * colocadas. Os dados são lidos com duas consultas (contadores das equipes e
+ * placares de sets das partidas pendentes) e a simulação roda em memória, em
+ * todos os núcleos (ver {@link SimulacaoTemporada}).
+ *
+ * As simulações rodam em um pool próprio, e não no {@link ForkJoinPool}
+ * comum, e no máximo {@code liga.simulacao.concorrentes} ao mesmo tempo;
+ * pedidos além disso são recusados com {@link SimulacoesOcupadasException}
+ * em vez de esperar na fila.
+ */
+@Service
+public class SimulacaoTemporadaService {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    private final TransactionTemplate leitura;
+    private final ClassificacaoService classificacaoService;
+    private final int maximoSimulacoes;
+    private final Semaphore vagas;
+    private final ForkJoinPool pool;
+
+    public SimulacaoTemporadaService(PlatformTransactionManager gerenciadorTransacoes,
+            ClassificacaoService classificacaoService,
+            @Value("${liga.simulacao.maximo:1000000}") int maximoSimulacoes,
+            @Value("${liga.simulacao.concorrentes:2}") int concorrentes) {
+        this.leitura = new TransactionTemplate(gerenciadorTransacoes);
+        this.leitura.setReadOnly(true);
+        this.classificacaoService = classificacaoService;
+        this.maximoSimulacoes = maximoSimulacoes;
+        this.vagas = new Semaphore(Math.max(1, concorrentes));
+        this.pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    void encerrar() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Simula o restante da temporada.
+     *
+     * @param temporadaId ID da temporada.
+     * @param simulacoes Quantidade de simulações, limitada a
+     * {@code liga.simulacao.maximo}.
+     * @param topo Quantidade de primeiras posições consideradas "topo".
+     * @param semente Semente dos sorteios; a mesma semente repete o resultado.
+     * @return Chances de cada equipe, da maior chance de título para a menor,
+     * ou null se a temporada não existir ou não tiver equipes.
+     * @throws SimulacoesOcupadasException Se já houver
+     * {@code liga.simulacao.concorrentes} simulações em andamento.
+     */
+    public SimulacaoTemporadaDTO simular(int temporadaId, int simulacoes, int topo, long semente) {
+        if (!vagas.tryAcquire()) {
+            throw new SimulacoesOcupadasException();
+        }
+        try {
+            return simularComVaga(temporadaId, simulacoes, topo, semente);
+        } finally {
+            vagas.release();
+        }
+    }
+
+    private SimulacaoTemporadaDTO simularComVaga(int temporadaId, int simulacoes, int topo, long semente) {
+        SimulacaoTemporada simulacao = leitura.execute(status -> carregar(temporadaId));
+        if (simulacao == null) {
+            return null;
+        }
+        int quantidade = Math.max(1, Math.min(simulacoes, maximoSimulacoes));
+        int posicoes = Math.max(1, Math.min(topo, simulacao.equipes()));
+        long[] contagem = simulacao.simular(pool, quantidade, posicoes, semente);
+
+        List<ProbabilidadeEquipeDTO> equipes = new ArrayList<>(simulacao.equipes());
+        for (int i = 0; i < simulacao.equipes(); i++) {
+            equipes.add(new ProbabilidadeEquipeDTO(simulacao.id(i), simulacao.nome(i),
+                    (double) contagem[2 * i] / quantidade, (double) contagem[2 * i + 1] / quantidade));
+        }
+        equipes.sort(Comparator.comparingDouble(ProbabilidadeEquipeDTO::primeiro)
+                .thenComparingDouble(ProbabilidadeEquipeDTO::topo).reversed()
+                .thenComparingInt(ProbabilidadeEquipeDTO::idEquipe));
+        return new SimulacaoTemporadaDTO(temporadaId, quantidade, simulacao.pendentes(), posicoes, semente, equipes);
+    }
+
+    private SimulacaoTemporada carregar(int temporadaId) {
+        List<Object[]> equipes = em.createQuery("SELECT e.idEquipe, e.nome, e.quantPartidas, e.vitorias, e.setsVencidos, "
+                + "e.setsDisputados, e.pontosPro, e.pontosContra FROM Temporadas t JOIN t.equipes e WHERE t.id = :id "
+                + "ORDER BY e.idEquipe", Object[].class)
+                .setParameter("id", temporadaId)
+                .getResultList();
+        if (equipes.isEmpty()) {
+            return null;
+        }
+        List<Object[]> partidas = PlacaresTemporada.ler(em, temporadaId, false);
+
+        SimulacaoTemporada simulacao = new SimulacaoTemporada(equipes.size(), partidas.size(),
+                classificacaoService.ranking());
+        for (Object[] equipe : equipes) {
+            simulacao.adicionarEquipe((Integer) equipe[0], (String) equipe[1], (Integer) equipe[2], (Integer) equipe[3],
+                    (Integer) equipe[4], (Integer) equipe[5], (Integer) equipe[6], (Integer) equipe[7]);
+        }
+        for (Object[] partida : partidas) {
+            simulacao.adicionarPartida((Integer) partida[0], (Integer) partida[1],
+                    ((Number) partida[2]).intValue(), ((Number) partida[3]).intValue());
+        }
+        return simulacao;
+    }
+}
@@ -0,0 +1,12 @@
+package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Services;
+
+/**
+ * Lançada quando um pedido de simulação chega com todas as vagas de
+ * simulação ocupadas. Respondida com 503.
+ */
+public class SimulacoesOcupadasException extends RuntimeException {
+
+    public SimulacoesOcupadasException() {
+        super("Simulações ocupadas; tente novamente em instantes.");
+    }
+}
@@ -0,0 +1,144 @@
+package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Services;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.DTO.LinhaClassificacao;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Models.RankingTemporada;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Models.TabelaClassificacao;
+
+/**
+ * Arquivo binário com as classificações em memória e a sequência do diário de
+ * resultados até a qual elas estão atualizadas. É gravado em um arquivo
+ * temporário e renomeado por cima do anterior, de modo que uma gravação
+ * interrompida nunca deixa um snapshot pela metade.
+ *
+ * <pre>
+ *  int    assinatura
+ *  int    versão
+ *  long   sequência do diário
+ *  int    quantidade de temporadas
+ *  por temporada:
+ *    int  ID, int ano, int quantidade de linhas
+ *    por linha:
+ *      int ID da equipe, UTF nome, int partidas, int vitórias, int derrotas,
+ *      int sets vencidos, int sets disputados, int pontos pró, int pontos contra
+ *  long   CRC32C de tudo o que vem antes
+ * </pre>
+ */
+final class SnapshotClassificacao {
+
+    private static final int ASSINATURA = 0x4C564331;
+    private static final int VERSAO = 2;
+
+    /**
+     * Classificações lidas de um snapshot.
+     */
+    record Conteudo(long sequencia, Map<Integer, TabelaClassificacao> temporadas) {
+    }
+
+    private SnapshotClassificacao() {
+    }
+
+    /**
+     * Grava o snapshot, substituindo o anterior.
+     *
+     * @param arquivo Caminho do snapshot.
+     * @param sequencia Sequência do diário coberta pelas classificações.
+     * @param temporadas Linhas de cada temporada, por ID, com o ano.
+     * @throws IOException Em caso de falha de escrita.
+     */
+    static void gravar(Path arquivo, long sequencia, Map<Integer, TabelaClassificacao> temporadas) throws IOException {
+        Path pasta = arquivo.toAbsolutePath().getParent();
+        if (pasta != null) {
+            Files.createDirectories(pasta);
+        }
+        Path temporario = arquivo.resolveSibling(arquivo.getFileName() + ".tmp");
+        CheckedOutputStream verificada = new CheckedOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(temporario)), new CRC32C());
+        try (DataOutputStream saida = new DataOutputStream(verificada)) {
+            saida.writeInt(ASSINATURA);
+            saida.writeInt(VERSAO);
+            saida.writeLong(sequencia);
+            saida.writeInt(temporadas.size());
+            for (Map.Entry<Integer, TabelaClassificacao> temporada : temporadas.entrySet()) {
+                List<LinhaClassificacao> linhas = temporada.getValue().linhas();
+                saida.writeInt(temporada.getKey());
+                saida.writeInt(temporada.getValue().ano());
+                saida.writeInt(linhas.size());
+                for (LinhaClassificacao linha : linhas) {
+                    saida.writeInt(linha.idEquipe());
+                    saida.writeUTF(linha.nome() == null ? "" : linha.nome());
+                    saida.writeInt(linha.partidas());
+                    saida.writeInt(linha.vitorias());
+                    saida.writeInt(linha.derrotas());
+                    saida.writeInt(linha.setsVencidos());
+                    saida.writeInt(linha.setsDisputados());
+                    saida.writeInt(linha.pontosPro());
+                    saida.writeInt(linha.pontosContra());
+                }
+            }
+            saida.writeLong(verificada.getChecksum().getValue());
+        }
+        try (FileChannel canal = FileChannel.open(temporario, StandardOpenOption.WRITE)) {
+            canal.force(true);
+        }
+        Files.move(temporario, arquivo, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Lê um snapshot.
+     *
+     * @param arquivo Caminho do snapshot.
+     * @param ranking Critérios de ordenação das classificações lidas.
+     * @return Classificações e sequência do diário, ou null se não houver
+     * snapshot.
+     * @throws IOException Em caso de falha de leitura ou se o arquivo estiver
+     * corrompido.
+     */
+    static Conteudo ler(Path arquivo, RankingTemporada ranking) throws IOException {
+        if (!Files.exists(arquivo)) {
+            return null;
+        }
+        CheckedInputStream verificada = new CheckedInputStream(
+                new BufferedInputStream(Files.newInputStream(arquivo)), new CRC32C());
+        try (DataInputStream entrada = new DataInputStream(verificada)) {
+            if (entrada.readInt() != ASSINATURA || entrada.readInt() != VERSAO) {
+                throw new IOException("Arquivo não é um snapshot de classificação na versão " + VERSAO);
+            }
+            long sequencia = entrada.readLong();
+            int quantidade = entrada.readInt();
+            Map<Integer, TabelaClassificacao> temporadas = new HashMap<>(quantidade * 2);
+            for (int i = 0; i < quantidade; i++) {
+                int id = entrada.readInt();
+                TabelaClassificacao classificacao = new TabelaClassificacao(entrada.readInt(), ranking);
+                int linhas = entrada.readInt();
+                for (int j = 0; j < linhas; j++) {
+                    classificacao.atualizar(new LinhaClassificacao(entrada.readInt(), entrada.readUTF(),
+                            entrada.readInt(), entrada.readInt(), entrada.readInt(),
+                            entrada.readInt(), entrada.readInt(), entrada.readInt(), entrada.readInt()));
+                }
+                temporadas.put(id, classificacao);
+            }
+            long calculado = verificada.getChecksum().getValue();
+            if (entrada.readLong() != calculado) {
+                throw new IOException("Snapshot de classificação corrompido: " + arquivo);
+            }
+            return new Conteudo(sequencia, temporadas);
+        }
+    }
+}
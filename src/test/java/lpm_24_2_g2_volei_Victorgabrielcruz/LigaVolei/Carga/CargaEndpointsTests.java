@@ -0,0 +1,236 @@
+package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Carga;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Teste de carga de ponta a ponta contra o banco embutido (perfil "teste").
+ * Gera uma temporada sintética pelos próprios endpoints (equipes, turno
+ * completo e placares válidos) e em seguida dispara todos os endpoints em
+ * paralelo, medindo p50/p99 por endpoint e a vazão total. O relatório é
+ * impresso e gravado em {@code target/carga-relatorio.txt}.
+ *
+ * Tamanhos ajustáveis por propriedades de sistema: {@code carga.equipes},
+ * {@code carga.requisicoes} (por thread), {@code carga.threads} e
+ * {@code carga.semente}.
+ *
+ * Fora da suíte padrão: roda só no perfil Maven {@code carga}
+ * ({@code mvn -Pcarga test}).
+ */
+@Tag("carga")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("teste")
+@AutoConfigureObservability
+class CargaEndpointsTests {
+
+    private static final int EQUIPES = Integer.getInteger("carga.equipes", 12);
+    private static final int REQUISICOES = Integer.getInteger("carga.requisicoes", 40);
+    private static final int THREADS = Integer.getInteger("carga.threads", 8);
+    private static final long SEMENTE = Long.getLong("carga.semente", 2024L);
+
+    @LocalServerPort
+    private int porta;
+
+    @Autowired
+    private ObjectMapper json;
+
+    private final HttpClient cliente = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private final Map<String, ConcurrentLinkedQueue<Long>> latencias = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<String> falhas = new ConcurrentLinkedQueue<>();
+
+    @Test
+    void cargaSobreTodosOsEndpoints() throws Exception {
+        GeradorLiga gerador = new GeradorLiga(SEMENTE);
+
+        List<Map<String, String>> novasEquipes = new ArrayList<>();
+        for (String nome : gerador.nomesEquipes(EQUIPES)) {
+            novasEquipes.add(Map.of("nome", nome));
+        }
+        int[] idsEquipes = ids(enviar("POST", "/VariasEquipes", "/VariasEquipes", novasEquipes), "idEquipe");
+
+        int idTemporada = enviar("POST", "/temporada", "/temporada", Map.of("ano", 2024)).get("id").asInt();
+        enviar("PUT", "/temporada/" + idTemporada + "/equipes", "/temporada/{id}/equipes",
+                Arrays.stream(idsEquipes).boxed().toList());
+
+        List<Map<String, Integer>> confrontos = new ArrayList<>();
+        for (int[] par : GeradorLiga.turnoCompleto(EQUIPES)) {
+            confrontos.add(Map.of("id1", idsEquipes[par[0]], "id2", idsEquipes[par[1]]));
+        }
+        JsonNode criacao = enviar("POST", "/partidas", "/partidas", Map.of("partidas", confrontos));
+        assertEquals(0, criacao.get("rejeitadas").size());
+        int[] idsPartidas = ids(criacao.get("partidas"), "id");
+
+        List<Map<String, Integer>> sets = new ArrayList<>();
+        for (int idPartida : idsPartidas) {
+            for (int[] set : gerador.setsDePartida()) {
+                sets.add(Map.of("id", idPartida, "set", set[0], "placar1", set[1], "placar2", set[2]));
+            }
+        }
+        for (JsonNode resultado : enviar("PUT", "/partidas/sets", "/partidas/sets", Map.of("sets", sets))) {
+            assertTrue(resultado.get("aceito").asBoolean(), resultado.toString());
+        }
+        latencias.clear();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> tarefas = new ArrayList<>();
+        long inicio = System.nanoTime();
+        for (int t = 0; t < THREADS; t++) {
+            long sementeThread = SEMENTE + t + 1;
+            tarefas.add(executor.submit(() -> {
+                trabalhar(new GeradorLiga(sementeThread), idTemporada, idsEquipes, idsPartidas);
+                return null;
+            }));
+        }
+        for (Future<?> tarefa : tarefas) {
+            tarefa.get();
+        }
+        long duracao = System.nanoTime() - inicio;
+        executor.shutdown();
+
+        String relatorio = relatorio(duracao);
+        System.out.println(relatorio);
+        Files.createDirectories(Path.of("target"));
+        Files.writeString(Path.of("target", "carga-relatorio.txt"), relatorio);
+
+        assertTrue(falhas.isEmpty(), "Respostas com erro: " + falhas);
+        JsonNode lider = enviar("GET", "/temporada/LiderTemporada/" + idTemporada, "/temporada/LiderTemporada/{id}", null);
+        JsonNode agregada = enviar("GET", "/temporada/" + idTemporada + "/agregada", "/temporada/{id}/agregada", null);
+        assertEquals(EQUIPES, agregada.size());
+        assertEquals(agregada.get(0).get("nome").asText(), lider.get("nome").asText());
+
+        String metricas = cliente.send(HttpRequest.newBuilder(URI.create("http://localhost:" + porta + "/actuator/prometheus")).build(),
+                HttpResponse.BodyHandlers.ofString()).body();
+        for (String metrica : List.of("http_server_requests_seconds", "liga_sql_comandos", "liga_transacoes_seconds",
+                "hibernate_entities_loads", "hikaricp_connections_pending")) {
+            assertTrue(metricas.contains(metrica), "Métrica ausente: " + metrica);
+        }
+    }
+
+    /**
+     * Laço de uma thread de carga: alterna leituras sobre a temporada gerada e,
+     * a cada volta, cria e joga uma partida entre duas equipes próprias da
+     * thread, fora da temporada, para não disputar as mesmas linhas com as
+     * outras threads.
+     */
+    private void trabalhar(GeradorLiga gerador, int idTemporada, int[] idsEquipes, int[] idsPartidas) throws Exception {
+        int mandante = enviar("POST", "/equipes", "/equipes", Map.of("nome", "Avulsa A" + gerador.sortear(1_000_000))).get("idEquipe").asInt();
+        int visitante = enviar("POST", "/equipes", "/equipes", Map.of("nome", "Avulsa B" + gerador.sortear(1_000_000))).get("idEquipe").asInt();
+
+        for (int i = 0; i < REQUISICOES; i++) {
+            int equipe = idsEquipes[gerador.sortear(idsEquipes.length)];
+            int partida = idsPartidas[gerador.sortear(idsPartidas.length)];
+            switch (i % 11) {
+                case 0 -> enviar("GET", "/equipes/" + equipe, "/equipes/{id}", null);
+                case 1 -> enviar("GET", "/equipes/relatorio/" + equipe, "/equipes/relatorio/{id}", null);
+                case 2 -> enviar("GET", "/equipes/partidas/" + equipe, "/equipes/partidas/{id}", null);
+                case 3 -> enviar("GET", "/equipes/partidas/" + equipe + "/pagina", "/equipes/partidas/{id}/pagina", null);
+                case 4 -> enviar("GET", "/partidas/vencedor/" + partida, "/partidas/vencedor/{id}", null);
+                case 5 -> enviar("GET", "/partidas/placar/" + partida, "/partidas/placar/{id}", null);
+                case 6 -> enviar("GET", "/temporada/" + idTemporada, "/temporada/{id}", null);
+                case 7 -> enviar("GET", "/temporada/" + idTemporada + "/agregada", "/temporada/{id}/agregada", null);
+                case 8 -> enviar("GET", "/temporada/LiderTemporada/" + idTemporada, "/temporada/LiderTemporada/{id}", null);
+                case 9 -> enviar("GET", "/equipes/partidas/" + equipe + "/stream", "/equipes/partidas/{id}/stream", null);
+                default -> jogarPartida(gerador, mandante, visitante);
+            }
+        }
+    }
+
+    private void jogarPartida(GeradorLiga gerador, int mandante, int visitante) throws Exception {
+        int idPartida = enviar("POST", "/partidas/" + mandante + "/" + visitante, "/partidas/{id1}/{id2}", null).get("id").asInt();
+        for (int[] set : gerador.setsDePartida()) {
+            enviar("PUT", "/partidas/sets/" + idPartida + "/" + set[0] + "/" + set[1] + "/" + set[2],
+                    "/partidas/sets/{id}/{set}/{placar1}/{placar2}", null);
+        }
+    }
+
+    /**
+     * Envia uma requisição, registra a latência sob o nome do endpoint e
+     * anota respostas fora da faixa 2xx/3xx.
+     *
+     * @return Corpo da resposta como JSON (nó vazio se não for JSON).
+     */
+    private JsonNode enviar(String metodo, String caminho, String endpoint, Object corpo) throws IOException, InterruptedException {
+        HttpRequest.BodyPublisher publicador = corpo == null ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofString(json.writeValueAsString(corpo));
+        HttpRequest requisicao = HttpRequest.newBuilder(URI.create("http://localhost:" + porta + caminho))
+                .header("Content-Type", "application/json")
+                .method(metodo, publicador)
+                .build();
+
+        long inicio = System.nanoTime();
+        HttpResponse<String> resposta = cliente.send(requisicao, HttpResponse.BodyHandlers.ofString());
+        long latencia = System.nanoTime() - inicio;
+        String chave = metodo + " " + endpoint;
+        latencias.computeIfAbsent(chave, k -> new ConcurrentLinkedQueue<>()).add(latencia);
+
+        if (resposta.statusCode() >= 400) {
+            falhas.add(chave + " -> " + resposta.statusCode());
+        }
+        try {
+            return json.readTree(resposta.body());
+        } catch (IOException e) {
+            return json.createObjectNode();
+        }
+    }
+
+    private static int[] ids(JsonNode lista, String campo) {
+        int[] ids = new int[lista.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = lista.get(i).get(campo).asInt();
+        }
+        return ids;
+    }
+
+    private String relatorio(long duracaoNanos) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Carga: %d equipes, %d threads, %d requisições por thread%n", EQUIPES, THREADS, REQUISICOES));
+        sb.append(String.format("%-52s %8s %10s %10s%n", "Endpoint", "N", "p50 (ms)", "p99 (ms)"));
+        long total = 0;
+        for (Map.Entry<String, ConcurrentLinkedQueue<Long>> entrada : new TreeMap<>(latencias).entrySet()) {
+            long[] valores = entrada.getValue().stream().mapToLong(Long::longValue).sorted().toArray();
+            total += valores.length;
+            sb.append(String.format("%-52s %8d %10.2f %10.2f%n", entrada.getKey(), valores.length,
+                    percentil(valores, 50) / 1e6, percentil(valores, 99) / 1e6));
+        }
+        double segundos = duracaoNanos / 1e9;
+        sb.append(String.format("Total: %d requisições em %.2f s (%.1f req/s)%n", total, segundos, total / segundos));
+        return sb.toString();
+    }
+
+    private static long percentil(long[] ordenados, int percentil) {
+        if (ordenados.length == 0) {
+            return 0;
+        }
+        int indice = (int) Math.ceil(percentil / 100.0 * ordenados.length) - 1;
+        return ordenados[Math.max(0, indice)];
+    }
+}
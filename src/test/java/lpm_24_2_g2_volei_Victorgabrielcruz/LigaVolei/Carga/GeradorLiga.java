@@ -0,0 +1,96 @@
+package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Carga;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Gerador determinístico de ligas sintéticas: nomes de equipes, confrontos de
+ * turno completo (método do círculo) e placares de sets válidos segundo as
+ * regras de {@code PartidaDeVolei.validarPlacarSet}. A mesma semente sempre
+ * produz a mesma liga.
+ */
+public class GeradorLiga {
+
+    private final SplittableRandom aleatorio;
+
+    public GeradorLiga(long semente) {
+        this.aleatorio = new SplittableRandom(semente);
+    }
+
+    /**
+     * @param quantidade Quantidade de equipes.
+     * @return Nomes distintos das equipes.
+     */
+    public List<String> nomesEquipes(int quantidade) {
+        List<String> nomes = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            nomes.add("Equipe " + (i + 1));
+        }
+        return nomes;
+    }
+
+    /**
+     * Gera os confrontos de um turno completo pelo método do círculo: cada
+     * equipe enfrenta todas as outras exatamente uma vez.
+     *
+     * @param equipes Quantidade de equipes.
+     * @return Pares de índices (mandante, visitante), rodada a rodada.
+     */
+    public static List<int[]> turnoCompleto(int equipes) {
+        int participantes = equipes % 2 == 0 ? equipes : equipes + 1;
+        int giro = participantes - 1;
+        List<int[]> confrontos = new ArrayList<>(equipes * (equipes - 1) / 2);
+        for (int rodada = 0; rodada < giro; rodada++) {
+            for (int i = 0; i < participantes / 2; i++) {
+                int mandante = (rodada + i) % giro;
+                int visitante = i == 0 ? giro : (rodada + giro - i) % giro;
+                if (mandante < equipes && visitante < equipes) {
+                    confrontos.add(rodada % 2 == 0 ? new int[]{mandante, visitante} : new int[]{visitante, mandante});
+                }
+            }
+        }
+        return confrontos;
+    }
+
+    /**
+     * Gera os sets de uma partida completa, até uma equipe vencer 3. Os sets
+     * 1 a 4 vão a 25 pontos e o 5º a 15; um quarto dos sets vai à prorrogação
+     * (vitória por exatamente 2 pontos acima do mínimo).
+     *
+     * @return Lista de sets no formato {set, pontos1, pontos2}.
+     */
+    public List<int[]> setsDePartida() {
+        List<int[]> sets = new ArrayList<>(5);
+        int vencidos1 = 0;
+        int vencidos2 = 0;
+        for (int set = 1; vencidos1 < 3 && vencidos2 < 3; set++) {
+            int minimo = set == 5 ? 15 : 25;
+            int vencedor;
+            int perdedor;
+            if (aleatorio.nextInt(4) == 0) {
+                vencedor = minimo + 1 + aleatorio.nextInt(5);
+                perdedor = vencedor - 2;
+            } else {
+                vencedor = minimo;
+                perdedor = aleatorio.nextInt(minimo - 1);
+            }
+            if (aleatorio.nextBoolean()) {
+                sets.add(new int[]{set, vencedor, perdedor});
+                vencidos1++;
+            } else {
+                sets.add(new int[]{set, perdedor, vencedor});
+                vencidos2++;
+            }
+        }
+        return sets;
+    }
+
+    /**
+     * @param limite Limite exclusivo.
+     * @return Inteiro sorteado entre 0 e limite - 1.
+     */
+    public int sortear(int limite) {
+        return aleatorio.nextInt(limite);
+    }
+}
@@ -2,8 +2,10 @@ package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
 
 @SpringBootTest
+@ActiveProfiles("teste")
 class LigaVoleiApplicationTests {
 
 	@Test
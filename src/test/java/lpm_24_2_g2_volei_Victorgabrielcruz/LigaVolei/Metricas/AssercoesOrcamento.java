@@ -0,0 +1,38 @@
+package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Metricas;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+/**
+ * Asserções de orçamento de consultas para testes com MockMvc. Falham quando
+ * o endpoint não declara {@link OrcamentoConsultas} ou quando a requisição
+ * disparou mais consultas que o declarado.
+ */
+public final class AssercoesOrcamento {
+
+    private AssercoesOrcamento() {
+    }
+
+    /**
+     * @return Matcher para {@code andExpect} que verifica o orçamento.
+     */
+    public static ResultMatcher dentroDoOrcamento() {
+        return AssercoesOrcamento::assertDentroDoOrcamento;
+    }
+
+    /**
+     * @param resultado Resultado de uma requisição feita pelo MockMvc.
+     */
+    public static void assertDentroDoOrcamento(MvcResult resultado) {
+        String requisicao = resultado.getRequest().getMethod() + " " + resultado.getRequest().getRequestURI();
+        OrcamentoConsultas orcamento = MetricasRequisicaoInterceptor.orcamento(resultado.getHandler());
+        assertNotNull(orcamento, requisicao + " não declara @OrcamentoConsultas");
+        ContagemSql contagem = (ContagemSql) resultado.getRequest().getAttribute(MetricasRequisicaoInterceptor.ATRIBUTO_CONTAGEM);
+        assertNotNull(contagem, requisicao + " não passou pela contagem de SQL");
+        assertTrue(contagem.consultas() <= orcamento.value(),
+                requisicao + " disparou " + contagem.consultas() + " consultas (orçamento " + orcamento.value() + ")");
+    }
+}
@@ -0,0 +1,163 @@
+package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Metricas;
+
+import static lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Metricas.AssercoesOrcamento.dentroDoOrcamento;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Carga.GeradorLiga;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Services.ImportacaoNdjsonService;
+
+/**
+ * Verifica o orçamento de consultas de todos os endpoints sobre uma liga
+ * gerada. A liga tem equipes e partidas suficientes para que qualquer
+ * carregamento item a item (N+1) ultrapasse os orçamentos declarados.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("teste")
+class OrcamentoConsultasTests {
+
+    private static final int EQUIPES = 16;
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private ObjectMapper json;
+
+    @Autowired
+    @Qualifier("requestMappingHandlerMapping")
+    private RequestMappingHandlerMapping mapeamentos;
+
+    @Test
+    void todosOsEndpointsDeclaramOrcamento() {
+        for (Map.Entry<RequestMappingInfo, HandlerMethod> mapeamento : mapeamentos.getHandlerMethods().entrySet()) {
+            HandlerMethod metodo = mapeamento.getValue();
+            if (metodo.getBeanType().getPackageName().endsWith(".Controllers")) {
+                assertTrue(metodo.hasMethodAnnotation(OrcamentoConsultas.class),
+                        mapeamento.getKey() + " não declara @OrcamentoConsultas");
+            }
+        }
+    }
+
+    @Test
+    void endpointsRespeitamOrcamento() throws Exception {
+        GeradorLiga gerador = new GeradorLiga(7);
+
+        List<Map<String, String>> novasEquipes = new ArrayList<>();
+        for (String nome : gerador.nomesEquipes(EQUIPES)) {
+            novasEquipes.add(Map.of("nome", nome));
+        }
+        JsonNode equipes = corpo(executar(post("/VariasEquipes"), novasEquipes));
+        List<Integer> ids = new ArrayList<>();
+        for (JsonNode equipe : equipes) {
+            ids.add(equipe.get("idEquipe").asInt());
+        }
+        int avulsa = corpo(executar(post("/equipes"), Map.of("nome", "Avulsa"))).get("idEquipe").asInt();
+        int importada = corpo(executarNdjson(post("/VariasEquipes"), "{\"nome\":\"Importada\"}\n")).get("id").asInt();
+
+        int temporada = corpo(executar(post("/temporada"), Map.of("ano", 2024))).get("id").asInt();
+        executar(put("/temporada/" + temporada + "/equipes"), ids);
+        executar(put("/temporada/" + temporada + "/equipes/" + avulsa), null);
+
+        List<Map<String, Integer>> confrontos = new ArrayList<>();
+        for (int[] par : GeradorLiga.turnoCompleto(EQUIPES)) {
+            confrontos.add(Map.of("id1", ids.get(par[0]), "id2", ids.get(par[1])));
+        }
+        List<Integer> partidas = new ArrayList<>();
+        for (JsonNode partida : corpo(executar(post("/partidas"), Map.of("partidas", confrontos))).get("partidas")) {
+            partidas.add(partida.get("id").asInt());
+        }
+        int partidaImportada = corpo(executarNdjson(post("/partidas"),
+                "{\"id1\":" + avulsa + ",\"id2\":" + importada + "}\n")).get("id").asInt();
+        int partidaAvulsa = corpo(executar(post("/partidas/" + avulsa + "/" + ids.get(0)), null)).get("id").asInt();
+
+        List<Map<String, Integer>> sets = new ArrayList<>();
+        for (int partida : partidas) {
+            for (int[] set : gerador.setsDePartida()) {
+                sets.add(Map.of("id", partida, "set", set[0], "placar1", set[1], "placar2", set[2]));
+            }
+        }
+        executar(put("/partidas/sets"), Map.of("sets", sets));
+        StringBuilder linhas = new StringBuilder();
+        for (int[] set : gerador.setsDePartida()) {
+            linhas.append(json.writeValueAsString(Map.of("id", partidaImportada, "set", set[0], "placar1", set[1], "placar2", set[2])))
+                    .append('\n');
+        }
+        executarNdjson(put("/partidas/sets"), linhas.toString());
+        for (int[] set : gerador.setsDePartida()) {
+            executar(put("/partidas/sets/" + partidaAvulsa + "/" + set[0] + "/" + set[1] + "/" + set[2]), null);
+        }
+
+        int equipe = ids.get(0);
+        int partida = partidas.get(0);
+        executar(get("/equipes/" + equipe), null);
+        executar(get("/equipes/relatorio/" + equipe), null);
+        executar(get("/equipes/partidas/" + equipe), null);
+        executar(get("/equipes/partidas/" + equipe + "/pagina"), null);
+        executar(get("/equipes/partidas/" + equipe + "/stream"), null);
+        executar(get("/equipes/cache/estatisticas"), null);
+        executar(post("/equipes/recalcular/" + equipe), null);
+        executar(post("/equipes/recalcular"), null);
+        executar(get("/partidas/vencedor/" + partida), null);
+        executar(get("/partidas/placar/" + partida), null);
+        executar(get("/temporada/buscarEquipe/" + temporada).param("nome", "equipe 3"), null);
+        executar(get("/temporada/" + temporada + "/equipes/autocompletar").param("prefixo", "Equipe"), null);
+        executar(get("/temporada/buscarEquipe/" + temporada).param("nome", "EQUIPE 3"), null);
+        executar(get("/temporada/LiderTemporada/" + temporada), null);
+        executar(get("/temporada/" + temporada), null);
+        executar(get("/temporada/" + temporada + "/agregada"), null);
+
+        List<Integer> calendario = new ArrayList<>();
+        for (JsonNode nova : corpo(executar(post("/VariasEquipes"), List.of(Map.of("nome", "Calendário 1"),
+                Map.of("nome", "Calendário 2"), Map.of("nome", "Calendário 3"))))) {
+            calendario.add(nova.get("idEquipe").asInt());
+        }
+        int temporadaCalendario = corpo(executar(post("/temporada"), Map.of("ano", 2025))).get("id").asInt();
+        executar(put("/temporada/" + temporadaCalendario + "/equipes"), calendario);
+        executar(post("/temporada/" + temporadaCalendario + "/calendario").param("turnos", "2"), null);
+        executar(get("/temporada/" + temporada + "/simulacao").param("simulacoes", "1000"), null);
+        executar(get("/temporada/" + temporada + "/ranking"), null);
+        executar(get("/temporada/" + temporada + "/ranking").param("criterios", "VITORIAS,RAZAO_SETS"), null);
+    }
+
+    private MvcResult executar(MockHttpServletRequestBuilder requisicao, Object corpo) throws Exception {
+        if (corpo != null) {
+            requisicao.contentType(MediaType.APPLICATION_JSON).content(json.writeValueAsString(corpo));
+        }
+        return mvc.perform(requisicao).andExpect(status().is2xxSuccessful()).andExpect(dentroDoOrcamento()).andReturn();
+    }
+
+    private MvcResult executarNdjson(MockHttpServletRequestBuilder requisicao, String linhas) throws Exception {
+        requisicao.contentType(ImportacaoNdjsonService.NDJSON).content(linhas);
+        return mvc.perform(requisicao).andExpect(status().is2xxSuccessful()).andExpect(dentroDoOrcamento()).andReturn();
+    }
+
+    private JsonNode corpo(MvcResult resultado) throws Exception {
+        return json.readTree(resultado.getResponse().getContentAsString());
+    }
+}
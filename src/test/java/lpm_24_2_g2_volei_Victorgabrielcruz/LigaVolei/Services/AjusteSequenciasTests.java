@@ -0,0 +1,87 @@
+package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Equipes gravadas com IDs além da sequência (como as criadas quando os IDs
+ * eram gerados pelo banco) não colidem com as novas: o ajuste da
+ * inicialização leva a sequência para depois do maior ID.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("teste")
+class AjusteSequenciasTests {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private ObjectMapper json;
+
+    @Autowired
+    private AjusteSequenciasService ajuste;
+
+    @Autowired
+    private PlatformTransactionManager gerenciadorTransacoes;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Test
+    void sequenciaPassaDoMaiorIdGravado() throws Exception {
+        TransactionTemplate transacao = new TransactionTemplate(gerenciadorTransacoes);
+        int legado = transacao.execute(status -> {
+            Integer maximo = em.createQuery("SELECT MAX(e.idEquipe) FROM Equipe e", Integer.class).getSingleResult();
+            int id = (maximo == null ? 0 : maximo) + 1000;
+            em.createNativeQuery("INSERT INTO equipes (id_equipe, nome, quant_partidas, vitorias, derrotas, "
+                    + "sets_vencidos, sets_disputados, pontos_pro, pontos_contra, versao) "
+                    + "VALUES (?, 'Legado', 0, 0, 0, 0, 0, 0, 0, 0)")
+                    .setParameter(1, id)
+                    .executeUpdate();
+            return id;
+        });
+
+        ajuste.ajustar();
+        long proximo = transacao.execute(status -> ajuste.proximoValor("equipes_seq"));
+        assertTrue(proximo - AjusteSequenciasService.ALOCACAO + 1 > legado, "Próximo bloco termina em " + proximo);
+
+        // Mais cadastros que um bloco: os IDs ainda em memória se esgotam e
+        // os seguintes vêm da sequência ajustada.
+        List<Map<String, String>> novas = new ArrayList<>();
+        for (int i = 0; i < 2 * AjusteSequenciasService.ALOCACAO; i++) {
+            novas.add(Map.of("nome", "Pós-legado " + i));
+        }
+        String resposta = mvc.perform(post("/VariasEquipes").contentType(MediaType.APPLICATION_JSON)
+                .content(json.writeValueAsString(novas))).andReturn().getResponse().getContentAsString();
+        Set<Integer> ids = new HashSet<>();
+        for (JsonNode equipe : json.readTree(resposta)) {
+            ids.add(equipe.get("idEquipe").asInt());
+        }
+        assertEquals(novas.size(), ids.size());
+        assertTrue(ids.stream().anyMatch(id -> id > legado));
+    }
+}
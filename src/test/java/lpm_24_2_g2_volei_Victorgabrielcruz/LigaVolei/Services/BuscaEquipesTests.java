@@ -0,0 +1,158 @@
+package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Models.Equipe;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Models.IndiceNomes;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Models.Temporada;
+
+/**
+ * Busca de equipes pelo nome: sem distinção de maiúsculas e minúsculas, por
+ * prefixo em ordem alfabética, com o índice em memória mantido a cada
+ * cadastro, e sem cadastrar a mesma equipe duas vezes na temporada. Equipes
+ * sem nome podem ser cadastradas, mas não aparecem nas buscas.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("teste")
+class BuscaEquipesTests {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private ObjectMapper json;
+
+    @Test
+    void indiceIgnoraMaiusculasEOrdenaPorNome() {
+        IndiceNomes<Integer> indice = new IndiceNomes<>();
+        indice.adicionar("Minas", 1);
+        indice.adicionar("Sesi", 2);
+        indice.adicionar("minas", 3);
+        indice.adicionar("Minas Tênis", 4);
+        indice.adicionar("Mineiro", 5);
+
+        assertEquals(1, indice.buscar("MINAS"));
+        assertNull(indice.buscar("Min"));
+        assertEquals(List.of(1, 3, 4, 5), indice.prefixo("mi", 10));
+        assertEquals(List.of(1, 3), indice.prefixo("MINAS", 2));
+        assertEquals(List.of(), indice.prefixo("z", 10));
+    }
+
+    @Test
+    void temporadaNaoCadastraEquipeRepetida() {
+        Temporada temporada = new Temporada(2034);
+        Equipe sesi = new Equipe("Sesi Bauru");
+        Equipe minas = new Equipe("Minas");
+        assertEquals(1, temporada.cadastrarEquipe(sesi));
+        assertEquals(2, temporada.cadastrarEquipe(minas));
+        assertEquals(0, temporada.cadastrarEquipe(sesi));
+        assertEquals(0, temporada.cadastrarEquipe(null));
+
+        assertSame(sesi, temporada.buscarEquipe("SESI BAURU"));
+        assertNull(temporada.buscarEquipe("Sesi"));
+        assertEquals(List.of(sesi), temporada.buscarEquipesPorPrefixo("sesi", 10));
+
+        // A inscrição já verificada pelo chamador mantém o índice montado.
+        Equipe praia = new Equipe("Praia Clube");
+        assertEquals(3, temporada.inscrever(praia));
+        assertSame(praia, temporada.buscarEquipe("praia clube"));
+        assertEquals(0, temporada.cadastrarEquipe(praia));
+    }
+
+    @Test
+    void equipesSemNomeNaoSaoIndexadas() throws Exception {
+        IndiceNomes<Integer> indice = new IndiceNomes<>();
+        indice.adicionar(null, 1);
+        indice.adicionar("Sesi", 2);
+        assertNull(indice.buscar(null));
+        assertEquals(List.of(2), indice.prefixo("", 10));
+
+        // O cadastro pelos endpoints verifica a inscrição no banco; o índice
+        // do serviço, carregado depois, também ignora a equipe sem nome.
+        int equipe = corpo(post("/equipes"), Map.of()).get("idEquipe").asInt();
+        int comNome = corpo(post("/equipes"), Map.of("nome", "Sem Nome Não")).get("idEquipe").asInt();
+        int id = corpo(post("/temporada"), Map.of("ano", 2035)).get("id").asInt();
+        assertEquals("2 equipes cadastradas com sucesso na temporada.",
+                texto(put("/temporada/" + id + "/equipes"), List.of(equipe, comNome)));
+        assertEquals(1, corpo(autocompletar(id, ""), null).size());
+
+        // Com o índice carregado, outra equipe sem nome também não entra nele.
+        int outra = corpo(post("/equipes"), Map.of()).get("idEquipe").asInt();
+        assertEquals(200, mvc.perform(put("/temporada/" + id + "/equipes/" + outra)).andReturn().getResponse()
+                .getStatus());
+        assertEquals(1, corpo(autocompletar(id, ""), null).size());
+    }
+
+    @Test
+    void endpointsBuscamPeloNome() throws Exception {
+        List<Map<String, String>> novas = new ArrayList<>();
+        for (String nome : List.of("Busca Praia", "Busca Pinheiros", "Busca Osasco")) {
+            novas.add(Map.of("nome", nome));
+        }
+        List<Integer> ids = new ArrayList<>();
+        for (JsonNode equipe : corpo(post("/VariasEquipes"), novas)) {
+            ids.add(equipe.get("idEquipe").asInt());
+        }
+        int temporada = corpo(post("/temporada"), Map.of("ano", 2034)).get("id").asInt();
+        assertEquals("2 equipes cadastradas com sucesso na temporada.",
+                texto(put("/temporada/" + temporada + "/equipes"), List.of(ids.get(0), ids.get(1), ids.get(0))));
+        assertEquals("Equipe já cadastrada na temporada!",
+                texto(put("/temporada/" + temporada + "/equipes/" + ids.get(1)), null));
+
+        // Sem o índice em memória, a busca vai ao banco.
+        assertEquals(ids.get(1), corpo(buscar(temporada, "busca PINHEIROS"), null).get("idEquipe").asInt());
+        assertEquals("", texto(buscar(temporada, "Busca"), null));
+
+        JsonNode sugestoes = corpo(autocompletar(temporada, "busca p"), null);
+        assertEquals(2, sugestoes.size());
+        assertEquals("Busca Pinheiros", sugestoes.get(0).get("nome").asText());
+        assertEquals("Busca Praia", sugestoes.get(1).get("nome").asText());
+
+        // Com o índice carregado, o cadastro seguinte entra nele.
+        texto(put("/temporada/" + temporada + "/equipes/" + ids.get(2)), null);
+        assertEquals(ids.get(2), corpo(autocompletar(temporada, "BUSCA O"), null).get(0).get("idEquipe").asInt());
+        assertEquals(ids.get(2), corpo(buscar(temporada, "busca osasco"), null).get("idEquipe").asInt());
+        assertEquals(3, corpo(autocompletar(temporada, "").param("limite", "5"), null).size());
+    }
+
+    private MockHttpServletRequestBuilder buscar(int temporada, String nome) {
+        return get("/temporada/buscarEquipe/" + temporada).param("nome", nome);
+    }
+
+    private MockHttpServletRequestBuilder autocompletar(int temporada, String prefixo) {
+        return get("/temporada/" + temporada + "/equipes/autocompletar").param("prefixo", prefixo);
+    }
+
+    private String texto(MockHttpServletRequestBuilder requisicao, Object conteudo) throws Exception {
+        if (conteudo != null) {
+            requisicao.contentType(MediaType.APPLICATION_JSON).content(json.writeValueAsString(conteudo));
+        }
+        return mvc.perform(requisicao).andReturn().getResponse().getContentAsString();
+    }
+
+    private JsonNode corpo(MockHttpServletRequestBuilder requisicao, Object conteudo) throws Exception {
+        return json.readTree(texto(requisicao, conteudo));
+    }
+}
@@ -0,0 +1,156 @@
+package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.DTO.ConfrontoDTO;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.DTO.LinhaClassificacao;
+
+/**
+ * Calendário em rodízio: cada par de equipes se enfrenta uma vez por turno,
+ * ninguém joga duas vezes na mesma rodada, e o endpoint grava o calendário
+ * inteiro com a contagem de partidas das equipes em dia, uma única vez por
+ * temporada. No perfil {@code carga}, o tempo de geração é gravado em
+ * {@code target/calendario-relatorio.txt}; o tamanho é ajustável pela
+ * propriedade de sistema {@code calendario.equipes}.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("teste")
+class CalendarioRodizioTests {
+
+    private static final int EQUIPES = Integer.getInteger("calendario.equipes", 100);
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private ObjectMapper json;
+
+    @Autowired
+    private ClassificacaoService classificacaoService;
+
+    @Test
+    void cadaParSeEnfrentaUmaVezPorTurno() {
+        for (int equipes = 1; equipes <= 11; equipes++) {
+            List<Integer> ids = IntStream.rangeClosed(1, equipes).map(i -> i * 10).boxed().toList();
+            for (int turnos = 1; turnos <= 2; turnos++) {
+                List<ConfrontoDTO> confrontos = CalendarioRodizio.confrontos(ids, turnos);
+                assertEquals(equipes * (equipes - 1) / 2 * turnos, confrontos.size());
+
+                Set<List<Integer>> mandos = new HashSet<>();
+                Map<Set<Integer>, Integer> pares = new HashMap<>();
+                for (ConfrontoDTO confronto : confrontos) {
+                    assertTrue(confronto.id1().intValue() != confronto.id2().intValue());
+                    assertTrue(mandos.add(List.of(confronto.id1(), confronto.id2())), "Mando repetido: " + confronto);
+                    pares.merge(Set.of(confronto.id1(), confronto.id2()), 1, Integer::sum);
+                }
+                assertEquals(equipes * (equipes - 1) / 2, pares.size());
+                for (int vezes : pares.values()) {
+                    assertEquals(turnos, vezes);
+                }
+
+                int porRodada = equipes / 2;
+                assertEquals(CalendarioRodizio.rodadas(equipes, turnos) * porRodada, confrontos.size());
+                for (int inicio = 0; inicio < confrontos.size(); inicio += porRodada) {
+                    Set<Integer> naRodada = new HashSet<>();
+                    for (ConfrontoDTO confronto : confrontos.subList(inicio, inicio + porRodada)) {
+                        assertTrue(naRodada.add(confronto.id1()) && naRodada.add(confronto.id2()),
+                                "Equipe joga duas vezes na rodada " + inicio / porRodada);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void endpointGravaOCalendarioCompleto() throws Exception {
+        int equipes = 9;
+        int temporada = temporada(2030, equipes);
+        JsonNode calendario = corpo(post("/temporada/" + temporada + "/calendario").param("turnos", "2"), null);
+
+        int partidas = equipes * (equipes - 1);
+        assertEquals(partidas, calendario.get("partidas").asInt());
+        assertEquals(CalendarioRodizio.rodadas(equipes, 2), calendario.get("rodadas").asInt());
+        for (LinhaClassificacao linha : classificacaoService.classificacao(temporada).linhas()) {
+            assertEquals(2 * (equipes - 1), linha.partidas(), linha.nome());
+        }
+        assertEquals("", mvc.perform(post("/temporada/" + temporada + "/calendario").param("turnos", "3"))
+                .andReturn().getResponse().getContentAsString());
+
+        // Um segundo pedido não duplica as partidas.
+        assertEquals(409, mvc.perform(post("/temporada/" + temporada + "/calendario").param("turnos", "1"))
+                .andReturn().getResponse().getStatus());
+        for (LinhaClassificacao linha : classificacaoService.classificacao(temporada).linhas()) {
+            assertEquals(2 * (equipes - 1), linha.partidas(), linha.nome());
+        }
+    }
+
+    @Test
+    @Tag("carga")
+    void tempoDeGeracao() throws Exception {
+        int temporada = temporada(2031, EQUIPES);
+
+        long inicio = System.nanoTime();
+        JsonNode calendario = corpo(post("/temporada/" + temporada + "/calendario").param("turnos", "2"), null);
+        long duracao = System.nanoTime() - inicio;
+
+        int partidas = EQUIPES * (EQUIPES - 1);
+        assertEquals(partidas, calendario.get("partidas").asInt());
+        String relatorio = String.format("Calendário em turno e returno: %d equipes, %d partidas em %.2f s (%.0f partidas/s)%n",
+                EQUIPES, partidas, duracao / 1e9, partidas / (duracao / 1e9));
+        System.out.println(relatorio);
+        Files.writeString(Path.of("target", "calendario-relatorio.txt"), relatorio);
+    }
+
+    /**
+     * Cria uma temporada com a quantidade pedida de equipes inscritas.
+     *
+     * @return ID da temporada.
+     */
+    private int temporada(int ano, int equipes) throws Exception {
+        List<Map<String, String>> novas = new ArrayList<>();
+        for (int i = 1; i <= equipes; i++) {
+            novas.add(Map.of("nome", "Rodízio " + ano + " " + i));
+        }
+        List<Integer> ids = new ArrayList<>();
+        for (JsonNode equipe : corpo(post("/VariasEquipes"), novas)) {
+            ids.add(equipe.get("idEquipe").asInt());
+        }
+        int temporada = corpo(post("/temporada"), Map.of("ano", ano)).get("id").asInt();
+        corpo(put("/temporada/" + temporada + "/equipes"), ids);
+        return temporada;
+    }
+
+    private JsonNode corpo(MockHttpServletRequestBuilder requisicao, Object conteudo) throws Exception {
+        if (conteudo != null) {
+            requisicao.contentType(MediaType.APPLICATION_JSON).content(json.writeValueAsString(conteudo));
+        }
+        return json.readTree(mvc.perform(requisicao).andReturn().getResponse().getContentAsString());
+    }
+}
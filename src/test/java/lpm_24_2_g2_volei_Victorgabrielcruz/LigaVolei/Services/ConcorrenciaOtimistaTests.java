@@ -0,0 +1,142 @@
+package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Models.Equipe;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Models.PartidaDeVolei;
+
+/**
+ * Escritas concorrentes na mesma partida e nas mesmas equipes: nenhum set é
+ * duplicado, nenhum contador das equipes se perde e cada requisição termina
+ * com sucesso ou com 409.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("teste")
+class ConcorrenciaOtimistaTests {
+
+    private static final int ESCRITORES = 8;
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private ObjectMapper json;
+
+    @Autowired
+    private ConcorrenciaOtimistaService concorrencia;
+
+    @Autowired
+    private PlatformTransactionManager gerenciadorTransacoes;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Test
+    void setsConcorrentesNaoDuplicam() throws Exception {
+        int id1 = criarEquipe("Concorrente A");
+        int id2 = criarEquipe("Concorrente B");
+        int partida = corpo(post("/partidas/" + id1 + "/" + id2)).get("id").asInt();
+
+        for (int set = 1; set <= 2; set++) {
+            List<Integer> status = emParalelo(put("/partidas/sets/" + partida + "/" + set + "/25/20"));
+            assertTrue(status.stream().allMatch(s -> s == 200 || s == 409), status.toString());
+        }
+
+        new TransactionTemplate(gerenciadorTransacoes).executeWithoutResult(transacao -> {
+            assertEquals(2, em.find(PartidaDeVolei.class, partida).setsDisputados());
+            assertContadoresConsistentes(id1);
+            assertContadoresConsistentes(id2);
+            transacao.setRollbackOnly();
+        });
+    }
+
+    @Test
+    void partidasConcorrentesNaoPerdemContadores() throws Exception {
+        int id1 = criarEquipe("Concorrente C");
+        int id2 = criarEquipe("Concorrente D");
+
+        List<Integer> status = emParalelo(post("/partidas/" + id1 + "/" + id2));
+        assertTrue(status.stream().allMatch(s -> s == 200 || s == 409), status.toString());
+
+        new TransactionTemplate(gerenciadorTransacoes).executeWithoutResult(transacao -> {
+            assertContadoresConsistentes(id1);
+            assertContadoresConsistentes(id2);
+            transacao.setRollbackOnly();
+        });
+    }
+
+    @Test
+    void conflitoPersistenteEsgotaAsTentativas() {
+        AtomicInteger tentativas = new AtomicInteger();
+        assertThrows(ConflitoConcorrenciaException.class, () -> concorrencia.executar(status -> {
+            tentativas.incrementAndGet();
+            throw new ObjectOptimisticLockingFailureException(PartidaDeVolei.class, 1);
+        }));
+        assertEquals(3, tentativas.get());
+    }
+
+    private void assertContadoresConsistentes(int idEquipe) {
+        Equipe equipe = em.find(Equipe.class, idEquipe);
+        assertFalse(equipe.recalcularEstatisticas(), "Contadores divergentes na equipe " + equipe.getNome());
+    }
+
+    private List<Integer> emParalelo(MockHttpServletRequestBuilder requisicao) throws Exception {
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<Integer>> respostas = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < ESCRITORES; i++) {
+                respostas.add(executor.submit(() -> {
+                    largada.await();
+                    return mvc.perform(requisicao).andReturn().getResponse().getStatus();
+                }));
+            }
+            largada.countDown();
+        }
+        List<Integer> status = new ArrayList<>();
+        for (Future<Integer> resposta : respostas) {
+            status.add(resposta.get());
+        }
+        return status;
+    }
+
+    private int criarEquipe(String nome) throws Exception {
+        return corpo(post("/equipes").contentType(MediaType.APPLICATION_JSON)
+                .content(json.writeValueAsString(Map.of("nome", nome)))).get("idEquipe").asInt();
+    }
+
+    private JsonNode corpo(MockHttpServletRequestBuilder requisicao) throws Exception {
+        return json.readTree(mvc.perform(requisicao).andReturn().getResponse().getContentAsString());
+    }
+}
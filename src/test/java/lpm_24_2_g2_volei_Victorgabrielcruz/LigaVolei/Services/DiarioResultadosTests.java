@@ -0,0 +1,228 @@
+package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.PayloadApplicationEvent;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Events.AlteracaoResultado;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Events.AlteracaoResultado.EquipeRecalculada;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Events.AlteracaoResultado.PartidaCriada;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Events.AlteracaoResultado.SetRegistrado;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Events.ResultadosAlteradosEvent;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Services.DiarioResultados.EntradaDiario;
+
+/**
+ * Diário de resultados: registros atravessam blocos e sobrevivem à reabertura,
+ * uma escrita interrompida é descartada, o registro chega ao disco antes do
+ * commit (também no registro de sets em lote), e as alterações feitas pelos endpoints reconstroem exatamente o que
+ * está no banco.
+ */
+@SpringBootTest(properties = "liga.diario.bloco=4KB")
+@AutoConfigureMockMvc
+@ActiveProfiles("teste")
+class DiarioResultadosTests {
+
+    private static final int BLOCO = 4096;
+
+    @TempDir
+    private Path pasta;
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private ObjectMapper json;
+
+    @Autowired
+    private DiarioResultadosService diarioService;
+
+    @Autowired
+    private ApplicationEventPublisher eventos;
+
+    @Autowired
+    private ConfigurableApplicationContext contexto;
+
+    @Autowired
+    private PlatformTransactionManager gerenciadorTransacoes;
+
+    @Test
+    void registrosSobrevivemAReaberturaEmVariosBlocos() throws Exception {
+        Path arquivo = pasta.resolve("diario.bin");
+        try (DiarioResultados diario = DiarioResultados.abrir(arquivo, BLOCO)) {
+            for (int partida = 1; partida <= 300; partida++) {
+                diario.sincronizar(diario.acrescentar(List.of(new PartidaCriada(partida, 1, 2),
+                        new SetRegistrado(partida, 1, 25, partida % 24))));
+            }
+            assertTrue(diario.tamanho() > 2 * BLOCO);
+        }
+
+        List<EntradaDiario> lidas = new ArrayList<>();
+        assertEquals(600, DiarioResultados.ler(arquivo, lidas::add));
+        for (int i = 0; i < lidas.size(); i++) {
+            assertEquals(i + 1, lidas.get(i).sequencia());
+        }
+        assertEquals(new SetRegistrado(300, 1, 25, 12), lidas.get(599).alteracao());
+
+        try (DiarioResultados diario = DiarioResultados.abrir(arquivo, BLOCO)) {
+            diario.sincronizar(diario.acrescentar(List.of(new PartidaCriada(301, 3, 4), new EquipeRecalculada(3))));
+            List<AlteracaoResultado> alteracoes = new ArrayList<>();
+            assertEquals(602, diario.ler(entrada -> alteracoes.add(entrada.alteracao())));
+            assertEquals(new PartidaCriada(301, 3, 4), alteracoes.get(600));
+            assertEquals(new EquipeRecalculada(3), alteracoes.get(601));
+        }
+    }
+
+    @Test
+    void escritaInterrompidaEDescartadaNaAbertura() throws Exception {
+        Path arquivo = pasta.resolve("interrompido.bin");
+        long fimDoSegundo;
+        try (DiarioResultados diario = DiarioResultados.abrir(arquivo, BLOCO)) {
+            diario.acrescentar(List.of(new PartidaCriada(1, 1, 2)));
+            fimDoSegundo = diario.acrescentar(List.of(new SetRegistrado(1, 1, 25, 20)));
+            diario.acrescentar(List.of(new SetRegistrado(1, 2, 25, 20)));
+            diario.sincronizar(diario.tamanho());
+        }
+        // Corrompe o último byte de dados do terceiro registro.
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.WRITE)) {
+            canal.write(ByteBuffer.wrap(new byte[] {(byte) 0xFF}), fimDoSegundo + 4 + 17 + 15);
+        }
+
+        try (DiarioResultados diario = DiarioResultados.abrir(arquivo, BLOCO)) {
+            assertEquals(fimDoSegundo, diario.tamanho());
+            diario.sincronizar(diario.acrescentar(List.of(new SetRegistrado(1, 2, 20, 25))));
+        }
+        List<AlteracaoResultado> alteracoes = new ArrayList<>();
+        assertEquals(3, DiarioResultados.ler(arquivo, entrada -> alteracoes.add(entrada.alteracao())));
+        assertEquals(new SetRegistrado(1, 2, 20, 25), alteracoes.get(2));
+    }
+
+    @Test
+    void registroPrecedeOCommit() {
+        long antes = diarioService.sequencia();
+        long[] noCommit = new long[2];
+        new TransactionTemplate(gerenciadorTransacoes).executeWithoutResult(status -> {
+            eventos.publishEvent(new ResultadosAlteradosEvent(List.of(new EquipeRecalculada(Integer.MAX_VALUE))));
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    noCommit[0] = diarioService.sequencia();
+                    noCommit[1] = diarioService.sequenciaAplicada();
+                }
+            });
+        });
+
+        // No commit o registro já está no diário, mas só conta como aplicado
+        // quando a transação termina.
+        assertEquals(antes + 1, noCommit[0]);
+        assertEquals(antes, noCommit[1]);
+        assertEquals(antes + 1, diarioService.sequenciaAplicada());
+    }
+
+    @Test
+    void setsEmLoteEntramNoDiarioAntesDoCommit() throws Exception {
+        int partida = corpo(post("/partidas/" + criarEquipe("Lote A") + "/" + criarEquipe("Lote B"))).get("id").asInt();
+        long antes = diarioService.sequencia();
+        List<Long> noCommit = new ArrayList<>();
+        ApplicationListener<PayloadApplicationEvent<ResultadosAlteradosEvent>> ouvinte = ApplicationListener.forPayload(evento -> {
+            // Fora de uma transação não há commit a observar: o registro
+            // seria gravado depois dele.
+            assertTrue(TransactionSynchronizationManager.isActualTransactionActive());
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    noCommit.add(diarioService.sequencia());
+                }
+            });
+        });
+        contexto.addApplicationListener(ouvinte);
+        try {
+            mvc.perform(put("/partidas/sets").contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"sets\":[{\"id\":" + partida + ",\"set\":2,\"placar1\":22,\"placar2\":25},"
+                            + "{\"id\":" + partida + ",\"set\":1,\"placar1\":25,\"placar2\":20},"
+                            + "{\"id\":" + partida + ",\"set\":4,\"placar1\":25,\"placar2\":10}]}"));
+        } finally {
+            contexto.removeApplicationListener(ouvinte);
+        }
+
+        assertEquals(List.of(antes + 2), noCommit);
+        List<EntradaDiario> entradas = new ArrayList<>();
+        diarioService.ler(antes, entradas::add);
+        assertEquals(2, entradas.size());
+        assertEquals(antes + 1, entradas.get(0).sequencia());
+        assertEquals(new SetRegistrado(partida, 1, 25, 20), entradas.get(0).alteracao());
+        assertEquals(antes + 2, entradas.get(1).sequencia());
+        assertEquals(new SetRegistrado(partida, 2, 22, 25), entradas.get(1).alteracao());
+    }
+
+    @Test
+    void diarioConfereComOBanco() throws Exception {
+        long inicio = diarioService.sequencia();
+        JsonNode anterior = corpo(get("/diario/verificacao"));
+        int mandante = criarEquipe("Diário A");
+        int visitante = criarEquipe("Diário B");
+        int temporada = corpo(post("/temporada").contentType(MediaType.APPLICATION_JSON).content("{\"ano\":2026}")).get("id").asInt();
+        mvc.perform(put("/temporada/" + temporada + "/equipes").contentType(MediaType.APPLICATION_JSON)
+                .content("[" + mandante + "," + visitante + "]"));
+        int partida = corpo(post("/partidas/" + mandante + "/" + visitante)).get("id").asInt();
+        mvc.perform(put("/partidas/sets/" + partida + "/1/25/20"));
+        mvc.perform(put("/partidas/sets/" + partida + "/2/18/25"));
+        mvc.perform(put("/partidas/sets/" + partida + "/4/25/10"));
+        mvc.perform(put("/partidas/sets").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"sets\":[{\"id\":" + partida + ",\"set\":3,\"placar1\":25,\"placar2\":23}]}"));
+
+        JsonNode verificacao = corpo(get("/diario/verificacao"));
+        assertTrue(verificacao.get("consistente").asBoolean(), verificacao.toString());
+        assertEquals(1, verificacao.get("partidas").asInt() - anterior.get("partidas").asInt());
+        assertEquals(3, verificacao.get("sets").asInt() - anterior.get("sets").asInt());
+        assertEquals(2, verificacao.get("inscricoes").asInt() - anterior.get("inscricoes").asInt());
+
+        String[] linhas = mvc.perform(get("/diario").param("aPartirDe", String.valueOf(inicio + 2)))
+                .andReturn().getResponse().getContentAsString().split("\n");
+        assertEquals(4, linhas.length);
+        JsonNode criada = json.readTree(linhas[0]);
+        assertEquals(inicio + 3, criada.get("sequencia").asLong());
+        assertEquals("PartidaCriada", criada.get("alteracao").get("tipo").asText());
+        assertEquals(partida, criada.get("alteracao").get("partida").asInt());
+        assertEquals(23, json.readTree(linhas[3]).get("alteracao").get("pontosVisitante").asInt());
+    }
+
+    private int criarEquipe(String nome) throws Exception {
+        return corpo(post("/equipes").contentType(MediaType.APPLICATION_JSON)
+                .content(json.writeValueAsString(Map.of("nome", nome)))).get("idEquipe").asInt();
+    }
+
+    private JsonNode corpo(MockHttpServletRequestBuilder requisicao) throws Exception {
+        return json.readTree(mvc.perform(requisicao).andReturn().getResponse().getContentAsString());
+    }
+}
@@ -0,0 +1,90 @@
+package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Cache de DTOs e relatórios das equipes: um set registrado invalida as
+ * entradas das duas equipes da partida, e as consultas seguintes trazem os
+ * contadores novos.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("teste")
+class EquipeCacheTests {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private ObjectMapper json;
+
+    @Test
+    void setInvalidaAsDuasEquipes() throws Exception {
+        int mandante = criarEquipe("Cache A");
+        int visitante = criarEquipe("Cache B");
+        int partida = corpo(post("/partidas/" + mandante + "/" + visitante)).get("id").asInt();
+
+        for (int set = 1; set <= 3; set++) {
+            consultar(mandante);
+            consultar(visitante);
+            JsonNode antes = corpo(get("/equipes/cache/estatisticas"));
+            // Com as entradas em cache, a nova consulta é um acerto.
+            consultar(mandante);
+            consultar(visitante);
+            JsonNode acertos = corpo(get("/equipes/cache/estatisticas"));
+            assertEquals(antes.get("dtos").get("acertos").asLong() + 2, acertos.get("dtos").get("acertos").asLong());
+            assertEquals(antes.get("relatorios").get("acertos").asLong() + 2,
+                    acertos.get("relatorios").get("acertos").asLong());
+
+            mvc.perform(put("/partidas/sets/" + partida + "/" + set + "/25/20"));
+            JsonNode depois = corpo(get("/equipes/cache/estatisticas"));
+            for (String cache : new String[]{"dtos", "relatorios"}) {
+                assertEquals(antes.get(cache).get("invalidacoes").asLong() + 2,
+                        depois.get(cache).get("invalidacoes").asLong(), cache);
+            }
+        }
+
+        assertEquals(1, corpo(get("/equipes/" + mandante)).get("vitorias").asInt());
+        assertEquals(1, corpo(get("/equipes/" + visitante)).get("derrotas").asInt());
+        assertTrue(relatorio(mandante).contains("Vitórias: 1"), relatorio(mandante));
+        assertTrue(relatorio(visitante).contains("Derrotas: 1"), relatorio(visitante));
+    }
+
+    private void consultar(int equipe) throws Exception {
+        mvc.perform(get("/equipes/" + equipe));
+        mvc.perform(get("/equipes/relatorio/" + equipe));
+    }
+
+    private String relatorio(int equipe) throws Exception {
+        return mvc.perform(get("/equipes/relatorio/" + equipe)).andReturn().getResponse()
+                .getContentAsString(StandardCharsets.UTF_8);
+    }
+
+    private int criarEquipe(String nome) throws Exception {
+        return corpo(post("/equipes").contentType(MediaType.APPLICATION_JSON)
+                .content(json.writeValueAsString(Map.of("nome", nome)))).get("idEquipe").asInt();
+    }
+
+    private JsonNode corpo(MockHttpServletRequestBuilder requisicao) throws Exception {
+        return json.readTree(mvc.perform(requisicao).andReturn().getResponse().getContentAsString());
+    }
+}
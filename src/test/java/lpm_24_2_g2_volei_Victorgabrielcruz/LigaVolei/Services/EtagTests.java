@@ -0,0 +1,162 @@
+package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.PayloadApplicationEvent;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Events.ResultadosAlteradosEvent;
+
+/**
+ * ETags da tabela da temporada e do relatório da equipe: um 304 nunca é
+ * servido para um conteúdo mais antigo do que o ETag que ele valida, inclusive
+ * para ETags obtidos entre o commit de um resultado e sua aplicação nas
+ * estruturas em memória.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("teste")
+class EtagTests {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private ObjectMapper json;
+
+    @Autowired
+    private ConfigurableApplicationContext contexto;
+
+    /**
+     * Corpo servido com cada ETag, por URL.
+     */
+    private final Map<String, Map<String, String>> servidos = new HashMap<>();
+
+    @Test
+    void naoModificadoSoParaOConteudoDoEtag() throws Exception {
+        int mandante = criarEquipe("Etag A");
+        int visitante = criarEquipe("Etag B");
+        int temporada = corpo(post("/temporada").contentType(MediaType.APPLICATION_JSON).content("{\"ano\":2035}")).get("id").asInt();
+        mvc.perform(put("/temporada/" + temporada + "/equipes").contentType(MediaType.APPLICATION_JSON)
+                .content("[" + mandante + "," + visitante + "]"));
+        int partida = corpo(post("/partidas/" + mandante + "/" + visitante)).get("id").asInt();
+        List<String> urls = List.of("/temporada/" + temporada, "/equipes/relatorio/" + mandante);
+        Map<String, String> iniciais = new HashMap<>();
+        for (String url : urls) {
+            iniciais.put(url, consultar(url, null).getContentAsString());
+            assertEquals(304, consultar(url, etag(url, iniciais.get(url))).getStatus());
+        }
+
+        // Consulta cada URL depois do commit do set e antes de ele chegar à
+        // tabela e ao cache, com o ETag do conteúdo inicial.
+        Map<String, MockHttpServletResponse> entreCommitEAplicacao = new HashMap<>();
+        ApplicationListener<PayloadApplicationEvent<ResultadosAlteradosEvent>> ouvinte = ApplicationListener.forPayload(evento -> {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public int getOrder() {
+                    return Ordered.HIGHEST_PRECEDENCE;
+                }
+
+                @Override
+                public void afterCommit() {
+                    try {
+                        for (String url : urls) {
+                            entreCommitEAplicacao.put(url, consultar(url, etag(url, iniciais.get(url))));
+                        }
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+            });
+        });
+        contexto.addApplicationListener(ouvinte);
+        try {
+            mvc.perform(put("/partidas/sets/" + partida + "/1/25/20"));
+        } finally {
+            contexto.removeApplicationListener(ouvinte);
+        }
+        assertEquals(urls.size(), entreCommitEAplicacao.size());
+
+        for (String url : urls) {
+            MockHttpServletResponse atual = consultar(url, null);
+            assertNotEquals(iniciais.get(url), atual.getContentAsString(), url);
+            // Cada ETag já servido só pode ser validado com 304 se o corpo
+            // atual for o mesmo que foi servido com ele.
+            for (Map.Entry<String, String> servido : new ArrayList<>(servidos.get(url).entrySet())) {
+                MockHttpServletResponse condicional = consultar(url, servido.getKey());
+                if (condicional.getStatus() == 304) {
+                    assertEquals(servido.getValue(), atual.getContentAsString(), url + " " + servido.getKey());
+                } else {
+                    assertEquals(200, condicional.getStatus());
+                    assertEquals(atual.getContentAsString(), condicional.getContentAsString());
+                }
+            }
+            assertEquals(304, consultar(url, atual.getHeader(HttpHeaders.ETAG)).getStatus());
+        }
+    }
+
+    /**
+     * GET condicional. Guarda o corpo servido com o ETag de cada resposta 200.
+     */
+    private MockHttpServletResponse consultar(String url, String etag) throws Exception {
+        MockHttpServletRequestBuilder requisicao = get(url);
+        if (etag != null) {
+            requisicao.header(HttpHeaders.IF_NONE_MATCH, etag);
+        }
+        MockHttpServletResponse resposta = mvc.perform(requisicao).andReturn().getResponse();
+        if (resposta.getStatus() == 200) {
+            String servido = resposta.getHeader(HttpHeaders.ETAG);
+            assertNotNull(servido, url);
+            String anterior = servidos.computeIfAbsent(url, chave -> new HashMap<>()).putIfAbsent(servido, resposta.getContentAsString());
+            if (anterior != null) {
+                assertEquals(anterior, resposta.getContentAsString(), url + " " + servido);
+            }
+        }
+        return resposta;
+    }
+
+    private String etag(String url, String corpo) {
+        for (Map.Entry<String, String> servido : servidos.get(url).entrySet()) {
+            if (servido.getValue().equals(corpo)) {
+                return servido.getKey();
+            }
+        }
+        throw new IllegalStateException("Corpo nunca servido para " + url);
+    }
+
+    private int criarEquipe(String nome) throws Exception {
+        return corpo(post("/equipes").contentType(MediaType.APPLICATION_JSON)
+                .content(json.writeValueAsString(Map.of("nome", nome)))).get("idEquipe").asInt();
+    }
+
+    private JsonNode corpo(MockHttpServletRequestBuilder requisicao) throws Exception {
+        return json.readTree(mvc.perform(requisicao).andReturn().getResponse().getContentAsString());
+    }
+}
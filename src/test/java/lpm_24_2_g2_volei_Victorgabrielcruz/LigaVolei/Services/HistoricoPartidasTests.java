@@ -0,0 +1,123 @@
+package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Models.PartidaDeVolei;
+
+/**
+ * Histórico paginado por cursor: páginas seguem o ID da partida, incluem as
+ * partidas como mandante e como visitante, e o cursor só é null quando a
+ * página não vem cheia.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("teste")
+class HistoricoPartidasTests {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private ObjectMapper json;
+
+    @Test
+    void paginasRespeitamOCursor() throws Exception {
+        int equipe = criarEquipe("Historico A");
+        int outra = criarEquipe("Historico B");
+        int terceira = criarEquipe("Historico C");
+        List<Integer> partidas = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            int adversaria = i % 2 == 0 ? outra : terceira;
+            partidas.add(criarPartida(i % 2 == 0 ? equipe : adversaria, i % 2 == 0 ? adversaria : equipe));
+            // Partida sem a equipe entre as dela.
+            criarPartida(outra, terceira);
+        }
+        for (int set = 1; set <= 3; set++) {
+            mvc.perform(put("/partidas/sets/" + partidas.get(1) + "/" + set + "/20/25"));
+        }
+
+        // Páginas de 2: a última, incompleta, encerra com cursor null.
+        JsonNode pagina = pagina(equipe, 0, 2);
+        assertEquals(List.of(partidas.get(0), partidas.get(1)), ids(pagina));
+        assertEquals(partidas.get(1), pagina.get("proximoCursor").asInt());
+        pagina = pagina(equipe, pagina.get("proximoCursor").asInt(), 2);
+        assertEquals(List.of(partidas.get(2), partidas.get(3)), ids(pagina));
+        pagina = pagina(equipe, pagina.get("proximoCursor").asInt(), 2);
+        assertEquals(List.of(partidas.get(4)), ids(pagina));
+        assertTrue(pagina.get("proximoCursor").isNull());
+
+        // Uma página cheia até a última partida ainda tem cursor; a seguinte
+        // vem vazia e sem cursor.
+        pagina = pagina(equipe, 0, 5);
+        assertEquals(partidas, ids(pagina));
+        assertEquals(partidas.get(4), pagina.get("proximoCursor").asInt());
+        pagina = pagina(equipe, partidas.get(4), 5);
+        assertEquals(List.of(), ids(pagina));
+        assertTrue(pagina.get("proximoCursor").isNull());
+
+        // O cursor é exclusivo, e o limite fica entre 1 e o máximo.
+        assertEquals(List.of(partidas.get(3)), ids(pagina(equipe, partidas.get(2), 1)));
+        assertEquals(List.of(partidas.get(0)), ids(pagina(equipe, 0, 0)));
+        assertEquals(partidas, ids(pagina(equipe, 0, HistoricoPartidasService.LIMITE_MAXIMO + 1)));
+
+        // Os resumos trazem mandante, visitante e vencedor pelo lado.
+        JsonNode resumos = pagina(equipe, 0, 2).get("partidas");
+        assertEquals("Historico A", resumos.get(0).get("equipe1").asText());
+        assertEquals(PartidaDeVolei.EM_ANDAMENTO, resumos.get(0).get("vencedor").asText());
+        assertEquals("Historico C", resumos.get(1).get("equipe1").asText());
+        assertEquals("Historico A", resumos.get(1).get("equipe2").asText());
+        assertEquals(3, resumos.get(1).get("setsEquipe2").asInt());
+        assertEquals(3, resumos.get(1).get("setsDisputados").asInt());
+        assertEquals("Historico A", resumos.get(1).get("vencedor").asText());
+
+        String transmitido = mvc.perform(get("/equipes/partidas/" + equipe + "/stream")).andReturn().getResponse()
+                .getContentAsString();
+        assertEquals(5, transmitido.lines().count());
+    }
+
+    private JsonNode pagina(int equipe, int apos, int limite) throws Exception {
+        return corpo(get("/equipes/partidas/" + equipe + "/pagina").param("apos", String.valueOf(apos))
+                .param("limite", String.valueOf(limite)));
+    }
+
+    private List<Integer> ids(JsonNode pagina) {
+        List<Integer> ids = new ArrayList<>();
+        for (JsonNode partida : pagina.get("partidas")) {
+            ids.add(partida.get("id").asInt());
+        }
+        return ids;
+    }
+
+    private int criarPartida(int mandante, int visitante) throws Exception {
+        return corpo(post("/partidas/" + mandante + "/" + visitante)).get("id").asInt();
+    }
+
+    private int criarEquipe(String nome) throws Exception {
+        return corpo(post("/equipes").contentType(MediaType.APPLICATION_JSON)
+                .content(json.writeValueAsString(Map.of("nome", nome)))).get("idEquipe").asInt();
+    }
+
+    private JsonNode corpo(MockHttpServletRequestBuilder requisicao) throws Exception {
+        return json.readTree(mvc.perform(requisicao).andReturn().getResponse().getContentAsString());
+    }
+}
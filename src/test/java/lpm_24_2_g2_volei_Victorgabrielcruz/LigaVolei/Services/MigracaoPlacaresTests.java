@@ -0,0 +1,163 @@
+package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Models.Equipe;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Models.PartidaAoVivo;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Models.PartidaDeVolei;
+
+/**
+ * Placares: os pontos gravados na antiga tabela de pontuações são copiados
+ * uma única vez para o placar compacto, com os contadores das equipes
+ * recalculados, e pontuações que não cabem no placar são recusadas. Partidas
+ * sem mandante e visitante os recebem da tabela de junção na inicialização.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("teste")
+class MigracaoPlacaresTests {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private ObjectMapper json;
+
+    @Autowired
+    private MigracaoPlacaresService migracao;
+
+    @Autowired
+    private PlatformTransactionManager gerenciadorTransacoes;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Test
+    void placaresAntigosSaoMigrados() throws Exception {
+        List<Integer> ids = new ArrayList<>();
+        for (JsonNode equipe : corpo(post("/VariasEquipes"),
+                List.of(Map.of("nome", "Antiga A"), Map.of("nome", "Antiga B")))) {
+            ids.add(equipe.get("idEquipe").asInt());
+        }
+        int decidida = corpo(post("/partidas/" + ids.get(0) + "/" + ids.get(1)), null).get("id").asInt();
+        int grande = corpo(post("/partidas/" + ids.get(0) + "/" + ids.get(1)), null).get("id").asInt();
+
+        new TransactionTemplate(gerenciadorTransacoes).executeWithoutResult(status -> {
+            em.createNativeQuery("CREATE TABLE " + MigracaoPlacaresService.TABELA_ANTIGA
+                    + " (partida_de_volei_id integer not null, pontuacoes integer array)").executeUpdate();
+            inserir(decidida, "ARRAY[25, 25, 25]");
+            inserir(decidida, "ARRAY[20, 18, 23]");
+            inserir(grande, "ARRAY[5000, 25]");
+            inserir(grande, "ARRAY[4998, 20]");
+        });
+        migracao.migrar();
+
+        JsonNode resultado = corpo(get("/partidas/vencedor/" + decidida), null);
+        assertEquals("ENCERRADA", resultado.get("status").asText());
+        assertEquals(ids.get(0), resultado.get("idVencedor").asInt());
+        assertEquals(3, resultado.get("setsMandante").asInt());
+        assertEquals("AGENDADA", corpo(get("/partidas/vencedor/" + grande), null).get("status").asText());
+        assertEquals(1, corpo(get("/equipes/" + ids.get(0)), null).get("vitorias").asInt());
+        assertEquals(1, corpo(get("/equipes/" + ids.get(1)), null).get("derrotas").asInt());
+
+        // A tabela antiga é renomeada, e uma nova execução não faz nada.
+        assertEquals(0L, tabelas(MigracaoPlacaresService.TABELA_ANTIGA));
+        assertEquals(1L, tabelas(MigracaoPlacaresService.TABELA_ANTIGA + "_migrada"));
+        migracao.migrar();
+        assertEquals(1, corpo(get("/equipes/" + ids.get(0)), null).get("vitorias").asInt());
+    }
+
+    @Test
+    void mandanteEVisitanteSaoPreenchidos() throws Exception {
+        List<Integer> ids = new ArrayList<>();
+        for (JsonNode equipe : corpo(post("/VariasEquipes"),
+                List.of(Map.of("nome", "Legado A"), Map.of("nome", "Legado B")))) {
+            ids.add(equipe.get("idEquipe").asInt());
+        }
+        int temporada = corpo(post("/temporada"), Map.of("ano", 2036)).get("id").asInt();
+        mvc.perform(put("/temporada/" + temporada + "/equipes").contentType(MediaType.APPLICATION_JSON)
+                .content(json.writeValueAsString(ids)));
+        // O visitante vence, para que um lado trocado apareça no resultado.
+        int partida = corpo(post("/partidas/" + ids.get(0) + "/" + ids.get(1)), null).get("id").asInt();
+        for (int set = 1; set <= 3; set++) {
+            mvc.perform(put("/partidas/sets/" + partida + "/" + set + "/20/25"));
+        }
+        new TransactionTemplate(gerenciadorTransacoes).executeWithoutResult(status -> em.createNativeQuery(
+                "UPDATE partidas SET id_mandante = 0, id_visitante = 0 WHERE id = " + partida).executeUpdate());
+        for (JsonNode linha : corpo(get("/temporada/" + temporada + "/agregada"), null)) {
+            assertEquals(0, linha.get("vitorias").asInt() + linha.get("derrotas").asInt());
+        }
+
+        migracao.migrar();
+
+        JsonNode resultado = corpo(get("/partidas/vencedor/" + partida), null);
+        assertEquals(ids.get(0), resultado.get("idMandante").asInt());
+        assertEquals(ids.get(1), resultado.get("idVisitante").asInt());
+        assertEquals(ids.get(1), resultado.get("idVencedor").asInt());
+        JsonNode agregada = corpo(get("/temporada/" + temporada + "/agregada"), null);
+        assertEquals("Legado B", agregada.get(0).get("nome").asText());
+        assertEquals(1, agregada.get(0).get("vitorias").asInt());
+        assertEquals(1, agregada.get(1).get("derrotas").asInt());
+    }
+
+    @Test
+    void pontuacoesForaDoPlacarSaoRecusadas() {
+        PartidaDeVolei partida = new PartidaDeVolei(new Equipe("Limite A"), new Equipe("Limite B"));
+        assertFalse(partida.registrarPlacarSet(1, 4097, 4095));
+        assertFalse(partida.registrarPlacarSet(1, 25, -3));
+        assertEquals(0, partida.setsDisputados());
+        assertFalse(partida.restaurarPlacar(List.of(4096), List.of(20)));
+
+        PartidaAoVivo aoVivo = partida.aoVivo();
+        for (int ponto = 0; ponto < 4094; ponto++) {
+            aoVivo.marcarPonto(0);
+            aoVivo.marcarPonto(1);
+        }
+        aoVivo.marcarPonto(0);
+        aoVivo.marcarPonto(1);
+        assertNull(aoVivo.marcarPonto(0));
+    }
+
+    private void inserir(int partida, String pontos) {
+        em.createNativeQuery("INSERT INTO " + MigracaoPlacaresService.TABELA_ANTIGA + " VALUES (" + partida + ", " + pontos
+                + ")").executeUpdate();
+    }
+
+    private long tabelas(String nome) {
+        return new TransactionTemplate(gerenciadorTransacoes).execute(status -> ((Number) em.createNativeQuery(
+                "SELECT COUNT(*) FROM information_schema.tables WHERE LOWER(table_name) = '" + nome + "'")
+                .getSingleResult()).longValue());
+    }
+
+    private JsonNode corpo(MockHttpServletRequestBuilder requisicao, Object conteudo) throws Exception {
+        if (conteudo != null) {
+            requisicao.contentType(MediaType.APPLICATION_JSON).content(json.writeValueAsString(conteudo));
+        }
+        return json.readTree(mvc.perform(requisicao).andReturn().getResponse().getContentAsString());
+    }
+}
@@ -0,0 +1,153 @@
+package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Models.PartidaDeVolei;
+
+/**
+ * Pontuação rali a rali: o saque acompanha quem vence o rali, o set se
+ * encerra no placar final válido e só é gravado na descarga da fila. Partidas
+ * decididas e ociosas não ficam em memória.
+ */
+@SpringBootTest(properties = {"liga.aovivo.gravacao.intervalo=PT1H", "liga.aovivo.ociosa=PT0.2S",
+    "liga.aovivo.ociosa.varredura=PT1H"})
+@AutoConfigureMockMvc
+@ActiveProfiles("teste")
+class PartidaAoVivoTests {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private ObjectMapper json;
+
+    @Autowired
+    private PartidaAoVivoService partidaAoVivoService;
+
+    @Autowired
+    private PlatformTransactionManager gerenciadorTransacoes;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Test
+    void setPontuadoAoVivoEGravadoNaDescarga() throws Exception {
+        int mandante = criarEquipe("Rali A");
+        int visitante = criarEquipe("Rali B");
+        int partida = corpo(post("/partidas/" + mandante + "/" + visitante)).get("id").asInt();
+
+        JsonNode ponto = null;
+        for (int i = 0; i < 20; i++) {
+            ponto = ponto(partida, 1);
+            assertEquals(1, ponto.get("saque").asInt());
+            ponto = ponto(partida, 0);
+            assertEquals(0, ponto.get("saque").asInt());
+            assertFalse(ponto.get("setEncerrado").asBoolean());
+        }
+        for (int i = 0; i < 4; i++) {
+            ponto = ponto(partida, 0);
+            assertFalse(ponto.get("setEncerrado").asBoolean());
+        }
+        ponto = ponto(partida, 0);
+        assertTrue(ponto.get("setEncerrado").asBoolean());
+        assertEquals(1, ponto.get("set").asInt());
+        assertEquals(25, ponto.get("pontosMandante").asInt());
+        assertEquals(20, ponto.get("pontosVisitante").asInt());
+        assertEquals(1, ponto.get("setsMandante").asInt());
+
+        // O set 2 começa zerado, com o saque do visitante.
+        ponto = ponto(partida, 1);
+        assertEquals(2, ponto.get("set").asInt());
+        assertEquals(1, ponto.get("pontosVisitante").asInt());
+
+        TransactionTemplate transacao = new TransactionTemplate(gerenciadorTransacoes);
+        transacao.executeWithoutResult(status ->
+                assertEquals(0, em.find(PartidaDeVolei.class, partida).setsDisputados()));
+        partidaAoVivoService.gravarPendentes();
+        transacao.executeWithoutResult(status ->
+                assertEquals(1, em.find(PartidaDeVolei.class, partida).setsDisputados()));
+    }
+
+    @Test
+    void timeInvalidoNaoMarcaPonto() throws Exception {
+        int mandante = criarEquipe("Rali C");
+        int visitante = criarEquipe("Rali D");
+        int partida = corpo(post("/partidas/" + mandante + "/" + visitante)).get("id").asInt();
+
+        assertEquals("", mvc.perform(post("/partidas/aovivo/" + partida + "/ponto/2"))
+                .andReturn().getResponse().getContentAsString());
+        assertEquals(1, ponto(partida, 0).get("pontosMandante").asInt());
+    }
+
+    @Test
+    void partidaDecididaNaoFicaEmMemoria() throws Exception {
+        int partida = corpo(post("/partidas/" + criarEquipe("Rali E") + "/" + criarEquipe("Rali F"))).get("id").asInt();
+        for (int set = 1; set <= 3; set++) {
+            mvc.perform(put("/partidas/sets/" + partida + "/" + set + "/25/20"));
+        }
+
+        assertEquals("", mvc.perform(post("/partidas/aovivo/" + partida + "/ponto/0"))
+                .andReturn().getResponse().getContentAsString());
+        assertFalse(partidaAoVivoService.emMemoria(partida));
+    }
+
+    @Test
+    void partidaOciosaEDescartada() throws Exception {
+        int ociosa = corpo(post("/partidas/" + criarEquipe("Rali G") + "/" + criarEquipe("Rali H"))).get("id").asInt();
+        int pendente = corpo(post("/partidas/" + criarEquipe("Rali I") + "/" + criarEquipe("Rali J"))).get("id").asInt();
+        ponto(ociosa, 0);
+        for (int i = 0; i < 25; i++) {
+            ponto(pendente, 0);
+        }
+        Thread.sleep(300);
+
+        // O set encerrado ainda na fila mantém a partida em memória.
+        partidaAoVivoService.descartarOciosas();
+        assertFalse(partidaAoVivoService.emMemoria(ociosa));
+        assertTrue(partidaAoVivoService.emMemoria(pendente));
+        partidaAoVivoService.gravarPendentes();
+        partidaAoVivoService.descartarOciosas();
+        assertFalse(partidaAoVivoService.emMemoria(pendente));
+
+        // O próximo ponto recarrega a partida do banco, sem o set em disputa.
+        assertEquals(1, ponto(ociosa, 0).get("pontosMandante").asInt());
+        JsonNode ponto = ponto(pendente, 1);
+        assertEquals(2, ponto.get("set").asInt());
+        assertEquals(1, ponto.get("setsMandante").asInt());
+    }
+
+    private JsonNode ponto(int partida, int time) throws Exception {
+        return corpo(post("/partidas/aovivo/" + partida + "/ponto/" + time));
+    }
+
+    private int criarEquipe(String nome) throws Exception {
+        return corpo(post("/equipes").contentType(MediaType.APPLICATION_JSON)
+                .content(json.writeValueAsString(Map.of("nome", nome)))).get("idEquipe").asInt();
+    }
+
+    private JsonNode corpo(MockHttpServletRequestBuilder requisicao) throws Exception {
+        return json.readTree(mvc.perform(requisicao).andReturn().getResponse().getContentAsString());
+    }
+}
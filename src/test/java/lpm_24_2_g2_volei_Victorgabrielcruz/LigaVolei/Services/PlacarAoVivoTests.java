@@ -0,0 +1,108 @@
+package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Assinaturas ao vivo por partida e por temporada recebem o placar a cada set
+ * registrado.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("teste")
+class PlacarAoVivoTests {
+
+    @LocalServerPort
+    private int porta;
+
+    @Autowired
+    private ObjectMapper json;
+
+    private final HttpClient cliente = HttpClient.newHttpClient();
+
+    @Test
+    void assinantesRecebemCadaSetRegistrado() throws Exception {
+        int mandante = corpo("POST", "/equipes", "{\"nome\":\"Ao Vivo A\"}").get("idEquipe").asInt();
+        int visitante = corpo("POST", "/equipes", "{\"nome\":\"Ao Vivo B\"}").get("idEquipe").asInt();
+        int temporada = corpo("POST", "/temporada", "{\"ano\":2025}").get("id").asInt();
+        requisitar("PUT", "/temporada/" + temporada + "/equipes", "[" + mandante + "," + visitante + "]");
+        int partida = corpo("POST", "/partidas/" + mandante + "/" + visitante, null).get("id").asInt();
+
+        Iterator<String> daPartida = assinar("/partidas/aovivo/" + partida);
+        Iterator<String> daTemporada = assinar("/temporada/" + temporada + "/aovivo");
+
+        JsonNode inicial = proximoPlacar(daPartida);
+        assertEquals(partida, inicial.get("partida").asInt());
+        assertEquals(0, inicial.get("pontosMandante").size());
+
+        requisitar("PUT", "/partidas/sets/" + partida + "/1/25/20", null);
+        requisitar("PUT", "/partidas/sets/" + partida + "/2/18/25", null);
+
+        for (Iterator<String> assinatura : List.of(daPartida, daTemporada)) {
+            JsonNode placar = proximoPlacar(assinatura);
+            while (placar.get("pontosMandante").size() < 2) {
+                placar = proximoPlacar(assinatura);
+            }
+            assertEquals(partida, placar.get("partida").asInt());
+            assertEquals(mandante, placar.get("mandante").asInt());
+            assertEquals(25, placar.get("pontosMandante").get(0).asInt());
+            assertEquals(25, placar.get("pontosVisitante").get(1).asInt());
+            assertEquals(1, placar.get("setsMandante").asInt());
+            assertEquals(1, placar.get("setsVisitante").asInt());
+            assertEquals(-1, placar.get("vencedor").asInt());
+        }
+    }
+
+    private Iterator<String> assinar(String caminho) throws Exception {
+        HttpRequest requisicao = HttpRequest.newBuilder(URI.create("http://localhost:" + porta + caminho))
+                .header("Accept", "text/event-stream")
+                .build();
+        HttpResponse<Stream<String>> resposta = cliente.send(requisicao, HttpResponse.BodyHandlers.ofLines());
+        assertEquals(200, resposta.statusCode());
+        return resposta.body().iterator();
+    }
+
+    private JsonNode proximoPlacar(Iterator<String> linhas) throws Exception {
+        String dados = CompletableFuture.supplyAsync(() -> {
+            while (linhas.hasNext()) {
+                String linha = linhas.next();
+                if (linha.startsWith("data:")) {
+                    return linha.substring(5);
+                }
+            }
+            return null;
+        }).get(10, TimeUnit.SECONDS);
+        return json.readTree(dados);
+    }
+
+    private JsonNode corpo(String metodo, String caminho, String corpo) throws Exception {
+        return json.readTree(requisitar(metodo, caminho, corpo));
+    }
+
+    private String requisitar(String metodo, String caminho, String corpo) throws Exception {
+        HttpRequest requisicao = HttpRequest.newBuilder(URI.create("http://localhost:" + porta + caminho))
+                .header("Content-Type", "application/json")
+                .method(metodo, corpo == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(corpo))
+                .build();
+        HttpResponse<String> resposta = cliente.send(requisicao, HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, resposta.statusCode(), metodo + " " + caminho + ": " + resposta.body());
+        return resposta.body();
+    }
+}
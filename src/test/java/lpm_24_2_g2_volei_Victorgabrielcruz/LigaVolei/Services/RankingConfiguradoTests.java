@@ -0,0 +1,93 @@
+package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Com critérios diferentes do padrão em {@code liga.classificacao.criterios},
+ * a tabela, o líder, a classificação agregada e o ranking da temporada seguem
+ * todos a mesma ordem.
+ */
+@SpringBootTest(properties = "liga.classificacao.criterios=RAZAO_PONTOS,VITORIAS")
+@AutoConfigureMockMvc
+@ActiveProfiles("teste")
+class RankingConfiguradoTests {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private ObjectMapper json;
+
+    @Test
+    void todasAsClassificacoesSeguemOsCriteriosConfigurados() throws Exception {
+        List<String> nomes = List.of("Razao A", "Razao B", "Razao C");
+        List<Integer> ids = new ArrayList<>();
+        for (JsonNode equipe : corpo(post("/VariasEquipes"),
+                List.of(Map.of("nome", nomes.get(0)), Map.of("nome", nomes.get(1)), Map.of("nome", nomes.get(2))))) {
+            ids.add(equipe.get("idEquipe").asInt());
+        }
+        int temporada = corpo(post("/temporada"), Map.of("ano", 2034)).get("id").asInt();
+        corpo(put("/temporada/" + temporada + "/equipes"), ids);
+        // Tabela carregada em memória antes dos resultados, que chegam por
+        // atualização incremental.
+        mvc.perform(get("/temporada/" + temporada));
+
+        // A vence B por 3-0 no detalhe; C perde de B por 2-3, mas com mais
+        // pontos. Pelo aproveitamento a ordem seria A, B, C; pela razão de
+        // pontos é C (109/75), A (75/69), B (144/184).
+        int ab = corpo(post("/partidas/" + ids.get(0) + "/" + ids.get(1)), null).get("id").asInt();
+        int cb = corpo(post("/partidas/" + ids.get(2) + "/" + ids.get(1)), null).get("id").asInt();
+        List<Map<String, Integer>> sets = new ArrayList<>();
+        for (int set = 1; set <= 3; set++) {
+            sets.add(Map.of("id", ab, "set", set, "placar1", 25, "placar2", 23));
+        }
+        int[][] placares = {{25, 5}, {25, 5}, {23, 25}, {23, 25}, {13, 15}};
+        for (int set = 1; set <= placares.length; set++) {
+            sets.add(Map.of("id", cb, "set", set, "placar1", placares[set - 1][0], "placar2", placares[set - 1][1]));
+        }
+        corpo(put("/partidas/sets"), Map.of("sets", sets));
+
+        List<Integer> esperada = List.of(ids.get(2), ids.get(0), ids.get(1));
+        JsonNode ranking = corpo(get("/temporada/" + temporada + "/ranking"), null);
+        for (int p = 0; p < esperada.size(); p++) {
+            assertEquals(esperada.get(p), ranking.get(p).get("idEquipe").asInt());
+        }
+        assertEquals(esperada.get(0), corpo(get("/temporada/LiderTemporada/" + temporada), null).get("idEquipe").asInt());
+
+        JsonNode agregada = corpo(get("/temporada/" + temporada + "/agregada"), null);
+        String tabela = mvc.perform(get("/temporada/" + temporada)).andReturn().getResponse().getContentAsString();
+        List<String> ordem = List.of(nomes.get(2), nomes.get(0), nomes.get(1));
+        for (int p = 0; p < ordem.size(); p++) {
+            assertEquals(ordem.get(p), agregada.get(p).get("nome").asText());
+        }
+        assertTrue(tabela.indexOf(ordem.get(0)) < tabela.indexOf(ordem.get(1))
+                && tabela.indexOf(ordem.get(1)) < tabela.indexOf(ordem.get(2)), tabela);
+    }
+
+    private JsonNode corpo(MockHttpServletRequestBuilder requisicao, Object conteudo) throws Exception {
+        if (conteudo != null) {
+            requisicao.contentType(MediaType.APPLICATION_JSON).content(json.writeValueAsString(conteudo));
+        }
+        return json.readTree(mvc.perform(requisicao).andReturn().getResponse().getContentAsString());
+    }
+}
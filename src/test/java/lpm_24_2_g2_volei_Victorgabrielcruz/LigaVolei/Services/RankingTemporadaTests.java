@@ -0,0 +1,216 @@
+package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Services;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Carga.GeradorLiga;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.DTO.LinhaClassificacao;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Models.ColunasClassificacao;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Models.CriterioClassificacao;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Models.RankingTemporada;
+
+/**
+ * Ranking por critérios de desempate: cada critério decide o que os
+ * anteriores deixam empatado, o confronto direto conta só os jogos entre as
+ * empatadas, linhas e colunas são ordenadas da mesma forma e o ranking
+ * configurado repete a ordem da classificação e aponta o mesmo líder. O
+ * tempo de ordenação é medido no benchmark JMH {@code TemporadaBenchmark}.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("teste")
+class RankingTemporadaTests {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private ObjectMapper json;
+
+    @Autowired
+    private ClassificacaoService classificacaoService;
+
+    @Test
+    void razaoDePontosDesempataSetsIguais() {
+        ColunasClassificacao colunas = new ColunasClassificacao(3);
+        colunas.adicionarEquipe(1, "A", 4, 2, 2, 7, 14, 300, 310);
+        colunas.adicionarEquipe(2, "B", 4, 2, 2, 7, 14, 320, 300);
+        colunas.adicionarEquipe(3, "C", 4, 2, 2, 7, 14, 0, 0);
+
+        assertArrayEquals(new int[] {0, 1, 2}, RankingTemporada.PADRAO.ordenar(colunas));
+        assertArrayEquals(new int[] {1, 0, 2}, ranking(CriterioClassificacao.APROVEITAMENTO,
+                CriterioClassificacao.APROVEITAMENTO_SETS, CriterioClassificacao.RAZAO_PONTOS).ordenar(colunas));
+    }
+
+    @Test
+    void vitoriaNoQuintoSetValeMenosPontos() {
+        ColunasClassificacao colunas = new ColunasClassificacao(4);
+        for (int id = 1; id <= 4; id++) {
+            colunas.adicionarEquipe(id, "E" + id, 1, 0, 0, 0, 0, 0, 0);
+        }
+        colunas.adicionarResultado(0, 1, 3, 2);
+        colunas.adicionarResultado(3, 2, 0, 3);
+
+        assertEquals(2, colunas.pontosPartida(0));
+        assertEquals(1, colunas.pontosPartida(1));
+        assertEquals(3, colunas.pontosPartida(2));
+        assertEquals(0, colunas.pontosPartida(3));
+        assertArrayEquals(new int[] {2, 0, 1, 3}, ranking(CriterioClassificacao.PONTOS_PARTIDA).ordenar(colunas));
+    }
+
+    @Test
+    void confrontoDiretoContaSoJogosEntreEmpatadas() {
+        ColunasClassificacao colunas = new ColunasClassificacao(4);
+        colunas.adicionarEquipe(1, "A", 3, 2, 1, 0, 0, 0, 0);
+        colunas.adicionarEquipe(2, "B", 3, 2, 1, 0, 0, 0, 0);
+        colunas.adicionarEquipe(3, "C", 3, 2, 1, 0, 0, 0, 0);
+        colunas.adicionarEquipe(4, "D", 3, 1, 2, 0, 0, 0, 0);
+        // B venceu A; D venceu C, mas D não está empatada com ninguém.
+        colunas.adicionarResultado(1, 0, 3, 1);
+        colunas.adicionarResultado(3, 2, 3, 0);
+
+        RankingTemporada ranking = ranking(CriterioClassificacao.VITORIAS, CriterioClassificacao.CONFRONTO_DIRETO);
+        assertArrayEquals(new int[] {1, 0, 2, 3}, ranking.ordenar(colunas));
+        assertArrayEquals(new int[] {0, 1, 2, 3}, ranking(CriterioClassificacao.VITORIAS).ordenar(colunas));
+    }
+
+    @Test
+    void linhasEColunasSeguemAMesmaOrdem() {
+        SplittableRandom aleatorio = new SplittableRandom(11);
+        List<CriterioClassificacao> contadores = new ArrayList<>();
+        for (CriterioClassificacao criterio : CriterioClassificacao.values()) {
+            if (!criterio.dependeDeResultados()) {
+                contadores.add(criterio);
+            }
+        }
+        for (int rodada = 0; rodada < 20; rodada++) {
+            List<CriterioClassificacao> criterios = new ArrayList<>();
+            for (int c = 0; c < 1 + aleatorio.nextInt(3); c++) {
+                criterios.add(contadores.get(aleatorio.nextInt(contadores.size())));
+            }
+            RankingTemporada ranking = rodada == 0 ? RankingTemporada.PADRAO : new RankingTemporada(criterios);
+            int n = 1 + aleatorio.nextInt(300);
+            ColunasClassificacao colunas = new ColunasClassificacao(n);
+            List<LinhaClassificacao> linhas = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                // Valores pequenos para forçar empates em todos os critérios.
+                int id = 1 + aleatorio.nextInt(1_000_000);
+                int partidas = aleatorio.nextInt(4);
+                int vitorias = partidas == 0 ? 0 : aleatorio.nextInt(partidas + 1);
+                int setsDisputados = 3 * vitorias + 3 * (partidas - vitorias);
+                int setsVencidos = 3 * vitorias;
+                int pontosPro = 25 * aleatorio.nextInt(3);
+                int pontosContra = 25 * aleatorio.nextInt(3);
+                colunas.adicionarEquipe(id, "E" + i, partidas, vitorias, partidas - vitorias, setsVencidos,
+                        setsDisputados, pontosPro, pontosContra);
+                linhas.add(new LinhaClassificacao(id, "E" + i, partidas, vitorias, partidas - vitorias, setsVencidos,
+                        setsDisputados, pontosPro, pontosContra));
+            }
+            linhas.sort(ranking.comparador());
+            int[] ordem = ranking.ordenar(colunas);
+            for (int p = 0; p < n; p++) {
+                assertEquals(linhas.get(p).idEquipe(), colunas.id(ordem[p]), ranking.criterios().toString());
+            }
+            assertEquals(linhas.get(0).idEquipe(), colunas.id(ranking.primeiro(colunas)));
+        }
+    }
+
+    @Test
+    void classificacaoSoAceitaCriteriosDosContadores() {
+        assertThrows(IllegalStateException.class,
+                () -> ranking(CriterioClassificacao.VITORIAS, CriterioClassificacao.CONFRONTO_DIRETO).comparador());
+        assertThrows(IllegalArgumentException.class, () -> new ClassificacaoService(null, null,
+                Path.of("nao-usado.snapshot"), true, null, List.of(CriterioClassificacao.PONTOS_PARTIDA)));
+    }
+
+    @Test
+    void endpointOrdenaPelosCriterios() throws Exception {
+        GeradorLiga gerador = new GeradorLiga(17);
+        List<Map<String, String>> novas = new ArrayList<>();
+        for (String nome : gerador.nomesEquipes(8)) {
+            novas.add(Map.of("nome", nome + " Ranking"));
+        }
+        List<Integer> ids = new ArrayList<>();
+        for (JsonNode equipe : corpo(post("/VariasEquipes"), novas)) {
+            ids.add(equipe.get("idEquipe").asInt());
+        }
+        int temporada = corpo(post("/temporada"), Map.of("ano", 2033)).get("id").asInt();
+        corpo(put("/temporada/" + temporada + "/equipes"), ids);
+        List<Map<String, Integer>> confrontos = new ArrayList<>();
+        for (int[] par : GeradorLiga.turnoCompleto(ids.size())) {
+            confrontos.add(Map.of("id1", ids.get(par[0]), "id2", ids.get(par[1])));
+        }
+
+        List<Map<String, Integer>> sets = new ArrayList<>();
+        for (JsonNode partida : corpo(post("/partidas"), Map.of("partidas", confrontos)).get("partidas")) {
+            for (int[] set : gerador.setsDePartida()) {
+                sets.add(Map.of("id", partida.get("id").asInt(), "set", set[0], "placar1", set[1], "placar2", set[2]));
+            }
+        }
+        corpo(put("/partidas/sets"), Map.of("sets", sets));
+
+        JsonNode padrao = corpo(get("/temporada/" + temporada + "/ranking")
+                .param("criterios", "APROVEITAMENTO,APROVEITAMENTO_SETS"), null);
+        List<LinhaClassificacao> agregada = classificacaoService.classificacaoAgregada(temporada);
+        assertEquals(agregada.size(), padrao.size());
+        for (int p = 0; p < agregada.size(); p++) {
+            assertEquals(p + 1, padrao.get(p).get("posicao").asInt());
+            assertEquals(agregada.get(p).idEquipe(), padrao.get(p).get("idEquipe").asInt());
+        }
+
+        JsonNode porPontos = corpo(get("/temporada/" + temporada + "/ranking").param("criterios", "PONTOS_PARTIDA"), null);
+        int pontos = 0;
+        for (int p = 0; p < porPontos.size(); p++) {
+            pontos += porPontos.get(p).get("pontosPartida").asInt();
+            if (p > 0) {
+                assertTrue(porPontos.get(p - 1).get("pontosPartida").asInt()
+                        >= porPontos.get(p).get("pontosPartida").asInt());
+            }
+        }
+        // 3 pontos por partida, ou 2 + 1 nas decididas no 5º set.
+        assertEquals(confrontos.size() * 3, pontos);
+
+        // Sem critérios na requisição, vale a configuração, que por padrão é a
+        // mesma ordem da classificação e do líder da temporada.
+        JsonNode configurado = corpo(get("/temporada/" + temporada + "/ranking"), null);
+        assertEquals(padrao, configurado);
+        assertEquals(configurado.get(0).get("idEquipe").asInt(),
+                corpo(get("/temporada/LiderTemporada/" + temporada), null).get("idEquipe").asInt());
+        assertEquals(400, mvc.perform(get("/temporada/" + temporada + "/ranking").param("criterios", "SORTEIO"))
+                .andReturn().getResponse().getStatus());
+    }
+
+    private static RankingTemporada ranking(CriterioClassificacao... criterios) {
+        return new RankingTemporada(List.of(criterios));
+    }
+
+    private JsonNode corpo(MockHttpServletRequestBuilder requisicao, Object conteudo) throws Exception {
+        if (conteudo != null) {
+            requisicao.contentType(MediaType.APPLICATION_JSON).content(json.writeValueAsString(conteudo));
+        }
+        return json.readTree(mvc.perform(requisicao).andReturn().getResponse().getContentAsString());
+    }
+}
@@ -0,0 +1,131 @@
+package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.DTO.LinhaClassificacao;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.DTO.ResultadoPartidaDTO;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Models.Equipe;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Models.PartidaDeVolei;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Models.StatusPartida;
+
+/**
+ * Resultado da partida por lado e ID: a situação acompanha os sets
+ * registrados, equipes com o mesmo nome não se confundem no recálculo dos
+ * contadores e o endpoint devolve o resultado em JSON.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("teste")
+class ResultadoPartidaTests {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private ObjectMapper json;
+
+    @Test
+    void situacaoAcompanhaOsSets() {
+        PartidaDeVolei partida = new PartidaDeVolei(new Equipe("Mandante"), new Equipe("Visitante"));
+        assertEquals(StatusPartida.AGENDADA, partida.status());
+
+        partida.registrarPlacarSet(1, 20, 25);
+        ResultadoPartidaDTO andamento = partida.resultado();
+        assertEquals(StatusPartida.EM_ANDAMENTO, andamento.status());
+        assertEquals(-1, andamento.ladoVencedor());
+        assertNull(andamento.idVencedor());
+
+        partida.registrarPlacarSet(2, 22, 25);
+        partida.registrarPlacarSet(3, 25, 27);
+        ResultadoPartidaDTO encerrada = partida.resultado();
+        assertEquals(StatusPartida.ENCERRADA, encerrada.status());
+        assertEquals(1, encerrada.ladoVencedor());
+        assertEquals(0, encerrada.setsMandante());
+        assertEquals(3, encerrada.setsVisitante());
+    }
+
+    @Test
+    void equipesComOMesmoNomeNaoSeConfundem() {
+        Equipe mandante = new Equipe("Homônima");
+        Equipe visitante = new Equipe("Homônima");
+        PartidaDeVolei partida = new PartidaDeVolei(mandante, visitante);
+        mandante.registrarPartida(partida);
+        visitante.registrarPartida(partida);
+        partida.registrarPlacarSet(1, 25, 20);
+        partida.registrarPlacarSet(2, 20, 25);
+        partida.registrarPlacarSet(3, 18, 25);
+        partida.registrarPlacarSet(4, 23, 25);
+
+        // Os contadores mantidos a cada set batem com o recálculo pelas partidas.
+        assertFalse(mandante.recalcularEstatisticas());
+        assertFalse(visitante.recalcularEstatisticas());
+        LinhaClassificacao linhaMandante = mandante.linhaClassificacao();
+        LinhaClassificacao linhaVisitante = visitante.linhaClassificacao();
+        assertEquals(0, linhaMandante.vitorias());
+        assertEquals(1, linhaMandante.derrotas());
+        assertEquals(1, linhaVisitante.vitorias());
+        assertEquals(0, linhaVisitante.derrotas());
+        assertTrue(linhaVisitante.aproveitamentoSets() > linhaMandante.aproveitamentoSets());
+    }
+
+    @Test
+    void endpointDevolveOResultado() throws Exception {
+        List<Map<String, String>> novas = new ArrayList<>();
+        for (String nome : List.of("Resultado A", "Resultado B")) {
+            novas.add(Map.of("nome", nome));
+        }
+        List<Integer> ids = new ArrayList<>();
+        for (JsonNode equipe : corpo(post("/VariasEquipes"), novas)) {
+            ids.add(equipe.get("idEquipe").asInt());
+        }
+        int partida = corpo(post("/partidas/" + ids.get(0) + "/" + ids.get(1)), null).get("id").asInt();
+
+        JsonNode agendada = corpo(get("/partidas/vencedor/" + partida), null);
+        assertEquals("AGENDADA", agendada.get("status").asText());
+        assertEquals(ids.get(0), agendada.get("idMandante").asInt());
+        assertEquals(ids.get(1), agendada.get("idVisitante").asInt());
+        assertTrue(agendada.get("idVencedor").isNull());
+
+        for (int set = 1; set <= 3; set++) {
+            corpo(put("/partidas/sets/" + partida + "/" + set + "/25/" + (15 + set)), null);
+        }
+        JsonNode encerrada = corpo(get("/partidas/vencedor/" + partida), null);
+        assertEquals("ENCERRADA", encerrada.get("status").asText());
+        assertEquals(0, encerrada.get("ladoVencedor").asInt());
+        assertEquals(ids.get(0), encerrada.get("idVencedor").asInt());
+        assertEquals(3, encerrada.get("setsMandante").asInt());
+        assertEquals(0, encerrada.get("setsVisitante").asInt());
+
+        assertEquals("", mvc.perform(get("/partidas/vencedor/" + Integer.MAX_VALUE))
+                .andReturn().getResponse().getContentAsString());
+    }
+
+    private JsonNode corpo(MockHttpServletRequestBuilder requisicao, Object conteudo) throws Exception {
+        if (conteudo != null) {
+            requisicao.contentType(MediaType.APPLICATION_JSON).content(json.writeValueAsString(conteudo));
+        }
+        return json.readTree(mvc.perform(requisicao).andReturn().getResponse().getContentAsString());
+    }
+}
@@ -0,0 +1,163 @@
+package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Carga.GeradorLiga;
+
+/**
+ * Simulação da temporada: a chance de set segue as regras de pontuação, a
+ * mesma semente repete o resultado, as chances somam o esperado e, sem
+ * partidas pendentes, o 1º colocado é o líder da classificação. O tempo de
+ * simulação é medido no benchmark JMH {@code SimulacaoTemporadaBenchmark}.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("teste")
+class SimulacaoTemporadaTests {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private ObjectMapper json;
+
+    @Test
+    void chanceDeSetConfereComRaliARali() {
+        assertEquals(0.5, SimulacaoTemporada.chanceSet(0.5, 25), 1e-12);
+        assertEquals(1, SimulacaoTemporada.chanceSet(0.45, 15) + SimulacaoTemporada.chanceSet(0.55, 15), 1e-12);
+
+        SplittableRandom aleatorio = new SplittableRandom(3);
+        for (double rali : new double[] {0.45, 0.52, 0.6}) {
+            for (int pontos : new int[] {25, 15}) {
+                int vencidos = 0;
+                int sets = 200_000;
+                for (int s = 0; s < sets; s++) {
+                    int a = 0;
+                    int b = 0;
+                    while ((a < pontos && b < pontos) || Math.abs(a - b) < 2) {
+                        if (aleatorio.nextDouble() < rali) {
+                            a++;
+                        } else {
+                            b++;
+                        }
+                    }
+                    if (a > b) {
+                        vencidos++;
+                    }
+                }
+                assertEquals((double) vencidos / sets, SimulacaoTemporada.chanceSet(rali, pontos), 0.005);
+            }
+        }
+    }
+
+    @Test
+    void simulacaoDaTemporada() throws Exception {
+        GeradorLiga gerador = new GeradorLiga(5);
+        Liga liga = liga(gerador, 6, 2031);
+        int temporada = liga.temporada();
+        List<Integer> partidas = partidas(liga);
+
+        // Todas as partidas decididas, exceto as 3 últimas; a antepenúltima
+        // fica com um set disputado.
+        registrarSets(gerador, partidas.subList(0, partidas.size() - 3));
+        corpo(put("/partidas/sets/" + partidas.get(partidas.size() - 3) + "/1/25/21"), null);
+
+        JsonNode simulacao = simular(temporada, 20_000, 42);
+        assertEquals(3, simulacao.get("partidasRestantes").asInt());
+        assertEquals(42, simulacao.get("semente").asLong());
+        assertEquals(simulacao, simular(temporada, 20_000, 42));
+
+        double primeiro = 0;
+        double topo = 0;
+        for (JsonNode equipe : simulacao.get("equipes")) {
+            primeiro += equipe.get("primeiro").asDouble();
+            topo += equipe.get("topo").asDouble();
+            assertTrue(equipe.get("topo").asDouble() >= equipe.get("primeiro").asDouble());
+        }
+        assertEquals(1, primeiro, 1e-9);
+        assertEquals(4, topo, 1e-9);
+
+        corpo(put("/partidas/sets/" + partidas.get(partidas.size() - 3) + "/2/25/21"), null);
+        corpo(put("/partidas/sets/" + partidas.get(partidas.size() - 3) + "/3/25/21"), null);
+        registrarSets(gerador, partidas.subList(partidas.size() - 2, partidas.size()));
+        JsonNode encerrada = simular(temporada, 1_000, 1);
+        assertEquals(0, encerrada.get("partidasRestantes").asInt());
+        JsonNode campea = encerrada.get("equipes").get(0);
+        assertEquals(1.0, campea.get("primeiro").asDouble());
+        assertEquals(corpo(get("/temporada/LiderTemporada/" + temporada), null).get("idEquipe").asInt(),
+                campea.get("idEquipe").asInt());
+    }
+
+    private record Liga(int temporada, List<Integer> equipes) {
+    }
+
+    private Liga liga(GeradorLiga gerador, int equipes, int ano) throws Exception {
+        List<Map<String, String>> novas = new ArrayList<>();
+        for (String nome : gerador.nomesEquipes(equipes)) {
+            novas.add(Map.of("nome", nome + " " + ano));
+        }
+        List<Integer> ids = new ArrayList<>();
+        for (JsonNode equipe : corpo(post("/VariasEquipes"), novas)) {
+            ids.add(equipe.get("idEquipe").asInt());
+        }
+        int temporada = corpo(post("/temporada"), Map.of("ano", ano)).get("id").asInt();
+        mvc.perform(put("/temporada/" + temporada + "/equipes").contentType(MediaType.APPLICATION_JSON)
+                .content(json.writeValueAsString(ids)));
+        return new Liga(temporada, ids);
+    }
+
+    private List<Integer> partidas(Liga liga) throws Exception {
+        List<Map<String, Integer>> confrontos = new ArrayList<>();
+        for (int[] par : GeradorLiga.turnoCompleto(liga.equipes().size())) {
+            confrontos.add(Map.of("id1", liga.equipes().get(par[0]), "id2", liga.equipes().get(par[1])));
+        }
+        List<Integer> partidas = new ArrayList<>();
+        for (JsonNode partida : corpo(post("/partidas"), Map.of("partidas", confrontos)).get("partidas")) {
+            partidas.add(partida.get("id").asInt());
+        }
+        return partidas;
+    }
+
+    private void registrarSets(GeradorLiga gerador, List<Integer> partidas) throws Exception {
+        List<Map<String, Integer>> sets = new ArrayList<>();
+        for (int partida : partidas) {
+            for (int[] set : gerador.setsDePartida()) {
+                sets.add(Map.of("id", partida, "set", set[0], "placar1", set[1], "placar2", set[2]));
+            }
+        }
+        corpo(put("/partidas/sets"), Map.of("sets", sets));
+    }
+
+    private JsonNode simular(int temporada, int simulacoes, long semente) throws Exception {
+        return corpo(get("/temporada/" + temporada + "/simulacao").param("simulacoes", String.valueOf(simulacoes))
+                .param("semente", String.valueOf(semente)), null);
+    }
+
+    private JsonNode corpo(MockHttpServletRequestBuilder requisicao, Object conteudo) throws Exception {
+        if (conteudo != null) {
+            requisicao.contentType(MediaType.APPLICATION_JSON).content(json.writeValueAsString(conteudo));
+        }
+        return json.readTree(mvc.perform(requisicao).andReturn().getResponse().getContentAsString());
+    }
+}
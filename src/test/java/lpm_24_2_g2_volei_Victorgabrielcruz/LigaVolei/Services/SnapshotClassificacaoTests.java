@@ -0,0 +1,221 @@
+package lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lpm_24_2_g2_volei_Victorgabrielcruz.LigaVolei.Carga.GeradorLiga;
+
+/**
+ * Uma nova instância da classificação, montada a partir do snapshot e das
+ * alterações do diário feitas depois dele (inclusive recálculos de
+ * contadores), chega às mesmas tabelas que o banco. O tempo de inicialização
+ * com e sem snapshot é medido só no perfil {@code carga}.
+ */
+// Caminho fixo: ${random.uuid} seria resolvido de novo a cada instância criada.
+// Cada instância descartada grava o snapshot lido pela seguinte.
+@SpringBootTest(properties = {"liga.classificacao.snapshot.intervalo=PT1H",
+        "liga.classificacao.snapshot.arquivo=target/classificacao-teste.snapshot",
+        "liga.classificacao.snapshot.apagar-ao-encerrar=false"})
+@AutoConfigureMockMvc
+@ActiveProfiles("teste")
+class SnapshotClassificacaoTests {
+
+    private static final int TEMPORADAS = Integer.getInteger("snapshot.temporadas", 6);
+    private static final int EQUIPES = Integer.getInteger("snapshot.equipes", 12);
+    private static final int RODADAS = Integer.getInteger("snapshot.rodadas", 5);
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private ObjectMapper json;
+
+    @Autowired
+    private ClassificacaoService classificacaoService;
+
+    @Autowired
+    private AutowireCapableBeanFactory fabrica;
+
+    @Autowired
+    private MeterRegistry registro;
+
+    @Autowired
+    private PlatformTransactionManager gerenciadorTransacoes;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Value("${liga.classificacao.snapshot.arquivo}")
+    private Path arquivo;
+
+    @Test
+    void inicializacaoPeloSnapshotAlcancaOBanco() throws Exception {
+        List<Integer> temporadas = popular(2000, true);
+        long antesComSnapshot = inicializacoes("snapshot");
+        long antesSemSnapshot = inicializacoes("banco");
+
+        iniciarEConferir(temporadas);
+        Files.delete(arquivo);
+        iniciarEConferir(temporadas);
+
+        assertEquals(antesComSnapshot + 1, inicializacoes("snapshot"));
+        assertEquals(antesSemSnapshot + 1, inicializacoes("banco"));
+    }
+
+    @Test
+    @Tag("carga")
+    void tempoDeInicializacao() throws Exception {
+        List<Integer> temporadas = popular(3000, false);
+
+        // A primeira rodada reaplica o diário; nas seguintes o snapshot é o
+        // gravado pela instância descartada na rodada anterior.
+        long comSnapshot = Long.MAX_VALUE;
+        long semSnapshot = Long.MAX_VALUE;
+        for (int rodada = 0; rodada < RODADAS; rodada++) {
+            comSnapshot = Math.min(comSnapshot, iniciarEConferir(temporadas));
+            Files.delete(arquivo);
+            semSnapshot = Math.min(semSnapshot, iniciarEConferir(temporadas));
+        }
+
+        String relatorio = String.format("Inicialização da classificação: %d temporadas, %d equipes cada, melhor de %d%n"
+                + "  com snapshot: %8.2f ms%n  sem snapshot: %8.2f ms%n",
+                TEMPORADAS, EQUIPES, RODADAS, comSnapshot / 1e6, semSnapshot / 1e6);
+        System.out.println(relatorio);
+        Files.writeString(Path.of("target", "classificacao-relatorio.txt"), relatorio);
+    }
+
+    /**
+     * Cria as temporadas com turno completo e grava o snapshot. Depois dele,
+     * registra sets de uma partida anterior, uma partida nova, uma inscrição
+     * nova e, se pedido, o recálculo de uma equipe cujos contadores estavam
+     * errados quando o snapshot foi gravado.
+     *
+     * @return IDs das temporadas criadas.
+     */
+    private List<Integer> popular(int primeiroAno, boolean comRecalculo) throws Exception {
+        GeradorLiga gerador = new GeradorLiga(11);
+        List<Integer> temporadas = new ArrayList<>();
+        List<List<Integer>> equipesPorTemporada = new ArrayList<>();
+        for (int t = 0; t < TEMPORADAS; t++) {
+            List<Map<String, String>> novas = new ArrayList<>();
+            for (String nome : gerador.nomesEquipes(EQUIPES)) {
+                novas.add(Map.of("nome", nome + " " + (primeiroAno + t)));
+            }
+            List<Integer> ids = new ArrayList<>();
+            for (JsonNode equipe : corpo(post("/VariasEquipes"), novas)) {
+                ids.add(equipe.get("idEquipe").asInt());
+            }
+            int temporada = corpo(post("/temporada"), Map.of("ano", primeiroAno + t)).get("id").asInt();
+            corpo(put("/temporada/" + temporada + "/equipes"), ids);
+
+            List<Map<String, Integer>> confrontos = new ArrayList<>();
+            for (int[] par : GeradorLiga.turnoCompleto(EQUIPES)) {
+                confrontos.add(Map.of("id1", ids.get(par[0]), "id2", ids.get(par[1])));
+            }
+            List<Map<String, Integer>> sets = new ArrayList<>();
+            for (JsonNode partida : corpo(post("/partidas"), Map.of("partidas", confrontos)).get("partidas")) {
+                for (int[] set : gerador.setsDePartida()) {
+                    sets.add(Map.of("id", partida.get("id").asInt(), "set", set[0], "placar1", set[1], "placar2", set[2]));
+                }
+            }
+            corpo(put("/partidas/sets"), Map.of("sets", sets));
+
+            temporadas.add(temporada);
+            equipesPorTemporada.add(ids);
+        }
+        int corrompida = equipesPorTemporada.get(TEMPORADAS - 1).get(0);
+        if (comRecalculo) {
+            // Contadores errados no banco antes de a classificação ser montada.
+            new TransactionTemplate(gerenciadorTransacoes).executeWithoutResult(status -> em.createQuery(
+                    "UPDATE Equipe e SET e.vitorias = 0, e.derrotas = 0 WHERE e.idEquipe = :id")
+                    .setParameter("id", corrompida)
+                    .executeUpdate());
+        }
+        for (int temporada : temporadas) {
+            classificacaoService.classificacao(temporada);
+        }
+        List<Integer> primeira = equipesPorTemporada.get(0);
+        int semSets = corpo(post("/partidas/" + primeira.get(0) + "/" + primeira.get(1)), null).get("id").asInt();
+
+        classificacaoService.gravarSnapshot();
+        assertTrue(Files.exists(arquivo));
+
+        for (int set = 1; set <= 3; set++) {
+            corpo(put("/partidas/sets/" + semSets + "/" + set + "/25/20"), null);
+        }
+        int nova = corpo(post("/partidas/" + primeira.get(2) + "/" + primeira.get(3)), null).get("id").asInt();
+        for (int set = 1; set <= 3; set++) {
+            corpo(put("/partidas/sets/" + nova + "/" + set + "/18/25"), null);
+        }
+        int tardia = corpo(post("/equipes"), Map.of("nome", "Tardia " + primeiroAno)).get("idEquipe").asInt();
+        corpo(put("/temporada/" + temporadas.get(1) + "/equipes/" + tardia), null);
+        if (comRecalculo) {
+            corpo(post("/equipes/recalcular/" + corrompida), null);
+        }
+        return temporadas;
+    }
+
+    private long inicializacoes(String origem) {
+        Timer timer = registro.find("liga.classificacao.inicializacao").tag("origem", origem).timer();
+        return timer == null ? 0 : timer.count();
+    }
+
+    /**
+     * Cria uma nova instância do serviço (que se inicializa sozinha), confere
+     * cada temporada com a classificação agregada no banco e a descarta.
+     *
+     * @return Duração da inicialização, em nanossegundos.
+     */
+    private long iniciarEConferir(List<Integer> temporadas) {
+        long inicio = System.nanoTime();
+        ClassificacaoService reiniciada = fabrica.createBean(ClassificacaoService.class);
+        long duracao = System.nanoTime() - inicio;
+        try {
+            for (int temporada : temporadas) {
+                assertEquals(classificacaoService.classificacaoAgregada(temporada),
+                        reiniciada.classificacao(temporada).linhas());
+            }
+        } finally {
+            fabrica.destroyBean(reiniciada);
+        }
+        return duracao;
+    }
+
+    private JsonNode corpo(MockHttpServletRequestBuilder requisicao, Object conteudo) throws Exception {
+        if (conteudo != null) {
+            requisicao.contentType(MediaType.APPLICATION_JSON).content(json.writeValueAsString(conteudo));
+        }
+        String resposta = mvc.perform(requisicao).andReturn().getResponse().getContentAsString();
+        return resposta.isEmpty() || !resposta.startsWith("{") && !resposta.startsWith("[")
+                ? json.nullNode() : json.readTree(resposta);
+    }
+}